@@ -0,0 +1,95 @@
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.yahoo.platform.yui.compressor.CssCompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OptimizeAssets - Minifies stylesheets and precompresses the static assets
+ * Run by the assets Maven profile on the build output, after the JavaScript
+ * has been minified by the Closure Compiler, as a single-file source program:
+ * java -cp yuicompressor.jar:brotli4j.jar OptimizeAssets.java target/classes/static
+ *
+ * Every .css file is minified in place, then .gz and .br variants are written
+ * next to each asset. Spring's EncodedResourceResolver serves these variants
+ * to clients that accept them, so nothing is compressed while handling requests.
+ */
+public class OptimizeAssets {
+
+    private static final List<String> EXTENSIONS = List.of(".css", ".js", ".svg", ".json");
+
+    // Below this size the encoding headers cost about as much as compression saves
+    private static final int MIN_SIZE = 1024;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OptimizeAssets <static resources directory>");
+        }
+        Brotli4jLoader.ensureAvailability();
+
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(Path.of(args[0]))) {
+            assets = files.filter(Files::isRegularFile)
+                    .filter(file -> EXTENSIONS.stream().anyMatch(file.toString()::endsWith))
+                    .collect(Collectors.toList());
+        }
+
+        for (Path asset : assets) {
+            if (asset.toString().endsWith(".css") && !asset.toString().endsWith(".min.css")) {
+                minifyCss(asset);
+            }
+
+            byte[] content = Files.readAllBytes(asset);
+            if (content.length < MIN_SIZE) {
+                continue;
+            }
+            byte[] gzip = gzip(content);
+            byte[] brotli = Encoder.compress(content, new Encoder.Parameters().setQuality(11));
+            write(asset, ".gz", content, gzip);
+            write(asset, ".br", content, brotli);
+            System.out.printf("%s: %d bytes, gzip %d, brotli %d%n",
+                    asset.getFileName(), content.length, gzip.length, brotli.length);
+        }
+    }
+
+    private static void minifyCss(Path stylesheet) throws IOException {
+        StringWriter minified = new StringWriter();
+        try (Reader reader = Files.newBufferedReader(stylesheet, StandardCharsets.UTF_8)) {
+            new CssCompressor(reader).compress(minified, -1);
+        }
+        Files.writeString(stylesheet, minified.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    // Only keep a variant that is actually smaller than the original
+    private static void write(Path asset, String suffix, byte[] content, byte[] compressed) throws IOException {
+        Path target = asset.resolveSibling(asset.getFileName() + suffix);
+        if (compressed.length < content.length) {
+            Files.write(target, compressed);
+        } else {
+            Files.deleteIfExists(target);
+        }
+    }
+}
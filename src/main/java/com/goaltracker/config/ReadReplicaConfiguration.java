@@ -0,0 +1,82 @@
+package com.goaltracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * ReadReplicaConfiguration - Routes read-only transactions to a PostgreSQL replica
+ * Active only when {@code goaltracker.datasource.replica.url} is set.
+ * The primary pool is still configured through spring.datasource.*; the
+ * replica pool takes goaltracker.datasource.replica.url, .username,
+ * .password and .hikari.* (defaults to the primary's credentials).
+ *
+ * Methods marked {@code @Transactional(readOnly = true)} run on the replica,
+ * so their results can lag behind the primary by the replication delay.
+ * Relies on spring.jpa.open-in-view=false: a request-wide EntityManager
+ * would keep the first transaction's connection (and pool) for the whole
+ * request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.datasource.replica.url")
+public class ReadReplicaConfiguration {
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        registerMetrics(dataSource, meterRegistry);
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("goaltracker.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(environment.getRequiredProperty("goaltracker.datasource.replica.url"))
+                .username(environment.getProperty("goaltracker.datasource.replica.username",
+                        properties.determineUsername()))
+                .password(environment.getProperty("goaltracker.datasource.replica.password",
+                        properties.determinePassword()))
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        registerMetrics(dataSource, meterRegistry);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        // Lazy proxy: the physical connection (and so the route) is chosen at the first statement
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                primaryDataSource(properties, meterRegistry),
+                replicaDataSource(properties, environment, meterRegistry)));
+    }
+
+    private static void registerMetrics(HikariDataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        // The pools are not autowire candidates, so Boot's pool metrics do not see them; tag by pool name instead
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
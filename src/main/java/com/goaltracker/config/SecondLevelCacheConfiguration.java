@@ -0,0 +1,129 @@
+package com.goaltracker.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * SecondLevelCacheConfiguration - Hibernate second-level cache on in-process Ehcache (JCache)
+ * User and Goal rows are read by primary key on almost every request but
+ * change rarely, so they are kept in per-region heap caches. Each region's
+ * size and time-to-live can be tuned with
+ * {@code goaltracker.cache.<region>.max-entries} and
+ * {@code goaltracker.cache.<region>.ttl}.
+ *
+ * The caches are local to each instance and nothing invalidates them across
+ * instances: a goal edited on one node stays stale on the others for up to
+ * the TTL, and updates from there fail the {@code @Version} check. The cache
+ * is therefore only on by default while the application runs as a single
+ * node, i.e. neither {@code goaltracker.session.store} nor
+ * {@code goaltracker.idempotency.store} is {@code jdbc}. Setting
+ * {@code goaltracker.cache.enabled} overrides that either way; only set it
+ * to true for several nodes if stale reads for up to the TTL are acceptable.
+ *
+ * Hibernate statistics are enabled so hit/miss counts per region show up
+ * under the hibernate.second.level.cache.* metrics.
+ */
+@Configuration
+@Conditional(SecondLevelCacheConfiguration.SingleNodeCondition.class)
+public class SecondLevelCacheConfiguration {
+
+    // Region names used in the @Cache / @NaturalIdCache annotations on the entities
+    public static final String USER_REGION = "user";
+    public static final String USER_NATURAL_ID_REGION = "user-natural-id";
+    public static final String GOAL_REGION = "goal";
+
+    private final Environment environment;
+
+    @Autowired
+    public SecondLevelCacheConfiguration(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A dedicated manager per application context so regions are never shared across contexts
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:goaltracker:hibernate:" + UUID.randomUUID()),
+                ConfigurationBuilder.newConfigurationBuilder().build());
+        createRegion(cacheManager, USER_REGION, 10_000, Duration.ofMinutes(10));
+        createRegion(cacheManager, USER_NATURAL_ID_REGION, 10_000, Duration.ofMinutes(10));
+        createRegion(cacheManager, GOAL_REGION, 50_000, Duration.ofMinutes(10));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region is declared above; a missing one is a typo in an annotation
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long defaultMaxEntries,
+            Duration defaultTtl) {
+        long maxEntries = environment.getProperty("goaltracker.cache." + region + ".max-entries", Long.class,
+                defaultMaxEntries);
+        Duration ttl = environment.getProperty("goaltracker.cache." + region + ".ttl", Duration.class, defaultTtl);
+
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))));
+    }
+
+    /**
+     * Matches if {@code goaltracker.cache.enabled} is true, or unset while no
+     * store is shared between nodes
+     */
+    static class SingleNodeCondition extends SpringBootCondition {
+
+        private static final List<String> SHARED_STORES = List.of("goaltracker.session.store",
+                "goaltracker.idempotency.store");
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment environment = context.getEnvironment();
+            String enabled = environment.getProperty("goaltracker.cache.enabled");
+            if (enabled != null) {
+                return Boolean.parseBoolean(enabled)
+                        ? ConditionOutcome.match("goaltracker.cache.enabled is true")
+                        : ConditionOutcome.noMatch("goaltracker.cache.enabled is false");
+            }
+            for (String store : SHARED_STORES) {
+                if ("jdbc".equalsIgnoreCase(environment.getProperty(store))) {
+                    return ConditionOutcome.noMatch(store + " is jdbc, so several nodes may run");
+                }
+            }
+            return ConditionOutcome.match("no store is shared between nodes");
+        }
+    }
+}
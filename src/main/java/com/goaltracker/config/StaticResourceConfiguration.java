@@ -0,0 +1,56 @@
+package com.goaltracker.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * StaticResourceConfiguration - Fingerprinted, long-cached stylesheets and scripts
+ * /css/** and /js/** are served through a resource chain that adds a content
+ * hash to their URLs (custom.css becomes custom-&lt;md5&gt;.css). JSPs link
+ * to them with {@code <c:url>}, which the {@link ResourceUrlEncodingFilter}
+ * rewrites to the hashed name, so a changed file always gets a new URL and the
+ * response can be cached as immutable for {@code goaltracker.static-resources.max-age}.
+ *
+ * The .gz and .br variants written by the assets Maven profile are served to
+ * clients that accept them; without them the plain file is served.
+ */
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    private final Duration maxAge;
+
+    @Autowired
+    public StaticResourceConfiguration(@Value("${goaltracker.static-resources.max-age:365d}") Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        addFingerprintedHandler(registry, "css");
+        addFingerprintedHandler(registry, "js");
+    }
+
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
+    private void addFingerprintedHandler(ResourceHandlerRegistry registry, String directory) {
+        registry.addResourceHandler("/" + directory + "/**")
+                .addResourceLocations("classpath:/static/" + directory + "/")
+                .setCacheControl(CacheControl.maxAge(maxAge).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.goaltracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * VirtualThreadConfiguration - Connection limit for the virtual-thread execution mode
+ * With {@code spring.threads.virtual.enabled=true} on Java 21, Boot runs Tomcat
+ * request handling, {@code @Async} methods and {@code @Scheduled} tasks on
+ * virtual threads, so concurrency is no longer capped by
+ * {@code server.tomcat.threads.max}. Every request then reaches the
+ * connection pool at once. This configuration wraps the {@code dataSource}
+ * bean in a {@link ConnectionLimitingDataSource}, so callers queue fairly for
+ * a permit instead of racing inside the pool, where a late caller can take
+ * a returned connection ahead of one that has waited since the start.
+ *
+ * {@code goaltracker.datasource.max-concurrent-connections} defaults to the
+ * Hikari pool size (set it to the sum of both pools with a read replica);
+ * {@code goaltracker.datasource.acquire-timeout} defaults to 30s like Hikari's.
+ * Metrics: goaltracker.datasource.acquire (timer, also read by the load
+ * shedder), goaltracker.datasource.permits.available and .waiting.
+ *
+ * On Java 17 the property has no effect and neither has this configuration.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${goaltracker.datasource.max-concurrent-connections:0}") int maxConnections,
+            @Value("${goaltracker.datasource.acquire-timeout:30s}") Duration acquireTimeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(dataSource,
+                        maxConnections > 0 ? maxConnections : poolSize(dataSource), acquireTimeout,
+                        Timer.builder("goaltracker.datasource.acquire")
+                                .description("Time spent waiting for a connection permit")
+                                .register(registry));
+                Gauge.builder("goaltracker.datasource.permits.available", limited,
+                        ConnectionLimitingDataSource::getAvailablePermits).register(registry);
+                Gauge.builder("goaltracker.datasource.permits.waiting", limited,
+                        ConnectionLimitingDataSource::getWaiting).register(registry);
+                return limited;
+            }
+        };
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            // Left unset (-1) until the pool starts, when Hikari applies its own default of 10
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return poolSize > 0 ? poolSize : DEFAULT_MAX_CONNECTIONS;
+            }
+        } catch (SQLException e) {
+            // Not a Hikari pool after all; use the default below
+        }
+        return DEFAULT_MAX_CONNECTIONS;
+    }
+}
@@ -0,0 +1,68 @@
+package com.goaltracker.controller;
+
+import com.goaltracker.ratelimit.LoginThrottle;
+import com.goaltracker.security.ApiTokenService;
+import com.goaltracker.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AuthApiController - Issues stateless API tokens
+ * Clients exchange their credentials for a short-lived signed token and send
+ * it as {@code Authorization: Bearer <token>} on /api/** calls. Only
+ * available when token authentication is enabled.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnProperty(name = "goaltracker.api-token.enabled", havingValue = "true")
+public class AuthApiController {
+
+    private final UserService userService;
+    private final ApiTokenService apiTokenService;
+    private final LoginThrottle loginThrottle;
+
+    @Autowired
+    public AuthApiController(UserService userService, ApiTokenService apiTokenService,
+            LoginThrottle loginThrottle) {
+        this.userService = userService;
+        this.apiTokenService = apiTokenService;
+        this.loginThrottle = loginThrottle;
+    }
+
+    /**
+     * Authenticates the user and issues a new API token
+     *
+     * @param username The username to authenticate
+     * @param password The plain text password
+     * @param request  HTTP request, used for the client address
+     * @return JSON response with the token, or 401 if the credentials are invalid
+     */
+    @PostMapping("/token")
+    public ResponseEntity<Map<String, Object>> issueToken(@RequestParam String username,
+            @RequestParam String password,
+            HttpServletRequest request) {
+        loginThrottle.acquireLogin(username, request.getRemoteAddr());
+
+        Map<String, Object> response = new HashMap<>();
+
+        var userOpt = userService.authenticateUser(username, password);
+        if (userOpt.isEmpty()) {
+            response.put("success", false);
+            response.put("error", "Invalid username or password");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+
+        response.put("success", true);
+        response.put("token", apiTokenService.issue(userOpt.get().getId()));
+        response.put("tokenType", "Bearer");
+        response.put("expiresIn", apiTokenService.getTtl().toSeconds());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,11 +1,16 @@
 package com.goaltracker.controller;
 
+import com.goaltracker.security.ApiTokenAuthenticationFilter;
 import com.goaltracker.service.GoalService;
-import com.goaltracker.entity.GoalDay;
+import com.goaltracker.dto.GoalDayDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +22,10 @@ import java.util.stream.Collectors;
  * JavaScript,
  * including calendar day toggling, progress updates, and data retrieval.
  * It returns JSON responses instead of HTML pages.
+ * 
+ * Every endpoint requires a caller, identified by an API token or else the
+ * session, and only serves goals owned by that caller: anonymous requests get
+ * 401, and another user's goal is answered like a missing one (404).
  */
 @RestController
 @RequestMapping("/api/goals")
@@ -42,8 +51,13 @@ public class GoalApiController {
     @PostMapping("/{goalId}/days/{date}/toggle")
     public ResponseEntity<Map<String, Object>> toggleGoalDay(
             @PathVariable Long goalId,
-            @PathVariable String date) {
+            @PathVariable String date,
+            HttpServletRequest request) {
 
+        ResponseEntity<Map<String, Object>> denied = checkAccess(goalId, request);
+        if (denied != null) {
+            return denied;
+        }
         try {
             // Parse the date string to LocalDate object
             LocalDate localDate = LocalDate.parse(date);
@@ -80,7 +94,12 @@ public class GoalApiController {
      *         status)
      */
     @GetMapping("/{goalId}/progress")
-    public ResponseEntity<Map<String, Object>> getGoalProgress(@PathVariable Long goalId) {
+    public ResponseEntity<Map<String, Object>> getGoalProgress(@PathVariable Long goalId,
+            HttpServletRequest request) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(goalId, request);
+        if (denied != null) {
+            return denied;
+        }
         try {
             // Fetch the goal with calculated progress metrics
             var goal = goalService.getGoalById(goalId);
@@ -108,20 +127,43 @@ public class GoalApiController {
     }
 
     /**
-     * Retrieves all day records for a specific goal
-     * This endpoint is called when initializing the calendar to show completion
-     * status
+     * Retrieves the day records for a specific goal, optionally one window at a time
+     * The calendar calls this with a month window for each month scrolled into view.
+     * Without parameters every day of the goal is returned. With only {@code from}
+     * the window runs from that date to the end of its month; with only {@code to}
+     * it runs from the first of that month up to that date.
      * 
      * @param goalId The unique identifier of the goal
-     * @return JSON response with array of day objects containing completion status
+     * @param from   Optional first day of the window in ISO format (YYYY-MM-DD)
+     * @param to     Optional last day of the window in ISO format (YYYY-MM-DD)
+     * @return JSON response with array of day objects containing completion status,
+     *         plus the window and the start of the next one when paging
      */
     @GetMapping("/{goalId}/days")
-    public ResponseEntity<Map<String, Object>> getGoalDays(@PathVariable Long goalId) {
+    public ResponseEntity<Map<String, Object>> getGoalDays(
+            @PathVariable Long goalId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            HttpServletRequest request) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(goalId, request);
+        if (denied != null) {
+            return denied;
+        }
         try {
-            // Fetch all day records for this goal
-            List<GoalDay> days = goalService.getGoalDays(goalId);
-
-            // Convert GoalDay entities to simple maps for JSON serialization
+            List<GoalDayDto> days;
+            LocalDate windowStart = null;
+            LocalDate windowEnd = null;
+            if (from == null && to == null) {
+                // Fetch the status of every day of this goal
+                days = goalService.getGoalDays(goalId);
+            } else {
+                // Default a missing bound to the edge of the month of the other one
+                windowStart = from != null ? LocalDate.parse(from) : LocalDate.parse(to).withDayOfMonth(1);
+                windowEnd = to != null ? LocalDate.parse(to) : windowStart.with(TemporalAdjusters.lastDayOfMonth());
+                days = goalService.getGoalDays(goalId, windowStart, windowEnd);
+            }
+
+            // Convert days to simple maps for JSON serialization
             List<Map<String, Object>> daysData = days.stream()
                     .map(day -> {
                         Map<String, Object> dayMap = new HashMap<>();
@@ -136,6 +178,11 @@ public class GoalApiController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("days", daysData);
+            if (windowStart != null) {
+                response.put("from", windowStart.toString());
+                response.put("to", windowEnd.toString());
+                response.put("nextFrom", windowEnd.plusDays(1).toString());
+            }
 
             // Return 200 OK with days data
             return ResponseEntity.ok(response);
@@ -150,4 +197,39 @@ public class GoalApiController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    /**
+     * Checks that the caller is known and owns the goal
+     * 
+     * @param goalId  The unique identifier of the goal
+     * @param request The current request
+     * @return The error response to send, or null if access is allowed
+     */
+    private ResponseEntity<Map<String, Object>> checkAccess(Long goalId, HttpServletRequest request) {
+        Long userId = currentUserId(request);
+        if (userId == null) {
+            return error(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        if (!goalService.isOwnedBy(goalId, userId)) {
+            return error(HttpStatus.NOT_FOUND, "Goal not found with id: " + goalId);
+        }
+        return null;
+    }
+
+    // The user from a verified API token, else the logged-in user of the session
+    private static Long currentUserId(HttpServletRequest request) {
+        Object tokenUserId = request.getAttribute(ApiTokenAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (tokenUserId != null) {
+            return (Long) tokenUserId;
+        }
+        HttpSession session = request.getSession(false);
+        return session != null ? (Long) session.getAttribute("userId") : null;
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", message);
+        return ResponseEntity.status(status).body(response);
+    }
 }
@@ -2,6 +2,8 @@ package com.goaltracker.controller;
 
 import com.goaltracker.dto.GoalDto;
 import com.goaltracker.service.GoalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,6 +25,8 @@ import java.util.List;
 @RequestMapping("/goals")
 public class GoalController {
 
+    private static final Logger log = LoggerFactory.getLogger(GoalController.class);
+
     // Service dependency for business logic
     @Autowired
     private GoalService goalService;
@@ -265,8 +269,7 @@ public class GoalController {
      */
     @PostMapping("/{id}/delete")
     public String deleteGoal(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        // Log the deletion attempt for debugging
-        System.out.println("Attempting to delete goal with ID: " + id);
+        log.debug("Deleting goal {}", id);
 
         try {
             // Delete the goal using the service layer
@@ -0,0 +1,33 @@
+package com.goaltracker.controller;
+
+import com.goaltracker.service.TooManyRequestsException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TooManyRequestsAdvice - Turns shed requests into HTTP 429 responses
+ * The response is a small JSON body with a Retry-After header; no view is
+ * rendered so rejection stays cheap under load. Only applies to the JSON API
+ * controllers; the login and registration pages show their form again instead.
+ */
+@ControllerAdvice(annotations = RestController.class)
+public class TooManyRequestsAdvice {
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(TooManyRequestsException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body(response);
+    }
+}
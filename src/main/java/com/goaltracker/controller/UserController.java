@@ -1,16 +1,27 @@
 package com.goaltracker.controller;
 
 import com.goaltracker.dto.UserDto;
+import com.goaltracker.ratelimit.LoginThrottle;
+import com.goaltracker.service.TooManyRequestsException;
 import com.goaltracker.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * UserController - Handles user authentication and registration
  * This controller manages user registration, login, logout, and session
@@ -22,10 +33,12 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class UserController {
 
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, LoginThrottle loginThrottle) {
         this.userService = userService;
+        this.loginThrottle = loginThrottle;
     }
 
     /**
@@ -49,17 +62,34 @@ public class UserController {
      * @param username           The username from the login form
      * @param password           The password from the login form
      * @param session            HTTP session for storing user data
+     * @param request            HTTP request, used for the client address
+     * @param response           HTTP response, used for the 429 status
+     * @param model              Spring MVC model, used when the form is shown again
      * @param redirectAttributes For passing messages between requests
-     * @return Redirect to goals page on success, back to login on failure
+     * @return Redirect to goals page on success, back to login on failure, or
+     *         the login form again (HTTP 429) when the attempt is throttled
      */
     @PostMapping("/login")
     public String processLogin(@RequestParam String username,
             @RequestParam String password,
             HttpSession session,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Model model,
             RedirectAttributes redirectAttributes) {
 
-        // Authenticate user
-        var userOpt = userService.authenticateUser(username, password);
+        Optional<UserDto> userOpt;
+        try {
+            // Reject floods before any password hashing happens (HTTP 429)
+            loginThrottle.acquireLogin(username, request.getRemoteAddr());
+
+            // Authenticate user
+            userOpt = userService.authenticateUser(username, password);
+        } catch (TooManyRequestsException e) {
+            model.addAttribute("userDto", new UserDto());
+            model.addAttribute("pageTitle", "Login");
+            return showTooManyRequests(e, response, model, "auth/login");
+        }
 
         if (userOpt.isPresent()) {
             // Store user in session
@@ -101,15 +131,30 @@ public class UserController {
      * @param userDto            The user data from the registration form
      * @param result             Binding result containing validation errors
      * @param session            HTTP session for storing user data
+     * @param request            HTTP request, used for the client address
+     * @param response           HTTP response, used for the 429 status
+     * @param model              Spring MVC model, used when the form is shown again
      * @param redirectAttributes For passing messages between requests
-     * @return Redirect to goals page on success, back to register on failure
+     * @return Redirect to goals page on success, back to register on failure, or
+     *         the registration form again (HTTP 429) when the attempt is throttled
      */
     @PostMapping("/register")
     public String processRegistration(@Valid @ModelAttribute("userDto") UserDto userDto,
             BindingResult result,
             HttpSession session,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Model model,
             RedirectAttributes redirectAttributes) {
 
+        try {
+            // Reject floods before any password hashing happens (HTTP 429)
+            loginThrottle.acquireRegistration(request.getRemoteAddr());
+        } catch (TooManyRequestsException e) {
+            model.addAttribute("pageTitle", "Register");
+            return showTooManyRequests(e, response, model, "auth/register");
+        }
+
         // Check for validation errors
         if (result.hasErrors()) {
             return "auth/register";
@@ -137,6 +182,10 @@ public class UserController {
 
             return "redirect:/goals";
 
+        } catch (TooManyRequestsException e) {
+            // The password hashing queue is full; keep the entered data on the form
+            model.addAttribute("pageTitle", "Register");
+            return showTooManyRequests(e, response, model, "auth/register");
         } catch (RuntimeException e) {
             // Registration failed
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -145,6 +194,53 @@ public class UserController {
         }
     }
 
+    /**
+     * Checks whether a username and/or email is still free
+     * Backs the live checks on the registration form; most answers come from
+     * the in-memory availability filter without a database query. Every check
+     * tells whether an account exists, so it takes a permit from the same
+     * per-IP bucket as registrations and answers 429 once that is empty.
+     * 
+     * With several instances an "available" answer can be wrong for a name
+     * registered on another instance since this one last rebuilt its filter;
+     * the form submit still gets the right answer from the database.
+     * 
+     * @param username Username to check (optional)
+     * @param email    Email to check (optional)
+     * @param request  HTTP request, for the client address
+     * @return JSON response with "available" (all given values are free) and per-field results
+     */
+    @GetMapping("/availability")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> checkAvailability(@RequestParam(required = false) String username,
+            @RequestParam(required = false) String email, HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            loginThrottle.acquireRegistration(request.getRemoteAddr());
+        } catch (TooManyRequestsException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                    .body(response);
+        }
+        boolean available = true;
+
+        if (username != null && !username.isBlank()) {
+            boolean usernameAvailable = userService.isUsernameAvailable(username);
+            response.put("usernameAvailable", usernameAvailable);
+            available = usernameAvailable;
+        }
+        if (email != null && !email.isBlank()) {
+            boolean emailAvailable = userService.isEmailAvailable(email);
+            response.put("emailAvailable", emailAvailable);
+            available = available && emailAvailable;
+        }
+
+        response.put("available", available);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Logs out the current user
      * Clears the session and redirects to login page
@@ -189,7 +285,27 @@ public class UserController {
 
         model.addAttribute("currentUser", currentUser);
         model.addAttribute("formattedCreatedAt", formattedDate);
+        model.addAttribute("stats", userService.getUserStats(currentUser.getId()));
         model.addAttribute("pageTitle", "Profile - " + currentUser.getUsername());
         return "auth/profile";
     }
+
+    /**
+     * Shows a form again after a throttled attempt
+     * The page keeps the form usable and tells the user to wait, while the
+     * status and Retry-After header still mark the request as shed.
+     *
+     * @param e        The rejection, carrying the message and retry delay
+     * @param response HTTP response to set the status and header on
+     * @param model    Spring MVC model for the error message
+     * @param view     The form view to render
+     * @return The name of the JSP view to render
+     */
+    private String showTooManyRequests(TooManyRequestsException e, HttpServletResponse response, Model model,
+            String view) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()));
+        model.addAttribute("error", e.getMessage());
+        return view;
+    }
 }
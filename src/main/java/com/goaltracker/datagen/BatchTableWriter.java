@@ -0,0 +1,55 @@
+package com.goaltracker.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * BatchTableWriter - Writes rows with a JDBC batch of prepared INSERTs
+ * Used for every database without a faster bulk path (H2).
+ */
+class BatchTableWriter implements TableWriter {
+
+    private final PreparedStatement statement;
+    private int pending;
+    private long rows;
+
+    BatchTableWriter(Connection connection, String table, String... columns) throws SQLException {
+        this.statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                + ") VALUES (" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")");
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        pending++;
+        rows++;
+    }
+
+    @Override
+    public int pending() {
+        return pending;
+    }
+
+    @Override
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+}
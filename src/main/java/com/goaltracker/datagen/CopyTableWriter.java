@@ -0,0 +1,82 @@
+package com.goaltracker.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * CopyTableWriter - Streams rows into PostgreSQL with COPY ... FROM STDIN
+ * Rows are buffered as CSV and sent in one COPY per flush, which loads
+ * several times faster than batched INSERTs.
+ */
+class CopyTableWriter implements TableWriter {
+
+    private final CopyManager copyManager;
+    private final String copySql;
+    private final StringBuilder buffer = new StringBuilder();
+    private int pending;
+    private long rows;
+
+    CopyTableWriter(Connection connection, String table, String... columns) throws SQLException {
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        this.copySql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    @Override
+    public void add(Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            appendValue(values[i]);
+        }
+        buffer.append('\n');
+        pending++;
+        rows++;
+    }
+
+    // An unquoted empty field is NULL in CSV format; java.time values print as ISO 8601
+    private void appendValue(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    @Override
+    public int pending() {
+        return pending;
+    }
+
+    @Override
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        try {
+            copyManager.copyIn(copySql, new StringReader(buffer.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + copySql, e);
+        }
+        buffer.setLength(0);
+        pending = 0;
+    }
+
+    @Override
+    public void close() {
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,306 @@
+package com.goaltracker.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * DataGenerator - Fills the database with a large, reproducible synthetic dataset
+ * Creates users, their goals and a row for every day of every goal, like the
+ * application does when a goal is created, with the shape of the data drawn
+ * from configurable distributions:
+ * <ul>
+ * <li>goals per user - geometric around the configured mean (many users with a
+ * few goals and a long tail), capped at a maximum</li>
+ * <li>goal length in days - log-normal around the configured median, capped</li>
+ * <li>completion rate - drawn per goal from a normal distribution clamped to
+ * [0, 1]; each day before the reference date is completed with that probability</li>
+ * </ul>
+ * Goals start uniformly over the history window before the reference date, so
+ * the data mixes finished and running goals. Every value comes from one
+ * generator seeded with {@code seed}, so the same settings and reference date
+ * always produce the same rows.
+ *
+ * Rows get explicit ids above the current maximum of each table, and the
+ * identity sequences are moved past them at the end. PostgreSQL is loaded with
+ * COPY and other databases with JDBC batches, committing every
+ * {@code batchSize} goal days. Nothing else may write to the database while it
+ * runs.
+ */
+public class DataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String[] TITLES = { "Morning run", "Read 20 pages", "Meditate 10 minutes",
+            "Practice guitar", "No sugar", "Learn Spanish", "Drink 2 liters of water", "Write 500 words",
+            "Stretch", "Walk 10k steps", "In bed before 11", "Journal" };
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final DataSource dataSource;
+    private final Settings settings;
+    private final String passwordHash;
+
+    /**
+     * @param dataSource   Database to fill
+     * @param settings     Size and shape of the dataset
+     * @param passwordHash Stored as the password of every generated user
+     */
+    public DataGenerator(DataSource dataSource, Settings settings, String passwordHash) {
+        this.dataSource = dataSource;
+        this.settings = settings;
+        this.passwordHash = passwordHash;
+    }
+
+    /**
+     * Generates and writes the whole dataset
+     *
+     * @return Number of rows written per table
+     * @throws SQLException if writing fails; chunks committed before stay in the database
+     */
+    public Summary generate() throws SQLException {
+        SplittableRandom random = new SplittableRandom(settings.seed);
+        LocalDate today = settings.referenceDate != null ? settings.referenceDate : LocalDate.now();
+        long started = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean postgresql = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            Summary summary;
+            try (TableWriter users = writer(connection, postgresql, "users",
+                    "id", "username", "email", "password", "created_at");
+                    TableWriter goals = writer(connection, postgresql, "goal",
+                            "id", "user_id", "title", "description", "start_date", "end_date", "created_at", "version");
+                    TableWriter days = writer(connection, postgresql, "goal_day",
+                            "id", "goal_id", "day_date", "completed", "completed_at", "created_at")) {
+                long userId = nextId(connection, "users");
+                long goalId = nextId(connection, "goal");
+                long dayId = nextId(connection, "goal_day");
+
+                for (int u = 0; u < settings.users; u++, userId++) {
+                    LocalDateTime userCreatedAt = randomTime(random,
+                            today.minusDays(settings.historyDays + random.nextInt(30)));
+                    users.add(userId, "load_user_" + userId, "load_user_" + userId + "@example.com",
+                            passwordHash, userCreatedAt);
+
+                    int goalCount = goalsPerUser(random);
+                    for (int g = 0; g < goalCount; g++, goalId++) {
+                        LocalDate start = today.minusDays(random.nextInt(settings.historyDays));
+                        LocalDate end = start.plusDays(goalLength(random) - 1);
+                        LocalDateTime goalCreatedAt = randomTime(random, start.minusDays(1));
+                        goals.add(goalId, userId, TITLES[random.nextInt(TITLES.length)], null, start, end,
+                                goalCreatedAt, 0L);
+                        dayId = addDays(days, random, dayId, goalId, start, end, goalCreatedAt, today);
+                    }
+
+                    // Parents are flushed first so the foreign keys of each chunk are satisfied
+                    if (days.pending() >= settings.batchSize) {
+                        flush(connection, users, goals, days);
+                        log.info("Generated {} of {} users, {} goal days", users.rows(), settings.users, days.rows());
+                    }
+                }
+                flush(connection, users, goals, days);
+
+                restartIdentity(connection, postgresql, "users", userId);
+                restartIdentity(connection, postgresql, "goal", goalId);
+                restartIdentity(connection, postgresql, "goal_day", dayId);
+                connection.commit();
+                summary = new Summary(users.rows(), goals.rows(), days.rows(), System.nanoTime() - started);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            // Fresh planner statistics, so benchmarks on the new data see realistic plans
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(postgresql ? "ANALYZE users, goal, goal_day" : "ANALYZE");
+            }
+            log.info("Generated {}", summary);
+            return summary;
+        }
+    }
+
+    private long addDays(TableWriter days, SplittableRandom random, long dayId, long goalId, LocalDate start,
+            LocalDate end, LocalDateTime createdAt, LocalDate today) throws SQLException {
+        double completionRate = clamp(settings.completionRateMean
+                + settings.completionRateStddev * random.nextGaussian(), 0.0, 1.0);
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1), dayId++) {
+            boolean completed = day.isBefore(today) && random.nextDouble() < completionRate;
+            days.add(dayId, goalId, day, completed, completed ? randomTime(random, day) : null, createdAt);
+        }
+        return dayId;
+    }
+
+    // Geometric distribution on 0, 1, 2, ... with the configured mean
+    private int goalsPerUser(SplittableRandom random) {
+        double p = 1.0 / (settings.goalsPerUserMean + 1.0);
+        double goals = Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+        return (int) Math.min(goals, settings.goalsPerUserMax);
+    }
+
+    // Log-normal around the configured median
+    private int goalLength(SplittableRandom random) {
+        long days = Math.round(settings.goalLengthMedian * Math.exp(settings.goalLengthSigma * random.nextGaussian()));
+        return (int) Math.max(1, Math.min(days, settings.goalLengthMax));
+    }
+
+    private static LocalDateTime randomTime(SplittableRandom random, LocalDate day) {
+        return day.atStartOfDay().plusSeconds(random.nextInt(SECONDS_PER_DAY));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static TableWriter writer(Connection connection, boolean postgresql, String table, String... columns)
+            throws SQLException {
+        return postgresql ? new CopyTableWriter(connection, table, columns)
+                : new BatchTableWriter(connection, table, columns);
+    }
+
+    private static void flush(Connection connection, TableWriter... writers) throws SQLException {
+        for (TableWriter writer : writers) {
+            writer.flush();
+        }
+        connection.commit();
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Explicit ids do not advance the identity sequence; move it past the generated rows
+    private static void restartIdentity(Connection connection, boolean postgresql, String table, long nextId)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (postgresql) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + nextId + ", false)");
+            } else {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+            }
+        }
+    }
+
+    /**
+     * Settings - Size and shape of the generated dataset
+     * The defaults produce roughly 10k users, 100k goals and 27M goal days.
+     */
+    public static class Settings {
+
+        private int users = 10_000;
+        private double goalsPerUserMean = 10;
+        private int goalsPerUserMax = 100;
+        private int goalLengthMedian = 270;
+        private double goalLengthSigma = 0.4;
+        private int goalLengthMax = 365;
+        private double completionRateMean = 0.6;
+        private double completionRateStddev = 0.25;
+        private int historyDays = 730;
+        private LocalDate referenceDate;
+        private long seed = 42;
+        private int batchSize = 50_000;
+
+        public Settings users(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Settings goalsPerUser(double mean, int max) {
+            this.goalsPerUserMean = mean;
+            this.goalsPerUserMax = max;
+            return this;
+        }
+
+        public Settings goalLength(int median, double sigma, int max) {
+            this.goalLengthMedian = median;
+            this.goalLengthSigma = sigma;
+            this.goalLengthMax = max;
+            return this;
+        }
+
+        public Settings completionRate(double mean, double stddev) {
+            this.completionRateMean = mean;
+            this.completionRateStddev = stddev;
+            return this;
+        }
+
+        public Settings historyDays(int historyDays) {
+            this.historyDays = historyDays;
+            return this;
+        }
+
+        /**
+         * @param referenceDate "Today" for the generated data; null means the current date
+         */
+        public Settings referenceDate(LocalDate referenceDate) {
+            this.referenceDate = referenceDate;
+            return this;
+        }
+
+        public Settings seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param batchSize Goal days written and committed per chunk
+         */
+        public Settings batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+    }
+
+    /**
+     * Summary - Rows written by one run
+     */
+    public static class Summary {
+
+        private final long users;
+        private final long goals;
+        private final long goalDays;
+        private final long elapsedNanos;
+
+        Summary(long users, long goals, long goalDays, long elapsedNanos) {
+            this.users = users;
+            this.goals = goals;
+            this.goalDays = goalDays;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getUsers() {
+            return users;
+        }
+
+        public long getGoals() {
+            return goals;
+        }
+
+        public long getGoalDays() {
+            return goalDays;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(elapsedNanos / 1e9, 0.001);
+            long rows = users + goals + goalDays;
+            return String.format("%d users, %d goals and %d goal days in %.1f s (%,.0f rows/min)",
+                    users, goals, goalDays, seconds, rows / seconds * 60);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.goaltracker.datagen;
+
+import com.goaltracker.service.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+/**
+ * DataGeneratorConfiguration - Runs the synthetic data generator instead of serving requests
+ * Active only when {@code goaltracker.datagen.enabled=true}, which the datagen
+ * profile sets together with its default distributions. The application
+ * migrates the schema, writes the dataset and exits:
+ * java -jar goal-tracker.jar --spring.profiles.active=datagen [--goaltracker.datagen.users=1000]
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.datagen.enabled", havingValue = "true")
+public class DataGeneratorConfiguration {
+
+    @Bean
+    public DataGenerator dataGenerator(DataSource dataSource, PasswordHashingService passwordHashingService,
+            @Value("${goaltracker.datagen.users:10000}") int users,
+            @Value("${goaltracker.datagen.goals-per-user.mean:10}") double goalsPerUserMean,
+            @Value("${goaltracker.datagen.goals-per-user.max:100}") int goalsPerUserMax,
+            @Value("${goaltracker.datagen.goal-length.median:270}") int goalLengthMedian,
+            @Value("${goaltracker.datagen.goal-length.sigma:0.4}") double goalLengthSigma,
+            @Value("${goaltracker.datagen.goal-length.max:365}") int goalLengthMax,
+            @Value("${goaltracker.datagen.completion-rate.mean:0.6}") double completionRateMean,
+            @Value("${goaltracker.datagen.completion-rate.stddev:0.25}") double completionRateStddev,
+            @Value("${goaltracker.datagen.history-days:730}") int historyDays,
+            @Value("${goaltracker.datagen.reference-date:#{null}}") LocalDate referenceDate,
+            @Value("${goaltracker.datagen.seed:42}") long seed,
+            @Value("${goaltracker.datagen.batch-size:50000}") int batchSize,
+            @Value("${goaltracker.datagen.password:password123}") String password) {
+        DataGenerator.Settings settings = new DataGenerator.Settings()
+                .users(users)
+                .goalsPerUser(goalsPerUserMean, goalsPerUserMax)
+                .goalLength(goalLengthMedian, goalLengthSigma, goalLengthMax)
+                .completionRate(completionRateMean, completionRateStddev)
+                .historyDays(historyDays)
+                .referenceDate(referenceDate)
+                .seed(seed)
+                .batchSize(batchSize);
+        // One hash shared by every generated user; hashing millions of passwords would dominate the run
+        return new DataGenerator(dataSource, settings, passwordHashingService.encode(password));
+    }
+
+    @Bean
+    public ApplicationRunner dataGeneratorRunner(DataGenerator dataGenerator, ConfigurableApplicationContext context) {
+        return args -> {
+            dataGenerator.generate();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
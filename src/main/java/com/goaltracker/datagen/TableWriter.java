@@ -0,0 +1,27 @@
+package com.goaltracker.datagen;
+
+import java.sql.SQLException;
+
+/**
+ * TableWriter - Buffers generated rows for one table and writes them in bulk
+ * Values are passed in the column order the writer was created with.
+ */
+interface TableWriter extends AutoCloseable {
+
+    void add(Object... values) throws SQLException;
+
+    /**
+     * @return Rows added since the last flush
+     */
+    int pending();
+
+    /**
+     * @return Rows added in total
+     */
+    long rows();
+
+    void flush() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+}
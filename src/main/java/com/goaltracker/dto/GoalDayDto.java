@@ -0,0 +1,44 @@
+package com.goaltracker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * GoalDayDto - Completion status of a single day of a goal
+ * Used by the calendar API; built either from GoalDay rows or from the
+ * snapshot of a finished goal.
+ */
+public class GoalDayDto {
+
+    private final LocalDate date;
+    private final boolean completed;
+    private final LocalDateTime completedAt;
+
+    public GoalDayDto(LocalDate date, boolean completed, LocalDateTime completedAt) {
+        this.date = date;
+        this.completed = completed;
+        this.completedAt = completedAt;
+    }
+
+    // Getters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "GoalDayDto{" +
+                "date=" + date +
+                ", completed=" + completed +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+}
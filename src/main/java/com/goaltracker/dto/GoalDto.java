@@ -11,6 +11,9 @@ public class GoalDto {
 
     private Long id;
 
+    // Version of the goal row, part of the cache key for rendered goal cards
+    private Long version;
+
     @NotBlank(message = "Title is required")
     @Size(min = 3, max = 100, message = "Title must be between 3 and 100 characters")
     private String title;
@@ -52,6 +55,14 @@ public class GoalDto {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -0,0 +1,58 @@
+package com.goaltracker.dto;
+
+/**
+ * UserStatsDto - Aggregated goal statistics for a single user
+ * Filled directly by an aggregate query in UserRepository, so building it
+ * never loads Goal or GoalDay entities regardless of the user's history.
+ */
+public class UserStatsDto {
+
+    private final long goalCount;
+    private final long activeGoalCount;
+    private final long totalDays;
+    private final long completedDays;
+
+    // Constructor used by the JPQL constructor expression
+    public UserStatsDto(Long goalCount, Long activeGoalCount, Long totalDays, Long completedDays) {
+        this.goalCount = goalCount == null ? 0 : goalCount;
+        this.activeGoalCount = activeGoalCount == null ? 0 : activeGoalCount;
+        this.totalDays = totalDays == null ? 0 : totalDays;
+        this.completedDays = completedDays == null ? 0 : completedDays;
+    }
+
+    // Getters
+    public long getGoalCount() {
+        return goalCount;
+    }
+
+    public long getActiveGoalCount() {
+        return activeGoalCount;
+    }
+
+    public long getTotalDays() {
+        return totalDays;
+    }
+
+    public long getCompletedDays() {
+        return completedDays;
+    }
+
+    /**
+     * Overall completion rate across all of the user's goal days
+     *
+     * @return Percentage between 0 and 100
+     */
+    public double getCompletionRate() {
+        return totalDays == 0 ? 0.0 : (double) completedDays / totalDays * 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return "UserStatsDto{" +
+                "goalCount=" + goalCount +
+                ", activeGoalCount=" + activeGoalCount +
+                ", totalDays=" + totalDays +
+                ", completedDays=" + completedDays +
+                '}';
+    }
+}
@@ -1,9 +1,12 @@
 package com.goaltracker.entity;
 
+import com.goaltracker.config.SecondLevelCacheConfiguration;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -15,9 +18,11 @@ import java.util.List;
  * This entity stores the core goal information including title, description,
  * start/end dates, and provides methods to calculate progress metrics.
  * It has a one-to-many relationship with GoalDay entities.
+ * Goals are kept in the second-level cache; the goalDays collection is not.
  */
 @Entity
 @Table(name = "goal")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.GOAL_REGION)
 public class Goal {
 
     // Primary key - auto-generated unique identifier
@@ -50,6 +55,12 @@ public class Goal {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Optimistic version, incremented on every update of the goal row
+    // Goal snapshots are tied to the version they were built from
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Many-to-one relationship with User entity
     // Each goal belongs to a specific user for data isolation
     @ManyToOne(fetch = FetchType.LAZY)
@@ -185,6 +196,25 @@ public class Goal {
         this.createdAt = createdAt;
     }
 
+    /**
+     * Gets the optimistic version of the goal
+     * 
+     * @return The version, or null if the goal has not been saved yet
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic version of the goal
+     * Normally maintained by JPA
+     * 
+     * @param version The version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Gets the list of day records associated with this goal
      * 
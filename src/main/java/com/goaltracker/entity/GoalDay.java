@@ -11,9 +11,11 @@ import java.time.LocalDateTime;
  * 
  * The field name is 'date' but the column name is 'day_date' to avoid
  * conflicts with the SQL 'DATE' keyword in H2 database.
+ * There is at most one record per goal and date (see V4 migration).
  */
 @Entity
-@Table(name = "goal_day")
+@Table(name = "goal_day", uniqueConstraints = @UniqueConstraint(
+        name = "uk_goal_day_goal_id_day_date", columnNames = { "goal_id", "day_date" }))
 public class GoalDay {
 
     // Primary key - auto-generated unique identifier
@@ -1,9 +1,14 @@
 package com.goaltracker.entity;
 
+import com.goaltracker.config.SecondLevelCacheConfiguration;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,9 +16,12 @@ import java.util.List;
 /**
  * User entity - represents a user account in the system
  * This entity is used for authentication and data isolation between users
+ * Cached in the second-level cache by id and by username (natural id).
  */
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.USER_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfiguration.USER_NATURAL_ID_REGION)
 public class User {
 
     @Id
@@ -22,6 +30,7 @@ public class User {
 
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String username;
 
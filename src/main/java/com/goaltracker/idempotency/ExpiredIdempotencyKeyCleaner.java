@@ -0,0 +1,30 @@
+package com.goaltracker.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+
+/**
+ * ExpiredIdempotencyKeyCleaner - Periodically removes expired idempotency keys
+ * Expired records are already ignored on lookup; this only keeps the store small.
+ */
+public class ExpiredIdempotencyKeyCleaner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredIdempotencyKeyCleaner.class);
+
+    private final IdempotencyStore idempotencyStore;
+
+    public ExpiredIdempotencyKeyCleaner(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Scheduled(fixedDelayString = "${goaltracker.idempotency.cleanup-interval:PT5M}")
+    public void purgeExpiredKeys() {
+        int removed = idempotencyStore.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.debug("Removed {} expired idempotency keys", removed);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.goaltracker.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * IdempotencyConfiguration - Wires Idempotency-Key support for mutating requests
+ * On unless {@code goaltracker.idempotency.enabled=false}. Keys are kept for
+ * {@code goaltracker.idempotency.ttl} in the store chosen by
+ * {@code goaltracker.idempotency.store}:
+ * <ul>
+ * <li>{@code memory} - single-node in-memory store, bounded by
+ * {@code goaltracker.idempotency.max-entries} (default)</li>
+ * <li>{@code jdbc} - shared idempotency_key table for multi-node setups</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(@Value("${goaltracker.idempotency.store:memory}") String type,
+            @Value("${goaltracker.idempotency.max-entries:10000}") int maxEntries,
+            JdbcTemplate jdbcTemplate) {
+        switch (type) {
+            case "memory":
+                return new InMemoryIdempotencyStore(maxEntries);
+            case "jdbc":
+                return new JdbcIdempotencyStore(jdbcTemplate);
+            default:
+                throw new IllegalStateException("Unknown goaltracker.idempotency.store: " + type);
+        }
+    }
+
+    @Bean
+    public ExpiredIdempotencyKeyCleaner expiredIdempotencyKeyCleaner(IdempotencyStore idempotencyStore) {
+        return new ExpiredIdempotencyKeyCleaner(idempotencyStore);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+            @Value("${goaltracker.idempotency.ttl:24h}") Duration ttl) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, ttl));
+        // After the session and API token filters, which identify the caller the keys are scoped to
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 60);
+        registration.addUrlPatterns("/api/*", "/goals", "/goals/*");
+        return registration;
+    }
+}
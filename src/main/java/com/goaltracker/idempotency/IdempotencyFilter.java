@@ -0,0 +1,197 @@
+package com.goaltracker.idempotency;
+
+import com.goaltracker.security.ApiTokenAuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * IdempotencyFilter - Makes retried mutating requests safe
+ * A POST, PUT, PATCH or DELETE that carries an {@code Idempotency-Key} header
+ * (or, for HTML forms, which cannot set headers, an {@code idempotencyKey}
+ * parameter) runs at most once per key and caller. The first response is
+ * stored and replayed for every retry with the same key, marked with
+ * {@code Idempotent-Replayed: true}:
+ * <ul>
+ * <li>while the first request is still running, a retry gets 409</li>
+ * <li>a key reused for a different method, path or parameters gets 422</li>
+ * <li>failed requests are not stored, so they can be retried: 4xx and 5xx
+ * responses, handler exceptions, and redirects that carry an {@code error}
+ * flash message (how the HTML controllers report a failure)</li>
+ * </ul>
+ * Requests without a key are not affected.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String PARAMETER = "idempotencyKey";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final Duration ttl;
+
+    public IdempotencyFilter(IdempotencyStore store, Duration ttl) {
+        this.store = store;
+        this.ttl = ttl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = idempotencyKey(request);
+        if (key == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST,
+                    "Idempotency-Key must not be longer than " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String scopedKey = sha256(callerScope(request) + "\n" + key);
+        String fingerprint = fingerprint(request);
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+
+        if (!store.reserve(scopedKey, IdempotencyRecord.inProgress(fingerprint, expiresAt))) {
+            Optional<IdempotencyRecord> existing = store.find(scopedKey);
+            if (existing.isPresent()) {
+                respondToDuplicate(existing.get(), fingerprint, response);
+                return;
+            }
+            // The other record expired in between; claim the key again
+            if (!store.reserve(scopedKey, IdempotencyRecord.inProgress(fingerprint, expiresAt))) {
+                writeError(response, HttpServletResponse.SC_CONFLICT,
+                        "A request with this Idempotency-Key is still being processed");
+                return;
+            }
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            if (succeeded(request, wrapper.getStatus())) {
+                store.complete(scopedKey, IdempotencyRecord.completed(fingerprint, expiresAt, wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getHeader(HttpHeaders.LOCATION),
+                        wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(scopedKey);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean succeeded(HttpServletRequest request, int status) {
+        if (status >= 400 || request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) != null) {
+            return false;
+        }
+        FlashMap flash = RequestContextUtils.getOutputFlashMap(request);
+        return flash == null || !flash.containsKey("error");
+    }
+
+    private void respondToDuplicate(IdempotencyRecord existing, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!existing.getFingerprint().equals(fingerprint)) {
+            writeError(response, 422, "Idempotency-Key was already used for a different request");
+            return;
+        }
+        if (existing.isInProgress()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, HttpServletResponse.SC_CONFLICT,
+                    "A request with this Idempotency-Key is still being processed");
+            return;
+        }
+
+        // Replay the stored response
+        response.setStatus(existing.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (existing.getContentType() != null) {
+            response.setContentType(existing.getContentType());
+        }
+        if (existing.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, existing.getLocation());
+        }
+        response.setContentLength(existing.getBody().length);
+        response.getOutputStream().write(existing.getBody());
+    }
+
+    private static String idempotencyKey(HttpServletRequest request) {
+        String key = request.getHeader(HEADER);
+        if (key == null || key.isBlank()) {
+            key = request.getParameter(PARAMETER);
+        }
+        return key == null || key.isBlank() ? null : key.trim();
+    }
+
+    // Keys are only unique per caller: the user from an API token or the session, else the session itself
+    private static String callerScope(HttpServletRequest request) {
+        Object tokenUserId = request.getAttribute(ApiTokenAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (tokenUserId != null) {
+            return "user:" + tokenUserId;
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return "anonymous";
+        }
+        Object sessionUserId = session.getAttribute("userId");
+        return sessionUserId != null ? "user:" + sessionUserId : "session:" + session.getId();
+    }
+
+    // Method, path and parameters of the request; the key itself is left out
+    private static String fingerprint(HttpServletRequest request) {
+        StringBuilder fingerprint = new StringBuilder()
+                .append(request.getMethod()).append(' ').append(request.getRequestURI());
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.remove(PARAMETER);
+        parameters.forEach((name, values) -> {
+            fingerprint.append('\n').append(name);
+            for (String value : values) {
+                fingerprint.append('=').append(value);
+            }
+        });
+        return sha256(fingerprint.toString());
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,23 @@
+package com.goaltracker.idempotency;
+
+import com.goaltracker.controller.GoalController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+import java.util.UUID;
+
+/**
+ * IdempotencyKeyModelAdvice - Gives every rendered goal form a fresh idempotency key
+ * The forms submit it as a hidden field, so a double submit or a resubmit
+ * after a dropped response is answered with the first result.
+ */
+@ControllerAdvice(assignableTypes = GoalController.class)
+@ConditionalOnProperty(name = "goaltracker.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyKeyModelAdvice {
+
+    @ModelAttribute("idempotencyKey")
+    public String idempotencyKey() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.goaltracker.idempotency;
+
+/**
+ * IdempotencyRecord - What is remembered about a request sent with an Idempotency-Key
+ * A record is created when the first request with a key starts (in progress)
+ * and completed with the response it produced, which is then replayed for any
+ * retry. The fingerprint identifies the original request, so a key reused for
+ * a different request can be rejected. Records are immutable.
+ */
+public final class IdempotencyRecord {
+
+    private final String fingerprint;
+    private final long expiresAt;
+    private final int status;
+    private final String contentType;
+    private final String location;
+    private final byte[] body;
+
+    private IdempotencyRecord(String fingerprint, long expiresAt, int status, String contentType,
+            String location, byte[] body) {
+        this.fingerprint = fingerprint;
+        this.expiresAt = expiresAt;
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+    }
+
+    /**
+     * Creates the record of a request that is still being processed
+     *
+     * @param fingerprint Hash of the method, path and parameters of the request
+     * @param expiresAt   Expiry time in epoch seconds
+     * @return The in-progress record
+     */
+    public static IdempotencyRecord inProgress(String fingerprint, long expiresAt) {
+        return new IdempotencyRecord(fingerprint, expiresAt, 0, null, null, null);
+    }
+
+    /**
+     * Creates the record of a finished request
+     *
+     * @param fingerprint Hash of the method, path and parameters of the request
+     * @param expiresAt   Expiry time in epoch seconds
+     * @param status      HTTP status of the response
+     * @param contentType Content type of the response, may be null
+     * @param location    Location header of the response (redirects), may be null
+     * @param body        Response body, may be empty
+     * @return The completed record
+     */
+    public static IdempotencyRecord completed(String fingerprint, long expiresAt, int status, String contentType,
+            String location, byte[] body) {
+        return new IdempotencyRecord(fingerprint, expiresAt, status, contentType, location,
+                body != null ? body : new byte[0]);
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isInProgress() {
+        return status == 0;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @param now Current time in epoch seconds
+     * @return true if the key may be reused
+     */
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
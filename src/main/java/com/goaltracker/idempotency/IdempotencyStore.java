@@ -0,0 +1,51 @@
+package com.goaltracker.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * IdempotencyStore - Pluggable storage for idempotency keys and their responses
+ * Keys are opaque, already scoped to the caller by {@link IdempotencyFilter}.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims a key for a new request; fails if an unexpired record already exists
+     *
+     * @param key    The scoped idempotency key
+     * @param record The in-progress record to store
+     * @return true if the key was claimed by this call
+     */
+    boolean reserve(String key, IdempotencyRecord record);
+
+    /**
+     * Looks up the unexpired record of a key
+     *
+     * @param key The scoped idempotency key
+     * @return Optional containing the record if one is stored
+     */
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Replaces the in-progress record of a key with the response it produced
+     *
+     * @param key    The scoped idempotency key
+     * @param record The completed record
+     */
+    void complete(String key, IdempotencyRecord record);
+
+    /**
+     * Forgets a key, so a retry runs the request again (e.g. after a server error)
+     *
+     * @param key The scoped idempotency key
+     */
+    void release(String key);
+
+    /**
+     * Removes all records that expired before the given time
+     *
+     * @param now The current time
+     * @return Number of records removed
+     */
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,98 @@
+package com.goaltracker.idempotency;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * InMemoryIdempotencyStore - Single-node idempotency store
+ * Keeps records in a concurrent map bounded by {@code maxEntries}. When it is
+ * full and dropping expired keys does not help, the finished keys closest to
+ * expiry (the oldest ones, as all share the same TTL) are forgotten until a
+ * tenth of the room is free again; the recent keys a retry is most likely to
+ * use stay. Keys are only recognized by the node that saw them first, so a
+ * retry routed to another node runs again; use the jdbc store when running
+ * several nodes.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final int maxEntries;
+    private final ConcurrentMap<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxEntries Upper bound on the number of remembered keys
+     */
+    public InMemoryIdempotencyStore(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public boolean reserve(String key, IdempotencyRecord record) {
+        long now = Instant.now().getEpochSecond();
+        if (records.size() >= maxEntries && !records.containsKey(key)) {
+            // Drop expired keys first; if that is not enough, forget the oldest finished ones.
+            // Requests still in progress are kept so their retries are not run twice.
+            deleteExpired(Instant.now());
+            if (records.size() >= maxEntries) {
+                evictOldestCompleted(maxEntries - Math.max(1, maxEntries / 10));
+            }
+        }
+        // Reuse the slot of an expired record atomically
+        IdempotencyRecord stored = records.compute(key,
+                (k, existing) -> existing == null || existing.isExpired(now) ? record : existing);
+        return stored == record;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        IdempotencyRecord record = records.get(key);
+        if (record == null || record.isExpired(Instant.now().getEpochSecond())) {
+            return Optional.empty();
+        }
+        return Optional.of(record);
+    }
+
+    @Override
+    public void complete(String key, IdempotencyRecord record) {
+        records.put(key, record);
+    }
+
+    @Override
+    public void release(String key) {
+        records.remove(key);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        int before = records.size();
+        records.values().removeIf(record -> record.isExpired(now.getEpochSecond()));
+        return before - records.size();
+    }
+
+    private void evictOldestCompleted(int lowWaterMark) {
+        List<Map.Entry<String, IdempotencyRecord>> completed = records.entrySet().stream()
+                .filter(entry -> !entry.getValue().isInProgress())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().getExpiresAt()))
+                .toList();
+        for (Map.Entry<String, IdempotencyRecord> entry : completed) {
+            if (records.size() <= lowWaterMark) {
+                break;
+            }
+            // Only if it was not completed or replaced again in the meantime
+            records.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Number of keys currently remembered
+     *
+     * @return The store size
+     */
+    int size() {
+        return records.size();
+    }
+}
@@ -0,0 +1,70 @@
+package com.goaltracker.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JdbcIdempotencyStore - Idempotency store backed by a shared database table
+ * Every node reads and writes the idempotency_key table (see the V5
+ * migration), so a retry is recognized whichever node it reaches. The primary
+ * key on the scoped key makes claiming it atomic across nodes.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean reserve(String key, IdempotencyRecord record) {
+        // A leftover expired row would block the insert; it is safe to drop it first
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE idempotency_key = ? AND expires_at <= ?",
+                key, Instant.now().getEpochSecond());
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO idempotency_key (idempotency_key, fingerprint, status, expires_at) VALUES (?, ?, 0, ?)",
+                    key, record.getFingerprint(), record.getExpiresAt());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        List<IdempotencyRecord> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status, content_type, location, body, expires_at FROM idempotency_key"
+                        + " WHERE idempotency_key = ? AND expires_at > ?",
+                (rs, rowNum) -> rs.getInt("status") == 0
+                        ? IdempotencyRecord.inProgress(rs.getString("fingerprint"), rs.getLong("expires_at"))
+                        : IdempotencyRecord.completed(rs.getString("fingerprint"), rs.getLong("expires_at"),
+                                rs.getInt("status"), rs.getString("content_type"), rs.getString("location"),
+                                rs.getBytes("body")),
+                key, Instant.now().getEpochSecond());
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public void complete(String key, IdempotencyRecord record) {
+        jdbcTemplate.update("UPDATE idempotency_key SET status = ?, content_type = ?, location = ?, body = ?,"
+                + " expires_at = ? WHERE idempotency_key = ?",
+                record.getStatus(), record.getContentType(), record.getLocation(), record.getBody(),
+                record.getExpiresAt(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE idempotency_key = ?", key);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_key WHERE expires_at <= ?", now.getEpochSecond());
+    }
+}
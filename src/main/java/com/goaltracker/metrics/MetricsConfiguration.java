@@ -0,0 +1,46 @@
+package com.goaltracker.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * MetricsConfiguration - Application metrics published through Actuator
+ * <ul>
+ * <li>{@code goaltracker.service} - timers for the public service methods
+ * annotated with {@code @Timed}, tagged by class and method</li>
+ * <li>{@code goaltracker.request.queries} - SQL statements per request</li>
+ * </ul>
+ * Endpoint timings (http.server.requests), Hibernate statistics (hibernate.*)
+ * and Hikari pool metrics (hikaricp.*) come from Spring Boot's own binders.
+ * Everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new QueryCountingStatementInspector());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestQueryCountFilter> requestQueryCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestQueryCountFilter> registration = new FilterRegistrationBean<>(
+                new RequestQueryCountFilter(meterRegistry));
+        // Outermost, so statements run by the session and idempotency filters are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package com.goaltracker.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * QueryCountingStatementInspector - Counts the SQL statements Hibernate prepares on the current thread
+ * {@link RequestQueryCountFilter} opens a count when a request starts and
+ * records it when the request ends; statements outside a request (scheduled
+ * jobs, startup) are not counted. The SQL itself is passed through unchanged.
+ * Statements issued with JdbcTemplate do not go through Hibernate and are not counted.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting statements on the current thread
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on the current thread
+     *
+     * @return Number of statements prepared since {@link #start()}
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -0,0 +1,260 @@
+package com.goaltracker.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GoalDayPartitionManager - Keeps the quarterly goal_day partitions in shape
+ * Creates partitions for the upcoming quarters ahead of time, and out to the
+ * last day of any goal that ends even later. Days of such goals are written
+ * to the default partition before their quarter exists; they are moved into
+ * the new partition in one transaction with the default partition detached,
+ * since PostgreSQL refuses to create a partition whose rows sit in the default.
+ * Partitions whose whole range is older than the retention window are archived:
+ * <ul>
+ * <li>{@code detach} - the partition is detached and moved to the goal_day_archive schema</li>
+ * <li>{@code drop} - the partition is detached and dropped</li>
+ * </ul>
+ * Archived days are no longer visible to the application. Without a retention
+ * period nothing is archived.
+ *
+ * Maintenance runs at startup and on a cron schedule. A PostgreSQL advisory
+ * lock makes sure only one instance does the work at a time. Failures are not
+ * swallowed: they fail the startup, or are logged as errors by the scheduler.
+ */
+public class GoalDayPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalDayPartitionManager.class);
+
+    static final String ARCHIVE_SCHEMA = "goal_day_archive";
+
+    private static final String DEFAULT_PARTITION = "goal_day_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("goal_day_(\\d{4})q([1-4])");
+
+    // Arbitrary key shared by every instance of the application
+    private static final long ADVISORY_LOCK_KEY = 7_416_842_451L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int premadeQuarters;
+    private final Period retention;
+    private final boolean dropArchived;
+
+    public GoalDayPartitionManager(JdbcTemplate jdbcTemplate, int premadeQuarters, Period retention,
+            String archiveMode) {
+        switch (archiveMode) {
+            case "detach":
+                this.dropArchived = false;
+                break;
+            case "drop":
+                this.dropArchived = true;
+                break;
+            default:
+                throw new IllegalStateException("Unknown goaltracker.partitioning.goal-day.archive-mode: "
+                        + archiveMode);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.premadeQuarters = premadeQuarters;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    /**
+     * Creates upcoming partitions and archives expired ones
+     */
+    @Scheduled(cron = "${goaltracker.partitioning.goal-day.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        // Advisory locks belong to a session, so everything runs on one connection
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (!tryLock(statement)) {
+                    log.debug("Another instance is maintaining goal_day partitions");
+                    return null;
+                }
+                try {
+                    createUpcomingPartitions(connection, statement, today);
+                    if (retention != null) {
+                        archiveExpiredPartitions(statement, today);
+                    }
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+                }
+            }
+            return null;
+        });
+    }
+
+    private void createUpcomingPartitions(Connection connection, Statement statement, LocalDate today)
+            throws SQLException {
+        // Quarters from the current one on that already have days waiting in the default partition
+        TreeSet<LocalDate> occupied = new TreeSet<>();
+        try (ResultSet rs = statement.executeQuery("SELECT DISTINCT date_trunc('quarter', day_date)::date"
+                + " FROM " + DEFAULT_PARTITION + " WHERE day_date >= '" + quarterStart(today) + "'")) {
+            while (rs.next()) {
+                occupied.add(rs.getDate(1).toLocalDate());
+            }
+        }
+        Set<String> attached = new HashSet<>(attachedPartitions(statement));
+        LocalDate latestOccupied = occupied.isEmpty() ? null : occupied.last();
+
+        List<LocalDate> blocked = new ArrayList<>();
+        for (LocalDate quarterStart : quartersToCreate(today, premadeQuarters, latestOccupied)) {
+            String name = partitionName(quarterStart);
+            if (attached.contains(name)) {
+                continue;
+            }
+            if (occupied.contains(quarterStart)) {
+                blocked.add(quarterStart);
+            } else {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF goal_day"
+                        + " FOR VALUES " + bounds(quarterStart));
+                log.info("Created goal_day partition {}", name);
+            }
+        }
+        if (!blocked.isEmpty()) {
+            moveOutOfDefault(connection, statement, blocked);
+        }
+    }
+
+    /**
+     * Creates the given quarters and moves their days out of the default partition
+     * The default partition is detached for the duration, so the new partitions
+     * can be created at all; one transaction keeps concurrent writers waiting
+     * on the lock instead of seeing a table without a default partition.
+     */
+    private static void moveOutOfDefault(Connection connection, Statement statement, List<LocalDate> quarters)
+            throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            statement.execute("ALTER TABLE goal_day DETACH PARTITION " + DEFAULT_PARTITION);
+            for (LocalDate quarterStart : quarters) {
+                String name = partitionName(quarterStart);
+                String range = "day_date >= '" + quarterStart + "' AND day_date < '" + quarterStart.plusMonths(3)
+                        + "'";
+                statement.execute("CREATE TABLE " + name + " PARTITION OF goal_day FOR VALUES "
+                        + bounds(quarterStart));
+                int moved = statement.executeUpdate("INSERT INTO goal_day SELECT * FROM " + DEFAULT_PARTITION
+                        + " WHERE " + range);
+                statement.executeUpdate("DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range);
+                log.info("Created goal_day partition {} and moved {} days into it from {}", name, moved,
+                        DEFAULT_PARTITION);
+            }
+            statement.execute("ALTER TABLE goal_day ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void archiveExpiredPartitions(Statement statement, LocalDate today) throws SQLException {
+        for (String name : expiredPartitions(attachedPartitions(statement), today, retention)) {
+            statement.execute("ALTER TABLE goal_day DETACH PARTITION " + name);
+            if (dropArchived) {
+                statement.execute("DROP TABLE " + name);
+            } else {
+                statement.execute("ALTER TABLE " + name + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            }
+            log.info("Archived goal_day partition {} ({})", name, dropArchived ? "dropped" : "detached");
+        }
+    }
+
+    private static List<String> attachedPartitions(Statement statement) throws SQLException {
+        List<String> attached = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery("SELECT c.relname FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid"
+                + " WHERE i.inhparent = 'goal_day'::regclass")) {
+            while (rs.next()) {
+                attached.add(rs.getString(1));
+            }
+        }
+        return attached;
+    }
+
+    private static boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * First days of the current quarter and the given number of quarters after it,
+     * continued up to the quarter of the latest known day if that is even later
+     *
+     * @param latestDay Latest day that needs a partition, or null
+     */
+    static List<LocalDate> quartersToCreate(LocalDate today, int premadeQuarters, LocalDate latestDay) {
+        LocalDate current = quarterStart(today);
+        LocalDate last = current.plusMonths(3L * premadeQuarters);
+        if (latestDay != null && quarterStart(latestDay).isAfter(last)) {
+            last = quarterStart(latestDay);
+        }
+        List<LocalDate> quarters = new ArrayList<>();
+        for (LocalDate quarter = current; !quarter.isAfter(last); quarter = quarter.plusMonths(3)) {
+            quarters.add(quarter);
+        }
+        return quarters;
+    }
+
+    /**
+     * Quarterly partitions whose whole range ends before today minus the retention period
+     * Names that do not follow the quarterly pattern (e.g. the default partition) are never archived.
+     */
+    static List<String> expiredPartitions(Collection<String> partitionNames, LocalDate today, Period retention) {
+        LocalDate cutoff = today.minus(retention);
+        List<String> expired = new ArrayList<>();
+        for (String name : partitionNames) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate start = LocalDate.of(Integer.parseInt(matcher.group(1)),
+                    (Integer.parseInt(matcher.group(2)) - 1) * 3 + 1, 1);
+            if (!start.plusMonths(3).isAfter(cutoff)) {
+                expired.add(name);
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+
+    private static String bounds(LocalDate quarterStart) {
+        return "FROM ('" + quarterStart + "') TO ('" + quarterStart.plusMonths(3) + "')";
+    }
+
+    static String partitionName(LocalDate quarterStart) {
+        return "goal_day_" + quarterStart.getYear() + "q" + ((quarterStart.getMonthValue() - 1) / 3 + 1);
+    }
+
+    private static LocalDate quarterStart(LocalDate date) {
+        return LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+    }
+}
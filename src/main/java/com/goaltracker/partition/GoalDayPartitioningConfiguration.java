@@ -0,0 +1,50 @@
+package com.goaltracker.partition;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GoalDayPartitioningConfiguration - Optional quarterly range partitioning of goal_day
+ * PostgreSQL only. Active when {@code goaltracker.partitioning.goal-day.enabled=true}:
+ * <ul>
+ * <li>adds the migration that converts goal_day into a partitioned table</li>
+ * <li>registers {@link GoalDayPartitionManager} to create future partitions and
+ * archive ones older than {@code goaltracker.partitioning.goal-day.retention}
+ * (ISO period, e.g. {@code P2Y}; unset keeps everything)</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.partitioning.goal-day.enabled", havingValue = "true")
+public class GoalDayPartitioningConfiguration {
+
+    static final String MIGRATION_LOCATION = "classpath:db/partitioning/postgresql";
+
+    @Bean
+    public FlywayConfigurationCustomizer goalDayPartitioningMigrations() {
+        return configuration -> {
+            List<Location> locations = new ArrayList<>(Arrays.asList(configuration.getLocations()));
+            locations.add(new Location(MIGRATION_LOCATION));
+            // Partitioning may be switched on after later migrations have already been applied
+            configuration.locations(locations.toArray(new Location[0])).outOfOrder(true);
+        };
+    }
+
+    @Bean
+    public GoalDayPartitionManager goalDayPartitionManager(JdbcTemplate jdbcTemplate,
+            @Value("${goaltracker.partitioning.goal-day.premade-quarters:4}") int premadeQuarters,
+            @Value("${goaltracker.partitioning.goal-day.retention:}") String retention,
+            @Value("${goaltracker.partitioning.goal-day.archive-mode:detach}") String archiveMode) {
+        return new GoalDayPartitionManager(jdbcTemplate, premadeQuarters,
+                retention.isBlank() ? null : Period.parse(retention), archiveMode);
+    }
+}
@@ -0,0 +1,81 @@
+package com.goaltracker.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AdaptiveConcurrencyLimiter - Global cap on in-flight requests that follows database health
+ * The cap is adjusted with AIMD from the time requests wait for a pooled
+ * connection: when the average wait of the last sample exceeds the threshold
+ * the cap is cut by a factor, otherwise it grows by one, within
+ * [minLimit, maxLimit]. Requests over the cap are shed instead of queueing
+ * on the pool, which keeps latency bounded for the requests that are admitted.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long waitThresholdNanos;
+    private final double backoffFactor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    /**
+     * @param minLimit           Lowest cap, so the server keeps making progress
+     * @param maxLimit           Highest cap, also the starting value
+     * @param waitThresholdNanos Average pool wait above which the cap is cut
+     * @param backoffFactor      Factor applied to the cap when it is cut (0..1)
+     */
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, long waitThresholdNanos, double backoffFactor) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffFactor <= 0 || backoffFactor >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limits");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.waitThresholdNanos = waitThresholdNanos;
+        this.backoffFactor = backoffFactor;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Admits a request if the cap allows it; every admitted request must call {@link #release()}
+     *
+     * @return true if the request may proceed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Adjusts the cap from the latest pool wait measurement
+     *
+     * @param averageWaitNanos Average connection wait since the previous sample
+     */
+    public void onPoolWaitSample(long averageWaitNanos) {
+        int current = limit;
+        if (averageWaitNanos > waitThresholdNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffFactor));
+        } else if (current < maxLimit) {
+            limit = current + 1;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,82 @@
+package com.goaltracker.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * ApiRateLimitConfiguration - Rate limiting and load shedding for /api/** and /goals/**
+ * On unless {@code goaltracker.api.rate-limit.enabled=false}. Exposes:
+ * <ul>
+ * <li>{@code goaltracker.api.throttled{scope=user|ip}} - requests rejected with 429</li>
+ * <li>{@code goaltracker.api.shed} - requests rejected with 503</li>
+ * <li>{@code goaltracker.api.rate-limit.keys{scope}} - tracked token buckets</li>
+ * <li>{@code goaltracker.api.concurrency.limit} / {@code .in-flight} - adaptive cap and current load</li>
+ * <li>{@code goaltracker.api.pool-wait} - average connection wait of the latest sample (ms)</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.api.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ApiRateLimitConfiguration {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter apiConcurrencyLimiter(
+            @Value("${goaltracker.load-shedding.min-concurrency:4}") int minConcurrency,
+            @Value("${goaltracker.load-shedding.max-concurrency:100}") int maxConcurrency,
+            @Value("${goaltracker.load-shedding.pool-wait-threshold:50ms}") Duration poolWaitThreshold,
+            @Value("${goaltracker.load-shedding.backoff-factor:0.75}") double backoffFactor,
+            MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(minConcurrency, maxConcurrency,
+                poolWaitThreshold.toNanos(), backoffFactor);
+        Gauge.builder("goaltracker.api.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("goaltracker.api.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    public PoolWaitSampler poolWaitSampler(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        PoolWaitSampler sampler = new PoolWaitSampler(meterRegistry, limiter);
+        Gauge.builder("goaltracker.api.pool-wait", sampler, s -> s.getLastAverageWaitNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return sampler;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ApiRateLimitFilter> apiRateLimitFilter(AdaptiveConcurrencyLimiter limiter,
+            @Value("${goaltracker.api.rate-limit.user.capacity:120}") int userCapacity,
+            @Value("${goaltracker.api.rate-limit.user.refill-interval:100ms}") Duration userRefill,
+            @Value("${goaltracker.api.rate-limit.ip.capacity:60}") int ipCapacity,
+            @Value("${goaltracker.api.rate-limit.ip.refill-interval:200ms}") Duration ipRefill,
+            @Value("${goaltracker.api.rate-limit.max-keys:100000}") int maxKeys,
+            MeterRegistry meterRegistry) {
+        KeyedRateLimiter userLimiter = new KeyedRateLimiter(userCapacity, userRefill, maxKeys);
+        KeyedRateLimiter ipLimiter = new KeyedRateLimiter(ipCapacity, ipRefill, maxKeys);
+        Gauge.builder("goaltracker.api.rate-limit.keys", userLimiter, KeyedRateLimiter::trackedKeys)
+                .tag("scope", "user")
+                .register(meterRegistry);
+        Gauge.builder("goaltracker.api.rate-limit.keys", ipLimiter, KeyedRateLimiter::trackedKeys)
+                .tag("scope", "ip")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<ApiRateLimitFilter> registration = new FilterRegistrationBean<>(
+                new ApiRateLimitFilter(userLimiter, ipLimiter, limiter,
+                        Counter.builder("goaltracker.api.throttled").tag("scope", "user").register(meterRegistry),
+                        Counter.builder("goaltracker.api.throttled").tag("scope", "ip").register(meterRegistry),
+                        Counter.builder("goaltracker.api.shed").register(meterRegistry)));
+        // After the session and API token filters identify the caller, before any work is done
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 55);
+        registration.addUrlPatterns("/api/*", "/goals", "/goals/*");
+        return registration;
+    }
+}
@@ -0,0 +1,88 @@
+package com.goaltracker.ratelimit;
+
+import com.goaltracker.security.ApiTokenAuthenticationFilter;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * ApiRateLimitFilter - Per-client rate limiting and global load shedding
+ * Every request first takes a permit from the token bucket of its caller:
+ * the logged-in user (session or API token) or, for anonymous requests, the
+ * client IP. A client over its rate gets 429 with Retry-After. The request
+ * then needs a slot from the {@link AdaptiveConcurrencyLimiter}; when the
+ * database is too slow to hand out connections the server answers 503
+ * instead of queueing more work on the pool.
+ */
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private final KeyedRateLimiter userLimiter;
+    private final KeyedRateLimiter ipLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter userRejections;
+    private final Counter ipRejections;
+    private final Counter shedRequests;
+
+    public ApiRateLimitFilter(KeyedRateLimiter userLimiter, KeyedRateLimiter ipLimiter,
+            AdaptiveConcurrencyLimiter concurrencyLimiter, Counter userRejections, Counter ipRejections,
+            Counter shedRequests) {
+        this.userLimiter = userLimiter;
+        this.ipLimiter = ipLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.userRejections = userRejections;
+        this.ipRejections = ipRejections;
+        this.shedRequests = shedRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Object userId = userId(request);
+        long waitNanos = userId != null
+                ? userLimiter.tryAcquire(userId.toString())
+                : ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            (userId != null ? userRejections : ipRejections).increment();
+            // Round up to whole seconds for the Retry-After header
+            long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            reject(response, 429, retryAfter, "Too many requests, please slow down");
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            shedRequests.increment();
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1, "Server is busy, please try again");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private static Object userId(HttpServletRequest request) {
+        Object tokenUserId = request.getAttribute(ApiTokenAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (tokenUserId != null) {
+            return tokenUserId;
+        }
+        HttpSession session = request.getSession(false);
+        return session != null ? session.getAttribute("userId") : null;
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"error\":\"" + message + "\"}");
+    }
+}
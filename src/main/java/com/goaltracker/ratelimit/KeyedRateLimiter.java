@@ -0,0 +1,103 @@
+package com.goaltracker.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * KeyedRateLimiter - One token bucket per key (account, IP address, ...)
+ * Buckets are created on first use. The number of tracked keys is a hard
+ * limit: a new key beyond it replaces the least recently used bucket, which
+ * has usually refilled long ago and holds nothing a fresh bucket would not.
+ * Keys that clients make up (any submitted username) therefore cannot grow
+ * memory, and making room costs the same however many keys arrive.
+ *
+ * Keys are spread over independent stripes, each with its share of the key
+ * limit and its own lock, so callers on other stripes never wait for each
+ * other. The buckets themselves are lock-free and used outside the lock.
+ */
+public class KeyedRateLimiter {
+
+    // Power of two, so a stripe is picked with a mask
+    private static final int STRIPES = 16;
+
+    private final int capacity;
+    private final long refillIntervalNanos;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes;
+
+    /**
+     * @param capacity       Burst size per key
+     * @param refillInterval Time needed to regain one permit
+     * @param maxKeys        Number of keys tracked at most
+     */
+    public KeyedRateLimiter(int capacity, Duration refillInterval, int maxKeys) {
+        this(capacity, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    KeyedRateLimiter(int capacity, Duration refillInterval, int maxKeys, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillIntervalNanos = refillInterval.toNanos();
+        this.nanoClock = nanoClock;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxKeys / STRIPES));
+        }
+    }
+
+    /**
+     * Takes one permit for the given key
+     *
+     * @param key The key to rate-limit on
+     * @return 0 if allowed, otherwise the nanoseconds until a permit becomes available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        Stripe buckets = stripeFor(key);
+        TokenBucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillIntervalNanos, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Number of keys currently tracked
+     *
+     * @return The number of live buckets
+     */
+    public int trackedKeys() {
+        int keys = 0;
+        for (Stripe buckets : stripes) {
+            synchronized (buckets) {
+                keys += buckets.size();
+            }
+        }
+        return keys;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Buckets of one stripe in access order, dropping the eldest beyond the limit
+     * Guarded by its own monitor.
+     */
+    private static final class Stripe extends LinkedHashMap<String, TokenBucket> {
+
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
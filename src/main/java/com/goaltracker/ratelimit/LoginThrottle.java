@@ -0,0 +1,78 @@
+package com.goaltracker.ratelimit;
+
+import com.goaltracker.service.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * LoginThrottle - Per-account and per-IP throttling of credential checks
+ * Each login or registration attempt takes one permit from the bucket of the
+ * client IP, and logins also from the bucket of the target account. This
+ * caps credential stuffing against one account as well as from one address,
+ * and rejects before any BCrypt work is done. Username and email availability
+ * checks count as registration attempts, so they cannot be used to list
+ * accounts faster than registering.
+ */
+@Component
+public class LoginThrottle {
+
+    private final KeyedRateLimiter accountLimiter;
+    private final KeyedRateLimiter ipLimiter;
+    private final Counter accountRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginThrottle(@Value("${goaltracker.login.throttle.account.capacity:10}") int accountCapacity,
+            @Value("${goaltracker.login.throttle.account.refill-interval:30s}") Duration accountRefill,
+            @Value("${goaltracker.login.throttle.ip.capacity:30}") int ipCapacity,
+            @Value("${goaltracker.login.throttle.ip.refill-interval:2s}") Duration ipRefill,
+            @Value("${goaltracker.login.throttle.max-keys:100000}") int maxKeys,
+            MeterRegistry meterRegistry) {
+        this.accountLimiter = new KeyedRateLimiter(accountCapacity, accountRefill, maxKeys);
+        this.ipLimiter = new KeyedRateLimiter(ipCapacity, ipRefill, maxKeys);
+        this.accountRejections = Counter.builder("goaltracker.login.throttled")
+                .tag("scope", "account")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("goaltracker.login.throttled")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit for a login attempt
+     *
+     * @param username  The account being logged into
+     * @param ipAddress The client address
+     * @throws TooManyRequestsException if either limit is exhausted
+     */
+    public void acquireLogin(String username, String ipAddress) {
+        acquire(ipLimiter, ipAddress, ipRejections);
+        acquire(accountLimiter, username == null ? "" : username.trim().toLowerCase(Locale.ROOT), accountRejections);
+    }
+
+    /**
+     * Takes a permit for a registration attempt or an availability check
+     *
+     * @param ipAddress The client address
+     * @throws TooManyRequestsException if the limit is exhausted
+     */
+    public void acquireRegistration(String ipAddress) {
+        acquire(ipLimiter, ipAddress, ipRejections);
+    }
+
+    private void acquire(KeyedRateLimiter limiter, String key, Counter rejections) {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            rejections.increment();
+            // Round up to whole seconds for the Retry-After header
+            Duration retryAfter = Duration.ofSeconds(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+            throw new TooManyRequestsException("Too many attempts, please try again later", retryAfter);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.goaltracker.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PoolWaitSampler - Feeds the connection pool wait time into the concurrency limiter
+ * Reads Hikari's {@code hikaricp.connections.acquire} timer of every pool
+ * (primary and, if configured, replica) and reports the worst average wait
+ * since the previous sample to the {@link AdaptiveConcurrencyLimiter}. In the
+ * virtual-thread mode callers wait for a connection permit before they reach
+ * the pool, so {@code goaltracker.datasource.acquire} is read as well.
+ */
+public class PoolWaitSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolWaitSampler.class);
+
+    private static final List<String> WAIT_TIMERS = List.of("hikaricp.connections.acquire",
+            "goaltracker.datasource.acquire");
+
+    private final MeterRegistry meterRegistry;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    // Totals of each wait timer at the previous sample: {count, total nanos}
+    private final Map<String, long[]> previous = new HashMap<>();
+    private volatile long lastAverageWaitNanos;
+
+    public PoolWaitSampler(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        this.meterRegistry = meterRegistry;
+        this.limiter = limiter;
+    }
+
+    @Scheduled(fixedDelayString = "${goaltracker.load-shedding.sample-interval:PT1S}")
+    public synchronized void sample() {
+        long worst = 0;
+        for (String name : WAIT_TIMERS) {
+            for (Timer timer : meterRegistry.find(name).timers()) {
+                String key = name + ":" + timer.getId().getTag("pool");
+                long count = timer.count();
+                long total = (long) timer.totalTime(TimeUnit.NANOSECONDS);
+                long[] last = previous.put(key, new long[] { count, total });
+                if (last != null && count > last[0]) {
+                    worst = Math.max(worst, (total - last[1]) / (count - last[0]));
+                }
+            }
+        }
+
+        int before = limiter.getLimit();
+        lastAverageWaitNanos = worst;
+        limiter.onPoolWaitSample(worst);
+        if (limiter.getLimit() < before) {
+            log.warn("Connection wait {} ms, lowering the request concurrency limit from {} to {}",
+                    TimeUnit.NANOSECONDS.toMillis(worst), before, limiter.getLimit());
+        }
+    }
+
+    /**
+     * Average connection wait measured by the latest sample
+     *
+     * @return The wait in nanoseconds
+     */
+    public long getLastAverageWaitNanos() {
+        return lastAverageWaitNanos;
+    }
+}
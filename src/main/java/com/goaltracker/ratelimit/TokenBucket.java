@@ -0,0 +1,74 @@
+package com.goaltracker.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TokenBucket - Lock-free token bucket
+ * Implemented in its "virtual scheduling" form (GCRA): instead of a token
+ * count and a refill timestamp, the bucket keeps a single theoretical arrival
+ * time (TAT) that is advanced with one compare-and-set per permit. This is
+ * equivalent to a bucket of {@code capacity} tokens refilled at one token per
+ * {@code refillIntervalNanos}, but needs no lock and no background refill.
+ */
+public class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param capacity            Maximum number of permits available at once
+     * @param refillIntervalNanos Time needed to regain one permit
+     * @param nowNanos            Current time; the bucket starts full
+     */
+    public TokenBucket(int capacity, long refillIntervalNanos, long nowNanos) {
+        if (capacity < 1 || refillIntervalNanos < 1) {
+            throw new IllegalArgumentException("capacity and refill interval must be positive");
+        }
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstToleranceNanos = refillIntervalNanos * (capacity - 1);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one permit if available
+     *
+     * @param nowNanos Current time from a monotonic clock
+     * @return 0 if the permit was granted, otherwise the nanoseconds to wait before retrying
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long start = Math.max(tat, nowNanos);
+            long wait = start - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, start + refillIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the bucket has refilled completely
+     * Full buckets carry no state and can be discarded.
+     *
+     * @param nowNanos Current time from a monotonic clock
+     * @return true if all permits are available again
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrivalTime.get() <= nowNanos;
+    }
+
+    /**
+     * Number of permits currently available
+     *
+     * @param nowNanos Current time from a monotonic clock
+     * @return Available permits
+     */
+    public long availablePermits(long nowNanos) {
+        long backlog = Math.max(0, theoreticalArrivalTime.get() - nowNanos);
+        return Math.max(0, (burstToleranceNanos + refillIntervalNanos - backlog) / refillIntervalNanos);
+    }
+}
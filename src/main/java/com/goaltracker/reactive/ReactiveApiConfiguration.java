@@ -0,0 +1,145 @@
+package com.goaltracker.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goaltracker.security.ApiTokenService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+/**
+ * ReactiveApiConfiguration - Reactive read API for goal progress and goal days
+ * Active when {@code goaltracker.reactive-api.enabled=true}. Starts a Reactor
+ * Netty server on {@code goaltracker.reactive-api.port} (8081) next to the
+ * servlet application, serving the read-only, high fan-out endpoints with
+ * R2DBC; see {@link ReactiveGoalApiHandler} for the routes. Writes, pages
+ * and logins stay on the servlet port.
+ *
+ * The R2DBC URL is derived from {@code spring.datasource.url} unless
+ * {@code goaltracker.reactive-api.r2dbc.url} is set, and uses the same
+ * credentials. Its pool ({@code goaltracker.reactive-api.r2dbc.max-connections},
+ * 10) comes on top of the JDBC pool. It is deliberately not a
+ * ConnectionFactory bean, so Boot does not run data.sql against it or
+ * register a second transaction manager.
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.reactive-api.enabled", havingValue = "true")
+public class ReactiveApiConfiguration {
+
+    @Bean
+    public ReactiveGoalReader reactiveGoalReader(
+            @Value("${goaltracker.reactive-api.r2dbc.url:}") String r2dbcUrl,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${goaltracker.reactive-api.r2dbc.max-connections:10}") int maxConnections,
+            @Value("${goaltracker.reactive-api.r2dbc.acquire-timeout:30s}") Duration acquireTimeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions
+                .parse(r2dbcUrl.isBlank() ? toR2dbcUrl(jdbcUrl) : r2dbcUrl)
+                .mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("reactive-api")
+                .initialSize(0)
+                .maxSize(maxConnections)
+                .maxAcquireTime(acquireTimeout)
+                .build());
+
+        meterRegistry.ifAvailable(registry -> pool.getMetrics().ifPresent(metrics -> {
+            Gauge.builder("goaltracker.reactive-api.r2dbc.acquired", metrics, PoolMetrics::acquiredSize)
+                    .description("R2DBC connections in use")
+                    .register(registry);
+            Gauge.builder("goaltracker.reactive-api.r2dbc.pending", metrics, PoolMetrics::pendingAcquireSize)
+                    .description("Subscribers waiting for an R2DBC connection")
+                    .register(registry);
+        }));
+        return new ReactiveGoalReader(pool);
+    }
+
+    @Bean
+    public ReactiveApiServer reactiveApiServer(ReactiveGoalReader reader,
+            ObjectProvider<ApiTokenService> apiTokenService,
+            ObjectMapper objectMapper,
+            @Value("${goaltracker.reactive-api.host:0.0.0.0}") String host,
+            @Value("${goaltracker.reactive-api.port:8081}") int port,
+            @Value("${goaltracker.reactive-api.event-loop-threads:0}") int eventLoopThreads,
+            @Value("${goaltracker.reactive-api.progress-interval:5s}") Duration progressInterval,
+            @Value("${goaltracker.reactive-api.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        ReactiveGoalApiHandler handler = new ReactiveGoalApiHandler(reader, apiTokenService.getIfAvailable(),
+                progressInterval);
+        // Same ObjectMapper as the servlet API, so dates are written the same way
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        return new ReactiveApiServer(RouterFunctions.toHttpHandler(routes(handler), strategies), host, port,
+                eventLoopThreads > 0 ? eventLoopThreads : Runtime.getRuntime().availableProcessors(),
+                shutdownTimeout);
+    }
+
+    /**
+     * Routes of the reactive API
+     *
+     * @param handler The handler functions
+     * @return Router function for all reactive endpoints
+     */
+    static RouterFunction<ServerResponse> routes(ReactiveGoalApiHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/goals/{goalId}/progress", handler::getGoalProgress)
+                .GET("/api/goals/{goalId}/progress/stream", handler::streamGoalProgress)
+                // Only clients asking for NDJSON by name; RequestPredicates.accept would also match */*
+                .GET("/api/goals/{goalId}/days", request -> request.headers().accept().stream()
+                        .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype), handler::streamGoalDays)
+                .GET("/api/goals/{goalId}/days", handler::getGoalDays)
+                .filter(handler::authenticate)
+                .build();
+    }
+
+    /**
+     * Derives the R2DBC URL of the database a JDBC URL points to
+     * Covers PostgreSQL and H2 (in-memory, file and server mode); any other
+     * database needs {@code goaltracker.reactive-api.r2dbc.url}.
+     *
+     * @param jdbcUrl The JDBC URL, e.g. jdbc:postgresql://db:5432/goaltracker
+     * @return The matching R2DBC URL, e.g. r2dbc:postgresql://db:5432/goaltracker
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:postgresql://")) {
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        }
+        // r2dbc-h2 expects an empty host in front of the database name
+        for (String mode : new String[] { "mem", "file" }) {
+            String prefix = "jdbc:h2:" + mode + ":";
+            if (jdbcUrl.startsWith(prefix)) {
+                return "r2dbc:h2:" + mode + ":///" + jdbcUrl.substring(prefix.length());
+            }
+        }
+        if (jdbcUrl.startsWith("jdbc:h2:tcp://")) {
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        }
+        throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl
+                + "; set goaltracker.reactive-api.r2dbc.url");
+    }
+}
@@ -0,0 +1,92 @@
+package com.goaltracker.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * ReactiveApiServer - Reactor Netty server for the reactive API, next to Tomcat
+ * Runs on its own port with its own small set of event-loop threads, so
+ * thousands of open streams cost a connection each instead of a request
+ * thread, and neither server can starve the other of threads. Started after
+ * the rest of the context and stopped before it.
+ */
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveApiServer.class);
+
+    private final HttpHandler httpHandler;
+    private final String host;
+    private final int port;
+    private final int eventLoopThreads;
+    private final Duration shutdownTimeout;
+
+    private volatile LoopResources loops;
+    private volatile DisposableServer server;
+
+    /**
+     * @param httpHandler      The handler serving all requests
+     * @param host             Address to bind to
+     * @param port             Port to listen on, 0 for any free port
+     * @param eventLoopThreads Number of event-loop threads
+     * @param shutdownTimeout  How long open connections may take to finish on stop
+     */
+    public ReactiveApiServer(HttpHandler httpHandler, String host, int port, int eventLoopThreads,
+            Duration shutdownTimeout) {
+        this.httpHandler = httpHandler;
+        this.host = host;
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        loops = LoopResources.create("reactive-api", 1, eventLoopThreads, true);
+        server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive API listening on {}:{} with {} event-loop threads", host, server.port(),
+                eventLoopThreads);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.disposeNow(shutdownTimeout);
+        // Connections are closed by now, so the event loops need no quiet period
+        loops.disposeLater(Duration.ZERO, shutdownTimeout).block();
+        server = null;
+        loops = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port the server is listening on
+     *
+     * @return The bound port, or -1 while stopped
+     */
+    public int getPort() {
+        DisposableServer current = server;
+        return current != null ? current.port() : -1;
+    }
+}
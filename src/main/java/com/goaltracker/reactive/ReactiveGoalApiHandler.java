@@ -0,0 +1,284 @@
+package com.goaltracker.reactive;
+
+import com.goaltracker.dto.GoalDayDto;
+import com.goaltracker.dto.GoalDto;
+import com.goaltracker.security.ApiTokenAuthenticationFilter;
+import com.goaltracker.security.ApiTokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ReactiveGoalApiHandler - Handler functions of the reactive goal read API
+ * Serves {@code /api/goals/{goalId}/progress} and {@code /api/goals/{goalId}/days}
+ * with the same JSON as {@code GoalApiController}, so the frontend can read
+ * from either port. On top of that:
+ * <ul>
+ * <li>{@code /days} with {@code Accept: application/x-ndjson} streams one day
+ * per line instead of building the whole array</li>
+ * <li>{@code /progress/stream} is a server-sent event stream that pushes the
+ * progress whenever it changes, for dashboards that would otherwise poll;
+ * all clients watching the same goal share one poll of the database</li>
+ * </ul>
+ * Every route needs a bearer API token, since this port has no session:
+ * requests without a valid one get 401. Only the caller's own goals are
+ * served, another user's goal is answered like a missing one (404), as in
+ * {@code GoalApiController}. Other errors are answered with 400; all errors
+ * carry {@code {"success":false,"error":...}}.
+ */
+public class ReactiveGoalApiHandler {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ReactiveGoalReader reader;
+    private final ApiTokenService apiTokenService;
+    private final Duration progressInterval;
+    private final ConcurrentMap<Long, Flux<Map<String, Object>>> progressStreams = new ConcurrentHashMap<>();
+
+    /**
+     * @param reader           Source of progress and day records
+     * @param apiTokenService  Verifies bearer tokens; null when API tokens are disabled
+     * @param progressInterval How often a progress stream checks for changes
+     */
+    public ReactiveGoalApiHandler(ReactiveGoalReader reader, ApiTokenService apiTokenService,
+            Duration progressInterval) {
+        this.reader = reader;
+        this.apiTokenService = apiTokenService;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Retrieves current progress information for a specific goal
+     */
+    public Mono<ServerResponse> getGoalProgress(ServerRequest request) {
+        return Mono.fromCallable(() -> goalId(request))
+                .flatMap(goalId -> reader.getProgress(goalId, userId(request))
+                        .flatMap(goal -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(progressBody(goal)))
+                        .switchIfEmpty(Mono.defer(() -> notFound(goalId))))
+                .onErrorResume(ReactiveGoalApiHandler::badRequest);
+    }
+
+    /**
+     * Pushes the progress of a goal as server-sent events
+     * The first event is sent right away, later ones only when the progress
+     * has changed. Ticks that arrive while a read is still running are dropped.
+     * Clients of the same goal share one poll, see {@link #progressOf}.
+     */
+    public Mono<ServerResponse> streamGoalProgress(ServerRequest request) {
+        long goalId;
+        try {
+            goalId = goalId(request);
+        } catch (RuntimeException e) {
+            return badRequest(e);
+        }
+        long userId = userId(request);
+        // Checked before the stream is committed, so a foreign goal still gets a 404
+        return reader.isOwnedBy(goalId, userId).flatMap(owned -> {
+            if (!owned) {
+                return notFound(goalId);
+            }
+            Flux<ServerSentEvent<Map<String, Object>>> events = progressOf(goalId, userId)
+                    .map(body -> ServerSentEvent.builder(body).event("progress").build())
+                    .onErrorResume(e -> Mono.just(ServerSentEvent.builder(errorBody(e)).event("error").build()));
+            return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(events, ServerSentEvent.class);
+        }).onErrorResume(ReactiveGoalApiHandler::badRequest);
+    }
+
+    /**
+     * Progress changes of a goal, polled once for all its current subscribers
+     * The poll starts with the first subscriber and stops when the last one
+     * cancels; a later subscriber is sent the latest progress right away.
+     * Keyed by goal alone: only the owner gets past the check in
+     * {@link #streamGoalProgress}, so every subscriber has the same user id.
+     */
+    private Flux<Map<String, Object>> progressOf(long goalId, long userId) {
+        return progressStreams.computeIfAbsent(goalId, id -> Flux.interval(Duration.ZERO, progressInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reader.getProgress(id, userId)
+                        .switchIfEmpty(Mono.error(() -> new RuntimeException("Goal not found with id: " + id))), 1)
+                .map(ReactiveGoalApiHandler::progressBody)
+                .distinctUntilChanged()
+                .doFinally(signal -> progressStreams.remove(id))
+                .replay(1)
+                .refCount());
+    }
+
+    /**
+     * Retrieves the day records of a goal as one JSON document, optionally one window at a time
+     * Same parameters and response as {@code GoalApiController.getGoalDays}.
+     */
+    public Mono<ServerResponse> getGoalDays(ServerRequest request) {
+        long userId = userId(request);
+        return Mono.fromCallable(() -> DaysQuery.of(request))
+                .flatMap(query -> reader.isOwnedBy(query.goalId, userId).flatMap(owned -> !owned
+                        ? notFound(query.goalId)
+                        : query.read(reader, userId)
+                                .map(ReactiveGoalApiHandler::dayBody)
+                                .collectList()
+                                .flatMap(days -> {
+                                    Map<String, Object> response = new HashMap<>();
+                                    response.put("success", true);
+                                    response.put("days", days);
+                                    if (query.from != null) {
+                                        response.put("from", query.from.toString());
+                                        response.put("to", query.to.toString());
+                                        response.put("nextFrom", query.to.plusDays(1).toString());
+                                    }
+                                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                            .bodyValue(response);
+                                })))
+                .onErrorResume(ReactiveGoalApiHandler::badRequest);
+    }
+
+    /**
+     * Streams the day records of a goal as newline-delimited JSON
+     * Rows are written as they arrive from the database, at the pace the
+     * client reads them; the window is echoed in the X-Next-From header.
+     */
+    public Mono<ServerResponse> streamGoalDays(ServerRequest request) {
+        DaysQuery query;
+        try {
+            query = DaysQuery.of(request);
+        } catch (RuntimeException e) {
+            return badRequest(e);
+        }
+        long userId = userId(request);
+        return reader.isOwnedBy(query.goalId, userId).flatMap(owned -> {
+            if (!owned) {
+                return notFound(query.goalId);
+            }
+            ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON);
+            if (query.to != null) {
+                response.header("X-Next-From", query.to.plusDays(1).toString());
+            }
+            return response.body(query.read(reader, userId).map(ReactiveGoalApiHandler::dayBody), Map.class);
+        }).onErrorResume(ReactiveGoalApiHandler::badRequest);
+    }
+
+    /**
+     * Rejects requests without a valid bearer token
+     * Tokens are verified like in {@link ApiTokenAuthenticationFilter}, and
+     * the user id of a valid one is carried as the "userId" attribute. Unlike
+     * on the servlet port there is no session to fall back on, so a missing
+     * token is rejected as well; with API tokens disabled every request is.
+     */
+    public Mono<ServerResponse> authenticate(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        String header = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (apiTokenService == null || header == null || !header.startsWith(BEARER_PREFIX)) {
+            return unauthorized("Bearer", "Authentication required");
+        }
+
+        Optional<Long> userId = apiTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (userId.isEmpty()) {
+            return unauthorized("Bearer error=\"invalid_token\"", "Invalid or expired API token");
+        }
+
+        request.attributes().put(ApiTokenAuthenticationFilter.USER_ID_ATTRIBUTE, userId.get());
+        return next.handle(request);
+    }
+
+    private static long goalId(ServerRequest request) {
+        return Long.parseLong(request.pathVariable("goalId"));
+    }
+
+    // Always set, every route runs behind authenticate
+    private static long userId(ServerRequest request) {
+        return (Long) request.attribute(ApiTokenAuthenticationFilter.USER_ID_ATTRIBUTE).orElseThrow();
+    }
+
+    private static Map<String, Object> progressBody(GoalDto goal) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("progressPercentage", goal.getProgressPercentage());
+        response.put("completedDays", goal.getCompletedDays());
+        response.put("totalDays", goal.getTotalDays());
+        response.put("completed", goal.isCompleted());
+        return response;
+    }
+
+    private static Map<String, Object> dayBody(GoalDayDto day) {
+        Map<String, Object> dayMap = new HashMap<>();
+        dayMap.put("dayDate", day.getDate().toString());
+        dayMap.put("completed", day.isCompleted());
+        dayMap.put("completedAt", day.getCompletedAt());
+        return dayMap;
+    }
+
+    private static Map<String, Object> errorBody(Throwable e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        return response;
+    }
+
+    private static Mono<ServerResponse> unauthorized(String challenge, String message) {
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, challenge)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("success", false, "error", message));
+    }
+
+    private static Mono<ServerResponse> notFound(long goalId) {
+        return ServerResponse.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("success", false, "error", "Goal not found with id: " + goalId));
+    }
+
+    private static Mono<ServerResponse> badRequest(Throwable e) {
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(errorBody(e));
+    }
+
+    /**
+     * Goal and optional date window of a days request
+     * A missing bound defaults to the edge of the month of the other one.
+     */
+    private static final class DaysQuery {
+
+        private final long goalId;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private DaysQuery(long goalId, LocalDate from, LocalDate to) {
+            this.goalId = goalId;
+            this.from = from;
+            this.to = to;
+        }
+
+        static DaysQuery of(ServerRequest request) {
+            long goalId = goalId(request);
+            String from = request.queryParam("from").orElse(null);
+            String to = request.queryParam("to").orElse(null);
+            if (from == null && to == null) {
+                return new DaysQuery(goalId, null, null);
+            }
+            LocalDate windowStart = from != null ? LocalDate.parse(from) : LocalDate.parse(to).withDayOfMonth(1);
+            LocalDate windowEnd = to != null ? LocalDate.parse(to)
+                    : windowStart.with(TemporalAdjusters.lastDayOfMonth());
+            // Checked here as well, since a streamed response is committed before the query runs
+            if (windowEnd.isBefore(windowStart)) {
+                throw new RuntimeException("End of the date window must not be before its start");
+            }
+            return new DaysQuery(goalId, windowStart, windowEnd);
+        }
+
+        Flux<GoalDayDto> read(ReactiveGoalReader reader, long userId) {
+            return from == null ? reader.getGoalDays(goalId, userId) : reader.getGoalDays(goalId, userId, from, to);
+        }
+    }
+}
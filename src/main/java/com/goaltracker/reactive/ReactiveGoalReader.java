@@ -0,0 +1,156 @@
+package com.goaltracker.reactive;
+
+import com.goaltracker.dto.GoalDayDto;
+import com.goaltracker.dto.GoalDto;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * ReactiveGoalReader - Non-blocking reads of goal progress and goal days over R2DBC
+ * Answers the same questions as {@code GoalService.getGoalById} and
+ * {@code GoalService.getGoalDays}, straight from the goal and goal_day tables.
+ * Day rows are emitted as the driver decodes them and only as fast as the
+ * subscriber requests them, so a slow reader holds a connection but never a
+ * thread or a full result list.
+ *
+ * Every read is limited to the goals of the given user, so another user's
+ * goal reads like a missing one.
+ *
+ * Finished goals are read from goal_day as well; their snapshot holds the
+ * same rows, so the answers do not differ.
+ */
+public class ReactiveGoalReader implements DisposableBean {
+
+    private static final String OWNER_SQL = "SELECT COUNT(*) AS owned FROM goal "
+            + "WHERE id = :goalId AND user_id = :userId";
+
+    private static final String PROGRESS_SQL = "SELECT g.start_date, g.end_date, "
+            + "(SELECT COUNT(*) FROM goal_day d WHERE d.goal_id = g.id AND d.completed = TRUE) AS completed_days "
+            + "FROM goal g WHERE g.id = :goalId AND g.user_id = :userId";
+
+    private static final String DAYS_SQL = "SELECT d.day_date, d.completed, d.completed_at FROM goal_day d "
+            + "JOIN goal g ON g.id = d.goal_id "
+            + "WHERE d.goal_id = :goalId AND g.user_id = :userId ORDER BY d.day_date";
+
+    private static final String DAYS_BETWEEN_SQL = "SELECT d.day_date, d.completed, d.completed_at FROM goal_day d "
+            + "JOIN goal g ON g.id = d.goal_id "
+            + "WHERE d.goal_id = :goalId AND g.user_id = :userId AND d.day_date BETWEEN :from AND :to "
+            + "ORDER BY d.day_date";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @param connectionFactory The R2DBC connection factory; a {@link ConnectionPool}
+     *                          is disposed together with this reader
+     */
+    public ReactiveGoalReader(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Checks whether a goal exists and belongs to the given user
+     *
+     * @param goalId The unique identifier of the goal
+     * @param userId The unique identifier of the user
+     * @return true if the goal is owned by the user
+     */
+    public Mono<Boolean> isOwnedBy(long goalId, long userId) {
+        return databaseClient.sql(OWNER_SQL)
+                .bind("goalId", goalId)
+                .bind("userId", userId)
+                .map((row, metadata) -> row.get("owned", Long.class) > 0)
+                .one();
+    }
+
+    /**
+     * Computes the progress metrics of a goal
+     *
+     * @param goalId The unique identifier of the goal
+     * @param userId The unique identifier of the owner
+     * @return GoalDto carrying only the progress metrics; empty if the user has no such goal
+     */
+    public Mono<GoalDto> getProgress(long goalId, long userId) {
+        return databaseClient.sql(PROGRESS_SQL)
+                .bind("goalId", goalId)
+                .bind("userId", userId)
+                .map((row, metadata) -> toProgress(goalId,
+                        row.get("start_date", LocalDate.class),
+                        row.get("end_date", LocalDate.class),
+                        row.get("completed_days", Long.class)))
+                .one();
+    }
+
+    /**
+     * Streams every day record of a goal in date order
+     *
+     * @param goalId The unique identifier of the goal
+     * @param userId The unique identifier of the owner
+     * @return Flux of GoalDayDto objects, empty if the user has no such goal
+     */
+    public Flux<GoalDayDto> getGoalDays(long goalId, long userId) {
+        return databaseClient.sql(DAYS_SQL)
+                .bind("goalId", goalId)
+                .bind("userId", userId)
+                .map((row, metadata) -> new GoalDayDto(row.get("day_date", LocalDate.class),
+                        Boolean.TRUE.equals(row.get("completed", Boolean.class)),
+                        row.get("completed_at", LocalDateTime.class)))
+                .all();
+    }
+
+    /**
+     * Streams the day records of a goal within a date window in date order
+     *
+     * @param goalId The unique identifier of the goal
+     * @param userId The unique identifier of the owner
+     * @param from   First day of the window (inclusive)
+     * @param to     Last day of the window (inclusive)
+     * @return Flux of GoalDayDto objects for the days of the goal within the window
+     */
+    public Flux<GoalDayDto> getGoalDays(long goalId, long userId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return Flux.error(new RuntimeException("End of the date window must not be before its start"));
+        }
+        return databaseClient.sql(DAYS_BETWEEN_SQL)
+                .bind("goalId", goalId)
+                .bind("userId", userId)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> new GoalDayDto(row.get("day_date", LocalDate.class),
+                        Boolean.TRUE.equals(row.get("completed", Boolean.class)),
+                        row.get("completed_at", LocalDateTime.class)))
+                .all();
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionFactory instanceof ConnectionPool pool) {
+            pool.dispose();
+        }
+    }
+
+    // Same calculation as GoalService.convertToDto
+    private static GoalDto toProgress(long goalId, LocalDate startDate, LocalDate endDate, Long completed) {
+        long total = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long completedDays = completed != null ? completed : 0;
+        GoalDto dto = new GoalDto();
+        dto.setId(goalId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setTotalDays(total);
+        dto.setCompletedDays(completedDays);
+        dto.setRemainingDays(total - completedDays);
+        dto.setProgressPercentage(total == 0 ? 0.0 : (double) completedDays / total * 100.0);
+        dto.setCompleted(total > 0 && completedDays == total);
+        return dto;
+    }
+}
@@ -0,0 +1,15 @@
+package com.goaltracker.repository;
+
+/**
+ * GoalDayCounts - Number of days and completed days of one goal
+ * Projection returned by {@link GoalDayRepository#countDaysByGoalIds}, which
+ * counts the days of a whole page of goals in a single grouped query.
+ */
+public interface GoalDayCounts {
+
+    Long getGoalId();
+
+    long getTotalDays();
+
+    long getCompletedDays();
+}
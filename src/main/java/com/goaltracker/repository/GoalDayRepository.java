@@ -7,11 +7,16 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * GoalDayRepository - Data access layer for GoalDay entity
+ * The day toggle and backfill upserts live in {@link GoalDayRepositoryCustom}.
+ */
 @Repository
-public interface GoalDayRepository extends JpaRepository<GoalDay, Long> {
+public interface GoalDayRepository extends JpaRepository<GoalDay, Long>, GoalDayRepositoryCustom {
 
     @Query("SELECT gd FROM GoalDay gd WHERE gd.goal.id = :goalId AND gd.date = :date")
     Optional<GoalDay> findByGoalIdAndDate(@Param("goalId") Long goalId, @Param("date") LocalDate date);
@@ -19,12 +24,26 @@ public interface GoalDayRepository extends JpaRepository<GoalDay, Long> {
     @Query("SELECT gd FROM GoalDay gd WHERE gd.goal.id = :goalId ORDER BY gd.date ASC")
     List<GoalDay> findByGoalIdOrderByDayDate(@Param("goalId") Long goalId);
 
+    @Query("SELECT gd FROM GoalDay gd WHERE gd.goal.id = :goalId AND gd.date BETWEEN :from AND :to ORDER BY gd.date ASC")
+    List<GoalDay> findByGoalIdAndDateBetween(@Param("goalId") Long goalId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
     @Query("SELECT COUNT(gd) FROM GoalDay gd WHERE gd.goal.id = :goalId AND gd.completed = true")
     long countCompletedDaysByGoalId(@Param("goalId") Long goalId);
 
     @Query("SELECT COUNT(gd) FROM GoalDay gd WHERE gd.goal.id = :goalId")
     long countTotalDaysByGoalId(@Param("goalId") Long goalId);
 
+    // One row per goal that has days; used by the goal lists instead of two counts per goal
+    @Query("SELECT gd.goal.id AS goalId, COUNT(gd) AS totalDays,"
+            + " SUM(CASE WHEN gd.completed = true THEN 1 ELSE 0 END) AS completedDays"
+            + " FROM GoalDay gd WHERE gd.goal.id IN :goalIds GROUP BY gd.goal.id")
+    List<GoalDayCounts> countDaysByGoalIds(@Param("goalIds") Collection<Long> goalIds);
+
+    // All days of several goals in one query; used to build snapshots of listed finished goals
+    @Query("SELECT gd FROM GoalDay gd WHERE gd.goal.id IN :goalIds")
+    List<GoalDay> findByGoalIds(@Param("goalIds") Collection<Long> goalIds);
+
     @Modifying
     @Query("DELETE FROM GoalDay gd WHERE gd.goal.id = :goalId")
     void deleteByGoalId(@Param("goalId") Long goalId);
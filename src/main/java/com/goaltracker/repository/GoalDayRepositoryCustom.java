@@ -0,0 +1,31 @@
+package com.goaltracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * GoalDayRepositoryCustom - Hand-written statements mixed into GoalDayRepository
+ * Both rely on the unique (goal_id, day_date) index and write each row with a
+ * single statement, so concurrent calls for the same day cannot create
+ * duplicate rows or lose an update.
+ */
+public interface GoalDayRepositoryCustom {
+
+    /**
+     * Flips the completion status of a day, creating the row as completed if
+     * it does not exist yet
+     *
+     * @param goalId The goal ID
+     * @param date   The day to toggle
+     * @return true if the day is now completed
+     */
+    boolean toggleCompleted(Long goalId, LocalDate date);
+
+    /**
+     * Creates a not-completed row for every day in the range that has none
+     *
+     * @param goalId The goal ID
+     * @param from   First day of the range (inclusive)
+     * @param to     Last day of the range (inclusive); nothing is inserted if before from
+     */
+    void insertMissingDays(Long goalId, LocalDate from, LocalDate to);
+}
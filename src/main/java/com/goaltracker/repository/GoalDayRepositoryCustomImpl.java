@@ -0,0 +1,98 @@
+package com.goaltracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * GoalDayRepositoryCustomImpl - Implementation of the custom GoalDayRepository statements
+ * Picked up by Spring Data through the "Impl" suffix. Uses
+ * INSERT ... ON CONFLICT on PostgreSQL and MERGE on H2. Runs through JDBC
+ * rather than a native JPA query, which would evict the whole second-level cache.
+ */
+class GoalDayRepositoryCustomImpl implements GoalDayRepositoryCustom {
+
+    private static final String POSTGRESQL_TOGGLE = """
+            INSERT INTO goal_day (goal_id, day_date, completed, completed_at, created_at)
+            VALUES (?, ?, TRUE, ?, ?)
+            ON CONFLICT (goal_id, day_date) DO UPDATE
+            SET completed = NOT goal_day.completed,
+                completed_at = CASE WHEN goal_day.completed THEN NULL ELSE EXCLUDED.completed_at END
+            RETURNING completed""";
+
+    private static final String H2_TOGGLE = """
+            SELECT completed FROM FINAL TABLE (
+                MERGE INTO goal_day d
+                USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)))
+                    AS s (goal_id, day_date, completed_at, created_at)
+                ON d.goal_id = s.goal_id AND d.day_date = s.day_date
+                WHEN MATCHED THEN UPDATE
+                    SET completed = NOT d.completed,
+                        completed_at = CASE WHEN d.completed THEN NULL ELSE s.completed_at END
+                WHEN NOT MATCHED THEN INSERT (goal_id, day_date, completed, completed_at, created_at)
+                    VALUES (s.goal_id, s.day_date, TRUE, s.completed_at, s.created_at))""";
+
+    private static final String POSTGRESQL_INSERT_MISSING = """
+            INSERT INTO goal_day (goal_id, day_date, completed, created_at)
+            SELECT ?, CAST(? AS DATE) + n, FALSE, ? FROM generate_series(0, ?) AS n
+            ON CONFLICT (goal_id, day_date) DO NOTHING""";
+
+    private static final String H2_INSERT_MISSING = """
+            MERGE INTO goal_day d
+            USING (SELECT CAST(? AS BIGINT) AS goal_id, DATEADD(DAY, X, CAST(? AS DATE)) AS day_date,
+                    CAST(? AS TIMESTAMP) AS created_at FROM SYSTEM_RANGE(0, ?)) s
+            ON d.goal_id = s.goal_id AND d.day_date = s.day_date
+            WHEN NOT MATCHED THEN INSERT (goal_id, day_date, completed, created_at)
+                VALUES (s.goal_id, s.day_date, FALSE, s.created_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Resolved on first use, after Flyway has connected to the database
+    private volatile Boolean postgresql;
+
+    @Autowired
+    GoalDayRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean toggleCompleted(Long goalId, LocalDate date) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Boolean completed = jdbcTemplate.queryForObject(isPostgresql() ? POSTGRESQL_TOGGLE : H2_TOGGLE,
+                Boolean.class, goalId, Date.valueOf(date), now, now);
+        return Boolean.TRUE.equals(completed);
+    }
+
+    @Override
+    public void insertMissingDays(Long goalId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return;
+        }
+        int lastOffset = Math.toIntExact(ChronoUnit.DAYS.between(from, to));
+        jdbcTemplate.update(isPostgresql() ? POSTGRESQL_INSERT_MISSING : H2_INSERT_MISSING,
+                goalId, Date.valueOf(from), Timestamp.valueOf(LocalDateTime.now()), lastOffset);
+    }
+
+    private boolean isPostgresql() {
+        Boolean result = postgresql;
+        if (result == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                        DatabaseMetaData::getDatabaseProductName);
+                result = "PostgreSQL".equals(product);
+            } catch (MetaDataAccessException e) {
+                throw new RuntimeException("Could not determine the database vendor", e);
+            }
+            postgresql = result;
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.goaltracker.repository;
 
+import com.goaltracker.dto.UserStatsDto;
 import com.goaltracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -12,18 +13,10 @@ import java.util.Optional;
  * UserRepository - Data access layer for User entity
  * This repository provides methods to interact with the users table
  * and includes custom queries for user authentication and management.
+ * The username lookup lives in {@link UserRepositoryCustom}.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
-    /**
-     * Finds a user by their unique username
-     * Used for login authentication
-     * 
-     * @param username The username to search for
-     * @return Optional containing the user if found
-     */
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     /**
      * Finds a user by their unique email address
@@ -71,4 +64,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.goals WHERE u.username = :username")
     Optional<User> findByUsernameWithGoals(@Param("username") String username);
+    
+    /**
+     * Aggregates a user's goal statistics in a single query
+     * Counts goal days per goal in a derived table and sums them up, so no
+     * Goal or GoalDay entities are loaded. A goal is active while it has
+     * fewer completed days than days, matching the "Working Goals" filter.
+     * 
+     * @param userId The ID of the user
+     * @return Goal count, active goal count, total and completed days
+     */
+    @Query("SELECT new com.goaltracker.dto.UserStatsDto("
+            + "COUNT(s.goalId), "
+            + "SUM(CASE WHEN s.completedDays < s.totalDays THEN 1L ELSE 0L END), "
+            + "SUM(s.totalDays), "
+            + "SUM(s.completedDays)) "
+            + "FROM (SELECT g.id AS goalId, "
+            + "COUNT(d.id) AS totalDays, "
+            + "COUNT(CASE WHEN d.completed = true THEN 1 END) AS completedDays "
+            + "FROM Goal g LEFT JOIN g.goalDays d "
+            + "WHERE g.user.id = :userId "
+            + "GROUP BY g.id) s")
+    UserStatsDto getStatsByUserId(@Param("userId") Long userId);
 }
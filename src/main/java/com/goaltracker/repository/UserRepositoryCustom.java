@@ -0,0 +1,23 @@
+package com.goaltracker.repository;
+
+import com.goaltracker.entity.User;
+
+import java.util.Optional;
+
+/**
+ * UserRepositoryCustom - Hand-written queries mixed into UserRepository
+ * Holds lookups that need the Hibernate session API rather than a derived
+ * or JPQL query.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds a user by their unique username
+     * Used for login authentication. Resolved as a natural-id lookup, so
+     * repeated logins are served from the second-level cache.
+     * 
+     * @param username The username to search for
+     * @return Optional containing the user if found
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,33 @@
+package com.goaltracker.repository;
+
+import com.goaltracker.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * UserRepositoryCustomImpl - Implementation of the custom UserRepository queries
+ * Picked up by Spring Data through the "Impl" suffix.
+ */
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Its own transaction: callers outside one (login) would otherwise keep the
+    // connection until they return, i.e. for the whole BCrypt check
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        // username -> id comes from the natural-id cache, id -> row from the entity cache
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
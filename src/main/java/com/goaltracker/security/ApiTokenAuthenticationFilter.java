@@ -0,0 +1,55 @@
+package com.goaltracker.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * ApiTokenAuthenticationFilter - Authenticates API calls from a bearer token
+ * If the request carries {@code Authorization: Bearer <token>}, the token is
+ * verified in memory and the user id is exposed as the "userId" request
+ * attribute; the servlet session is never touched. Invalid or expired tokens
+ * are rejected with 401. Requests without a bearer token pass through
+ * unchanged and keep working with the session cookie.
+ */
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID_ATTRIBUTE = "userId";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ApiTokenService apiTokenService;
+
+    public ApiTokenAuthenticationFilter(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<Long> userId = apiTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (userId.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"error\":\"Invalid or expired API token\"}");
+            return;
+        }
+
+        request.setAttribute(USER_ID_ATTRIBUTE, userId.get());
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,53 @@
+package com.goaltracker.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * ApiTokenConfiguration - Enables stateless token authentication for /api/**
+ * Active when {@code goaltracker.api-token.enabled=true}. All nodes must share
+ * the same {@code goaltracker.api-token.secret} (base64, at least 32 bytes);
+ * without one a random per-process secret is generated, which only works for
+ * a single node.
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.api-token.enabled", havingValue = "true")
+public class ApiTokenConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiTokenConfiguration.class);
+
+    @Bean
+    public ApiTokenService apiTokenService(@Value("${goaltracker.api-token.secret:}") String secret,
+            @Value("${goaltracker.api-token.ttl:15m}") Duration ttl) {
+        byte[] key;
+        if (secret.isBlank()) {
+            log.warn("goaltracker.api-token.secret is not set; using a random secret valid for this process only");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        return new ApiTokenService(key, ttl, Clock.systemUTC());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ApiTokenAuthenticationFilter> apiTokenAuthenticationFilter(
+            ApiTokenService apiTokenService) {
+        FilterRegistrationBean<ApiTokenAuthenticationFilter> registration = new FilterRegistrationBean<>(
+                new ApiTokenAuthenticationFilter(apiTokenService));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 40);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.goaltracker.security;
+
+import com.goaltracker.controller.GoalController;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.SessionAttribute;
+
+/**
+ * ApiTokenModelAdvice - Hands an API token to the goal pages
+ * The layout renders it as a meta tag so calendar.js can call the JSON API
+ * with a bearer token instead of relying on the session cookie. Only GET
+ * requests render a view, so form posts (which redirect) get no token.
+ */
+@ControllerAdvice(assignableTypes = GoalController.class)
+@ConditionalOnProperty(name = "goaltracker.api-token.enabled", havingValue = "true")
+public class ApiTokenModelAdvice {
+
+    private final ApiTokenService apiTokenService;
+
+    @Autowired
+    public ApiTokenModelAdvice(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    @ModelAttribute("apiToken")
+    public String apiToken(@SessionAttribute(name = "userId", required = false) Long userId,
+            HttpServletRequest request) {
+        if (userId == null || !"GET".equals(request.getMethod())) {
+            return null;
+        }
+        return apiTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,128 @@
+package com.goaltracker.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * ApiTokenService - Issues and verifies stateless API tokens
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))}
+ * where the 17 byte payload carries a format version, the user id and the
+ * expiry time. Verification needs only the shared secret, so any node can
+ * authenticate an API call without a session or database lookup.
+ */
+public class ApiTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int PAYLOAD_LENGTH = 1 + Long.BYTES * 2;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // Mac instances are not thread-safe, so each thread keeps its own
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param secret The shared HMAC secret, at least 32 bytes
+     * @param ttl    How long an issued token stays valid
+     * @param clock  Clock used for issuing and expiry checks
+     */
+    public ApiTokenService(byte[] secret, Duration ttl, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("API token secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Issues a new token for the given user
+     *
+     * @param userId The ID of the authenticated user
+     * @return The signed token
+     */
+    public String issue(long userId) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .put(FORMAT_VERSION)
+                .putLong(userId)
+                .putLong(expiresAt)
+                .array();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Verifies a token and extracts the user id
+     * Returns empty for malformed, tampered or expired tokens.
+     *
+     * @param token The token from the Authorization header
+     * @return Optional containing the user id if the token is valid
+     */
+    public Optional<Long> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (payload.length != PAYLOAD_LENGTH || payload[0] != FORMAT_VERSION) {
+            return Optional.empty();
+        }
+
+        // Constant-time comparison so the signature cannot be guessed byte by byte
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, PAYLOAD_LENGTH - 1);
+        long userId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (expiresAt <= clock.instant().getEpochSecond()) {
+            return Optional.empty();
+        }
+        return Optional.of(userId);
+    }
+
+    /**
+     * Lifetime of issued tokens
+     *
+     * @return The token time-to-live
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
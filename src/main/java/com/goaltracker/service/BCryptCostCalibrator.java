@@ -0,0 +1,74 @@
+package com.goaltracker.service;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * BCryptCostCalibrator - Picks the BCrypt cost that fits a latency budget on this host
+ * Each cost step doubles the work, so the calibrator times hashes at
+ * increasing costs and stops at the first one that exceeds the budget. The
+ * result is the strongest cost whose median hash time stays within budget,
+ * but never lower than the configured floor.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd";
+    private static final int SAMPLES_PER_COST = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Benchmarks BCrypt on the current host
+     *
+     * @param budget  Target time for a single hash
+     * @param minCost Lowest acceptable cost (security floor)
+     * @param maxCost Highest cost to consider
+     * @return The chosen cost
+     */
+    public static int calibrate(Duration budget, int minCost, int maxCost) {
+        long budgetNanos = budget.toNanos();
+
+        // Warm up the JIT so the first measurement is not dominated by interpretation
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(minCost));
+
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            if (medianHashNanos(cost) > budgetNanos) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    /**
+     * Reads the cost factor embedded in a BCrypt hash ("$2a$12$...")
+     *
+     * @param hash The stored hash
+     * @return The cost, or -1 if the string is not a BCrypt hash
+     */
+    public static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long medianHashNanos(int cost) {
+        long[] samples = new long[SAMPLES_PER_COST];
+        for (int i = 0; i < SAMPLES_PER_COST; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(cost));
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES_PER_COST / 2];
+    }
+}
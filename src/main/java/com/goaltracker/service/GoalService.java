@@ -1,27 +1,49 @@
 package com.goaltracker.service;
 
+import com.goaltracker.dto.GoalDayDto;
 import com.goaltracker.dto.GoalDto;
 import com.goaltracker.entity.Goal;
-import com.goaltracker.entity.GoalDay;
+import com.goaltracker.repository.GoalDayCounts;
 import com.goaltracker.repository.GoalRepository;
 import com.goaltracker.repository.GoalDayRepository;
 import com.goaltracker.service.UserService;
+import com.goaltracker.snapshot.GoalSnapshot;
+import com.goaltracker.snapshot.GoalSnapshotCache;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * GoalService - Core business logic for goal management
  * This service handles all goal-related operations including CRUD operations,
  * progress tracking, and day completion management.
+ * Query methods run in read-only transactions: Hibernate skips dirty
+ * checking and snapshots, and with a replica configured they are served by
+ * the replica pool. Goals whose period has ended are served from their
+ * snapshot (see GoalSnapshotCache) instead of being recomputed from goal_day.
+ * Goal lists count the days of all listed goals in one grouped query, so the
+ * number of statements per request does not grow with the number of goals.
+ * Public methods are timed as goaltracker.service (see MetricsConfiguration).
  */
 @Service
 @Transactional
+@Timed("goaltracker.service")
 public class GoalService {
 
+    private static final Logger log = LoggerFactory.getLogger(GoalService.class);
+
     // Repository dependencies for database operations
     @Autowired
     private GoalRepository goalRepository; // Handles Goal entity operations
@@ -32,70 +54,48 @@ public class GoalService {
     @Autowired
     private UserService userService; // Handles User entity operations
 
+    @Autowired
+    private GoalSnapshotCache goalSnapshots; // Frozen progress of finished goals
+
     /**
-     * Retrieves all goals for a specific user from database with detailed logging
-     * for debugging
+     * Retrieves all goals for a specific user from database
      * This method is used for the main goals listing page
      * 
      * @param userId The ID of the user whose goals to retrieve
      * @return List of GoalDto objects representing all goals for the user
      */
+    @Transactional(readOnly = true)
     public List<GoalDto> getAllGoalsByUserId(Long userId) {
         // Fetch all goals for the user ordered by creation date (newest first)
         List<Goal> goals = goalRepository.findAllByUserIdOrderByCreatedAtDesc(userId);
 
-        // Debug logging to track goal retrieval
-        System.out.println("=== GOAL RETRIEVAL DEBUG ===");
-        System.out.println("Found " + goals.size() + " goals in database for user " + userId);
+        log.debug("Found {} goals for user {}", goals.size(), userId);
 
         // Convert Goal entities to GoalDto objects for frontend consumption
-        List<GoalDto> goalDtos = goals.stream()
-                .map(this::convertToDto) // Use convertToDto method for each goal
-                .collect(Collectors.toList());
+        List<GoalDto> goalDtos = convertAll(goals, this::convertToDto);
 
-        // Log each goal's details for debugging purposes
-        for (int i = 0; i < goals.size(); i++) {
-            Goal goal = goals.get(i);
-            GoalDto dto = goalDtos.get(i);
-            System.out.println("Goal " + (i + 1) + ":");
-            System.out.println("  - Entity ID: " + goal.getId());
-            System.out.println("  - DTO ID: " + dto.getId());
-            System.out.println("  - Title: " + goal.getTitle());
-        }
-        System.out.println("=== END GOAL RETRIEVAL DEBUG ===");
+        logGoals(goalDtos);
 
         return goalDtos;
     }
 
     /**
-     * Retrieves all goals from database with detailed logging for debugging
+     * Retrieves all goals from database
      * This method is used for the main goals listing page (legacy method)
      * 
      * @return List of GoalDto objects representing all goals
      */
+    @Transactional(readOnly = true)
     public List<GoalDto> getAllGoals() {
         // Fetch all goals ordered by creation date (newest first)
         List<Goal> goals = goalRepository.findAllOrderByCreatedAtDesc();
 
-        // Debug logging to track goal retrieval
-        System.out.println("=== GOAL RETRIEVAL DEBUG ===");
-        System.out.println("Found " + goals.size() + " goals in database");
+        log.debug("Found {} goals", goals.size());
 
         // Convert Goal entities to GoalDto objects for frontend consumption
-        List<GoalDto> goalDtos = goals.stream()
-                .map(this::convertToDto) // Use convertToDto method for each goal
-                .collect(Collectors.toList());
+        List<GoalDto> goalDtos = convertAll(goals, this::convertToDto);
 
-        // Log each goal's details for debugging purposes
-        for (int i = 0; i < goals.size(); i++) {
-            Goal goal = goals.get(i);
-            GoalDto dto = goalDtos.get(i);
-            System.out.println("Goal " + (i + 1) + ":");
-            System.out.println("  - Entity ID: " + goal.getId());
-            System.out.println("  - DTO ID: " + dto.getId());
-            System.out.println("  - Title: " + goal.getTitle());
-        }
-        System.out.println("=== END GOAL RETRIEVAL DEBUG ===");
+        logGoals(goalDtos);
 
         return goalDtos;
     }
@@ -107,10 +107,10 @@ public class GoalService {
      * 
      * @return List of GoalDto objects for in-progress goals only
      */
+    @Transactional(readOnly = true)
     public List<GoalDto> getWorkingGoals() {
-        return goalRepository.findAllOrderByCreatedAtDesc()
+        return convertAll(goalRepository.findAllOrderByCreatedAtDesc(), this::convertToDtoUsingCounts)
                 .stream()
-                .map(this::convertToDtoUsingCounts) // Use counts-based conversion for accurate progress
                 .filter(dto -> dto.getCompletedDays() < dto.getTotalDays()) // Filter for incomplete goals
                 .collect(Collectors.toList());
     }
@@ -123,10 +123,10 @@ public class GoalService {
      * 
      * @return List of GoalDto objects for completed goals only
      */
+    @Transactional(readOnly = true)
     public List<GoalDto> getCompletedGoals() {
-        return goalRepository.findAllOrderByCreatedAtDesc()
+        return convertAll(goalRepository.findAllOrderByCreatedAtDesc(), this::convertToDtoUsingCounts)
                 .stream()
-                .map(this::convertToDtoUsingCounts) // Use counts-based conversion for accurate progress
                 .filter(dto -> dto.getTotalDays() > 0 && dto.getCompletedDays() == dto.getTotalDays()) // Filter for
                                                                                                        // completed
                                                                                                        // goals
@@ -141,10 +141,10 @@ public class GoalService {
      * @param userId The ID of the user whose goals to retrieve
      * @return List of GoalDto objects for in-progress goals only
      */
+    @Transactional(readOnly = true)
     public List<GoalDto> getWorkingGoalsByUserId(Long userId) {
-        return goalRepository.findAllByUserIdOrderByCreatedAtDesc(userId)
+        return convertAll(goalRepository.findAllByUserIdOrderByCreatedAtDesc(userId), this::convertToDtoUsingCounts)
                 .stream()
-                .map(this::convertToDtoUsingCounts) // Use counts-based conversion for accurate progress
                 .filter(dto -> dto.getCompletedDays() < dto.getTotalDays()) // Filter for incomplete goals
                 .collect(Collectors.toList());
     }
@@ -158,10 +158,10 @@ public class GoalService {
      * @param userId The ID of the user whose goals to retrieve
      * @return List of GoalDto objects for completed goals only
      */
+    @Transactional(readOnly = true)
     public List<GoalDto> getCompletedGoalsByUserId(Long userId) {
-        return goalRepository.findAllByUserIdOrderByCreatedAtDesc(userId)
+        return convertAll(goalRepository.findAllByUserIdOrderByCreatedAtDesc(userId), this::convertToDtoUsingCounts)
                 .stream()
-                .map(this::convertToDtoUsingCounts) // Use counts-based conversion for accurate progress
                 .filter(dto -> dto.getTotalDays() > 0 && dto.getCompletedDays() == dto.getTotalDays()) // Filter for
                                                                                                        // completed
                                                                                                        // goals
@@ -176,10 +176,27 @@ public class GoalService {
      * @return GoalDto object representing the goal
      * @throws RuntimeException if goal is not found
      */
+    @Transactional(readOnly = true)
     public GoalDto getGoalById(Long id) {
         Goal goal = goalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Goal not found with id: " + id));
-        return convertToDto(goal);
+        return fromSnapshotOr(goal, this::convertToDto);
+    }
+
+    /**
+     * Checks whether a goal belongs to a user
+     * Used by the JSON API before it reads or changes a goal; the goal usually
+     * comes from the second-level cache, so this rarely costs a query.
+     * 
+     * @param goalId The unique identifier of the goal
+     * @param userId The ID of the user making the request
+     * @return true if the goal exists and is owned by the user
+     */
+    @Transactional(readOnly = true)
+    public boolean isOwnedBy(Long goalId, Long userId) {
+        return goalRepository.findById(goalId)
+                .map(goal -> goal.getUser() != null && userId.equals(goal.getUser().getId()))
+                .orElse(false);
     }
 
     /**
@@ -260,8 +277,9 @@ public class GoalService {
         goal.setStartDate(goalDto.getStartDate());
         goal.setEndDate(goalDto.getEndDate());
 
-        // Save the updated goal
+        // Save the updated goal; its version changes, which also invalidates snapshots on other instances
         Goal savedGoal = goalRepository.save(goal);
+        goalSnapshots.evict(id);
 
         // If dates changed, we need to recreate all goal days
         // Delete existing days and create new ones for the new date range
@@ -278,6 +296,7 @@ public class GoalService {
      * @param id The unique identifier of the goal to delete
      */
     public void deleteGoal(Long id) {
+        goalSnapshots.evict(id);
         // First delete all associated goal days to avoid foreign key constraint issues
         goalDayRepository.deleteByGoalId(id);
         // Then delete the goal itself
@@ -310,62 +329,141 @@ public class GoalService {
             throw new RuntimeException("Only today's date can be updated");
         }
 
+        // Days outside the goal period are never tracked; this also keeps finished goals frozen
+        if (date.isBefore(goal.getStartDate()) || date.isAfter(goal.getEndDate())) {
+            throw new RuntimeException("Date is outside the goal period");
+        }
+
         // AUTOMATIC BACKFILL: Create missed day records for any past days
         // This ensures all past days are accounted for, even if user missed them
-        LocalDate prev = goal.getStartDate();
-        while (prev.isBefore(date)) {
-            var prevDayOpt = goalDayRepository.findByGoalIdAndDate(goalId, prev);
-            if (prevDayOpt.isEmpty()) {
-                // Create a missed day record (completed = false)
-                GoalDay missed = new GoalDay(goal, prev);
-                missed.setCompleted(false); // Mark as missed (will show as red X in UI)
-                goalDayRepository.save(missed);
-            }
-            prev = prev.plusDays(1);
-        }
+        // (completed = false, shown as red X in UI); days that already have a record are left alone
+        goalDayRepository.insertMissingDays(goalId, goal.getStartDate(), date.minusDays(1));
 
-        // Find or create the goal day record for today
-        GoalDay goalDay = goalDayRepository.findByGoalIdAndDate(goalId, date)
-                .orElseGet(() -> {
-                    // If no record exists for today, create one
-                    GoalDay newDay = new GoalDay(goal, date);
-                    return goalDayRepository.save(newDay);
-                });
+        // Toggle today's record in one statement, creating it as completed if it does not exist yet.
+        // The unique (goal_id, day_date) index makes concurrent toggles serialize on the same row.
+        return goalDayRepository.toggleCompleted(goalId, date);
+    }
 
-        // Toggle the completion status (true becomes false, false becomes true)
-        goalDay.setCompleted(!goalDay.isCompleted());
-        goalDayRepository.save(goalDay);
+    /**
+     * Retrieves the completion status of every day of a specific goal
+     * Used by the frontend to display calendar completion status
+     * 
+     * @param goalId The unique identifier of the goal
+     * @return List of GoalDayDto objects representing each day of the goal
+     */
+    @Transactional(readOnly = true)
+    public List<GoalDayDto> getGoalDays(Long goalId) {
+        Optional<GoalSnapshot> snapshot = goalRepository.findById(goalId).flatMap(goalSnapshots::find);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getDays();
+        }
 
-        return goalDay.isCompleted();
+        return goalDayRepository.findByGoalIdOrderByDayDate(goalId)
+                .stream()
+                .map(day -> new GoalDayDto(day.getDate(), day.isCompleted(), day.getCompletedAt()))
+                .collect(Collectors.toList());
     }
 
     /**
-     * Retrieves all day records for a specific goal
-     * Used by the frontend to display calendar completion status
+     * Retrieves the completion status of the days of a goal within a date window
+     * Used by the calendar to load one month at a time as it is scrolled into view
      * 
      * @param goalId The unique identifier of the goal
-     * @return List of GoalDay objects representing each day of the goal
+     * @param from   First day of the window (inclusive)
+     * @param to     Last day of the window (inclusive)
+     * @return List of GoalDayDto objects for the days of the goal within the window
      */
-    public List<GoalDay> getGoalDays(Long goalId) {
-        return goalDayRepository.findByGoalIdOrderByDayDate(goalId);
+    @Transactional(readOnly = true)
+    public List<GoalDayDto> getGoalDays(Long goalId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End of the date window must not be before its start");
+        }
+
+        Optional<GoalSnapshot> snapshot = goalRepository.findById(goalId).flatMap(goalSnapshots::find);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getDays().stream()
+                    .filter(day -> !day.getDate().isBefore(from) && !day.getDate().isAfter(to))
+                    .collect(Collectors.toList());
+        }
+
+        return goalDayRepository.findByGoalIdAndDateBetween(goalId, from, to)
+                .stream()
+                .map(day -> new GoalDayDto(day.getDate(), day.isCompleted(), day.getCompletedAt()))
+                .collect(Collectors.toList());
     }
 
     /**
      * Creates individual day records for the entire goal period
      * This method is called when creating or updating a goal
-     * Each day gets its own record for tracking completion status
+     * Each day gets its own record for tracking completion status; all of them
+     * are inserted with a single statement instead of one per day
      * 
      * @param goal The goal entity for which to create days
      */
     private void createGoalDays(Goal goal) {
-        LocalDate currentDate = goal.getStartDate();
-        LocalDate endDate = goal.getEndDate();
-
-        // Create a GoalDay record for each day in the goal period
-        while (!currentDate.isAfter(endDate)) {
-            GoalDay goalDay = new GoalDay(goal, currentDate);
-            goalDayRepository.save(goalDay);
-            currentDate = currentDate.plusDays(1);
+        goalDayRepository.insertMissingDays(goal.getId(), goal.getStartDate(), goal.getEndDate());
+    }
+
+    /**
+     * Converts a goal for display, using its snapshot if the goal has finished
+     * 
+     * @param goal      The Goal entity to convert
+     * @param converter Conversion used for goals that are still running
+     * @return GoalDto object with progress metrics
+     */
+    private GoalDto fromSnapshotOr(Goal goal, Function<Goal, GoalDto> converter) {
+        return goalSnapshots.find(goal)
+                .map(snapshot -> snapshot.toDto(goal))
+                .orElseGet(() -> converter.apply(goal));
+    }
+
+    /**
+     * Converts a list of goals for display
+     * Finished goals come from their snapshots, looked up for the whole list at
+     * once; the days of all other goals are counted with one grouped query,
+     * which the converter receives per goal (null for a goal without any day
+     * records).
+     * 
+     * @param goals     The Goal entities to convert, in display order
+     * @param converter Conversion used for goals that are still running
+     * @return GoalDto objects in the same order
+     */
+    private List<GoalDto> convertAll(List<Goal> goals, BiFunction<Goal, GoalDayCounts, GoalDto> converter) {
+        Map<Long, GoalSnapshot> snapshots = goalSnapshots.findAll(goals);
+        Map<Long, GoalDto> finished = new HashMap<>();
+        List<Long> running = new ArrayList<>();
+        for (Goal goal : goals) {
+            GoalSnapshot snapshot = snapshots.get(goal.getId());
+            if (snapshot != null) {
+                finished.put(goal.getId(), snapshot.toDto(goal));
+            } else {
+                running.add(goal.getId());
+            }
+        }
+
+        Map<Long, GoalDayCounts> counts = running.isEmpty() ? Map.of()
+                : goalDayRepository.countDaysByGoalIds(running).stream()
+                        .collect(Collectors.toMap(GoalDayCounts::getGoalId, Function.identity()));
+
+        return goals.stream()
+                .map(goal -> finished.containsKey(goal.getId()) ? finished.get(goal.getId())
+                        : converter.apply(goal, counts.get(goal.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Logs one line per listed goal at TRACE level
+     * The level is checked first, so listing goals allocates nothing for logging otherwise.
+     *
+     * @param goals The goals being returned
+     */
+    private void logGoals(List<GoalDto> goals) {
+        if (!log.isTraceEnabled()) {
+            return;
+        }
+        for (GoalDto goal : goals) {
+            log.trace("Goal id={} title=\"{}\" progress={}/{}", goal.getId(), goal.getTitle(),
+                    goal.getCompletedDays(), goal.getTotalDays());
         }
     }
 
@@ -378,59 +476,77 @@ public class GoalService {
      * @return GoalDto object with calculated progress
      */
     private GoalDto convertToDto(Goal goal) {
-        // Debug logging to track conversion process
-        System.out.println("=== CONVERT TO DTO DEBUG ===");
-        System.out.println("Converting Goal Entity to DTO:");
-        System.out.println("  - Goal Entity ID: " + goal.getId());
-        System.out.println("  - Goal Entity ID type: "
-                + (goal.getId() != null ? goal.getId().getClass().getSimpleName() : "null"));
+        return convertToDto(goal, goal.getCompletedDays());
+    }
+
+    /**
+     * Converts a listed Goal entity to GoalDto using its counted days
+     * Progress is calculated like the entity methods do, over the whole goal period
+     * 
+     * @param goal   The Goal entity to convert
+     * @param counts Day counts of the goal, or null if it has no day records
+     * @return GoalDto object with calculated progress
+     */
+    private GoalDto convertToDto(Goal goal, GoalDayCounts counts) {
+        return convertToDto(goal, counts != null ? counts.getCompletedDays() : 0);
+    }
 
+    /**
+     * Builds the GoalDto of a goal with a known number of completed days
+     * 
+     * @param goal          The Goal entity to convert
+     * @param completedDays Number of completed days of the goal
+     * @return GoalDto object with calculated progress
+     */
+    private GoalDto convertToDto(Goal goal, long completedDays) {
         // Create new DTO and populate with entity data
         GoalDto dto = new GoalDto();
         dto.setId(goal.getId());
+        dto.setVersion(goal.getVersion());
         dto.setTitle(goal.getTitle());
         dto.setDescription(goal.getDescription());
         dto.setStartDate(goal.getStartDate());
         dto.setEndDate(goal.getEndDate());
 
-        // Calculate progress metrics using entity methods
-        dto.setTotalDays(goal.getTotalDays());
-        dto.setCompletedDays(goal.getCompletedDays());
-        dto.setRemainingDays(goal.getTotalDays() - goal.getCompletedDays());
-        dto.setProgressPercentage(goal.getProgressPercentage());
-        dto.setCompleted(goal.isCompleted());
-
-        // Debug logging for verification
-        System.out.println("  - DTO ID after setting: " + dto.getId());
-        System.out
-                .println("  - DTO ID type: " + (dto.getId() != null ? dto.getId().getClass().getSimpleName() : "null"));
-        System.out.println("  - DTO Title: " + dto.getTitle());
-        System.out.println("=== END CONVERT TO DTO DEBUG ===");
+        // Calculate progress metrics the same way as the entity methods
+        long total = goal.getTotalDays();
+        dto.setTotalDays(total);
+        dto.setCompletedDays(completedDays);
+        dto.setRemainingDays(total - completedDays);
+        dto.setProgressPercentage(total == 0 ? 0.0 : (double) completedDays / total * 100.0);
+        dto.setCompleted(total > 0 && completedDays == total);
+
+        if (log.isTraceEnabled()) {
+            log.trace("Converted goal {} ({} of {} days completed)", dto.getId(), dto.getCompletedDays(),
+                    dto.getTotalDays());
+        }
 
         return dto;
     }
 
     /**
      * Converts a Goal entity to GoalDto using database counts
-     * This method uses direct database queries for more accurate progress
-     * calculation
+     * Progress is based on the day records that actually exist rather than the
+     * goal period
      * Used for goal listing operations where we need precise counts
      * 
-     * @param goal The Goal entity to convert
+     * @param goal   The Goal entity to convert
+     * @param counts Day counts of the goal from the grouped query, or null if it has no day records
      * @return GoalDto object with database-calculated progress
      */
-    private GoalDto convertToDtoUsingCounts(Goal goal) {
+    private GoalDto convertToDtoUsingCounts(Goal goal, GoalDayCounts counts) {
         // Create new DTO and populate with entity data
         GoalDto dto = new GoalDto();
         dto.setId(goal.getId());
+        dto.setVersion(goal.getVersion());
         dto.setTitle(goal.getTitle());
         dto.setDescription(goal.getDescription());
         dto.setStartDate(goal.getStartDate());
         dto.setEndDate(goal.getEndDate());
 
-        // Use direct database queries for accurate counts
-        long total = goalDayRepository.countTotalDaysByGoalId(goal.getId());
-        long completed = goalDayRepository.countCompletedDaysByGoalId(goal.getId());
+        // Counts come from the grouped query over all listed goals
+        long total = counts != null ? counts.getTotalDays() : 0;
+        long completed = counts != null ? counts.getCompletedDays() : 0;
 
         // Set calculated progress metrics
         dto.setTotalDays(total);
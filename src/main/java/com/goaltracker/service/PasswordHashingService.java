@@ -0,0 +1,223 @@
+package com.goaltracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordHashingService - Runs BCrypt on a dedicated, bounded executor
+ * BCrypt is deliberately slow, so hashing on request threads lets a burst of
+ * logins starve every other endpoint. Here at most {@code threads} hashes run
+ * at once and at most {@code queue-capacity} wait; anything beyond that is
+ * rejected immediately with {@link TooManyRequestsException} (HTTP 429)
+ * instead of piling up request threads.
+ *
+ * The BCrypt cost is calibrated at startup to the strongest value whose hash
+ * time fits {@code goaltracker.password-hashing.bcrypt.latency-budget} on
+ * this host (see {@link BCryptCostCalibrator}). Calibration only ever raises
+ * {@code spring.security.crypto.bcrypt.strength}; with calibration disabled
+ * that strength is used as is.
+ *
+ * Metrics: goaltracker.password.hash (timer, by operation),
+ * goaltracker.password.hash.queue.depth, goaltracker.password.hash.active,
+ * goaltracker.password.hash.rejected and goaltracker.password.hash.cost.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final int cost;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingService(@Value("${goaltracker.password-hashing.threads:0}") int threads,
+            @Value("${goaltracker.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${goaltracker.password-hashing.timeout:10s}") Duration timeout,
+            @Value("${goaltracker.password-hashing.bcrypt.calibrate:true}") boolean calibrate,
+            @Value("${goaltracker.password-hashing.bcrypt.latency-budget:150ms}") Duration latencyBudget,
+            @Value("${goaltracker.password-hashing.bcrypt.min-cost:10}") int minCost,
+            @Value("${goaltracker.password-hashing.bcrypt.max-cost:16}") int maxCost,
+            @Value("${spring.security.crypto.bcrypt.strength:10}") int configuredStrength,
+            MeterRegistry meterRegistry) {
+        this(threads, queueCapacity, timeout,
+                resolveCost(calibrate, latencyBudget, minCost, maxCost, configuredStrength), meterRegistry);
+    }
+
+    /**
+     * Creates the service with a fixed BCrypt cost
+     *
+     * @param threads       Number of hashing threads, 0 for one per CPU
+     * @param queueCapacity Number of hashes allowed to wait for a thread
+     * @param timeout       Maximum time a caller waits for its hash
+     * @param cost          BCrypt cost factor for new hashes
+     * @param meterRegistry Registry for the hashing metrics
+     */
+    public PasswordHashingService(int threads, int queueCapacity, Duration timeout, int cost,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.cost = cost;
+        this.passwordEncoder = new BCryptPasswordEncoder(cost);
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("goaltracker.password.hash")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("goaltracker.password.hash")
+                .tag("operation", "match")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("goaltracker.password.hash.rejected")
+                .register(meterRegistry);
+        Gauge.builder("goaltracker.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("goaltracker.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("goaltracker.password.hash.cost", () -> this.cost)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a plain text password
+     *
+     * @param rawPassword The password to hash
+     * @return The BCrypt hash
+     * @throws TooManyRequestsException if the hashing executor is saturated
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+    }
+
+    /**
+     * Checks a plain text password against a stored hash
+     *
+     * @param rawPassword     The password to check
+     * @param encodedPassword The stored BCrypt hash
+     * @return true if the password matches
+     * @throws TooManyRequestsException if the hashing executor is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchTimer);
+    }
+
+    /**
+     * Checks whether a stored hash was created with a lower cost than the current one
+     * Such hashes are replaced transparently on the next successful login.
+     * Stronger hashes are kept, so a host that calibrates lower never weakens
+     * passwords hashed elsewhere.
+     *
+     * @param encodedPassword The stored BCrypt hash
+     * @return true if the hash should be recomputed
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return BCryptCostCalibrator.costOf(encodedPassword) < cost;
+    }
+
+    /**
+     * BCrypt cost factor used for new hashes
+     *
+     * @return The cost factor
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Number of hash operations waiting for a worker thread
+     *
+     * @return The current queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static int resolveCost(boolean calibrate, Duration latencyBudget, int minCost, int maxCost,
+            int configuredStrength) {
+        if (!calibrate) {
+            log.info("BCrypt cost fixed at {}", configuredStrength);
+            return configuredStrength;
+        }
+        // The configured strength is a floor: calibration may raise it, never lower it
+        int floor = Math.max(minCost, configuredStrength);
+        long start = System.nanoTime();
+        int calibrated = BCryptCostCalibrator.calibrate(latencyBudget, floor, Math.max(floor, maxCost));
+        log.info("BCrypt cost calibrated to {} for a {} ms budget, floor {} (calibration took {} ms)", calibrated,
+                latencyBudget.toMillis(), floor, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return calibrated;
+    }
+
+    private <T> T execute(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry shortly",
+                    RETRY_AFTER);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Password check timed out, please retry shortly", RETRY_AFTER);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
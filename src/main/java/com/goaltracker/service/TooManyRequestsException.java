@@ -0,0 +1,27 @@
+package com.goaltracker.service;
+
+import java.time.Duration;
+
+/**
+ * TooManyRequestsException - Signals that a request was shed to protect the server
+ * Thrown when a rate limit is exceeded or a bounded work queue is full.
+ * Translated into an HTTP 429 response with a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Suggested time the client should wait before retrying
+     *
+     * @return The retry delay
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
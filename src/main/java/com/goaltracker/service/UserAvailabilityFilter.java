@@ -0,0 +1,189 @@
+package com.goaltracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserAvailabilityFilter - In-memory Bloom filter of taken usernames and emails
+ * Lets {@link UserService} answer "this name is free" without a query. The
+ * filter only gives definite answers for values that are NOT taken; a
+ * possible match is still checked against the users table.
+ *
+ * The filter is loaded by streaming the users table once the application is
+ * ready and rebuilt periodically, so rows written by other instances and
+ * deleted accounts are picked up. Until the first load completes every check
+ * goes to the database. Registrations on this instance are added as soon as
+ * they are saved; the unique constraints on users remain the final guard.
+ *
+ * With several instances, a name registered on another one is only known
+ * here after the next rebuild ({@code goaltracker.user-filter.rebuild-interval}),
+ * and until then it is reported as free. That only affects the live checks
+ * on the registration form: registering it still fails on the constraint
+ * and is answered with "Username already exists" or "Email already exists".
+ */
+@Component
+public class UserAvailabilityFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long minExpectedUsers;
+    private final double falsePositiveRate;
+    private final Counter definiteCounter;
+    private final Counter maybeCounter;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter rebuilding;
+
+    @Autowired
+    public UserAvailabilityFilter(DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${goaltracker.user-filter.expected-users:100000}") long minExpectedUsers,
+            @Value("${goaltracker.user-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minExpectedUsers = minExpectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.definiteCounter = Counter.builder("goaltracker.user.availability.filter")
+                .tag("result", "definitely-free")
+                .register(meterRegistry);
+        this.maybeCounter = Counter.builder("goaltracker.user.availability.filter")
+                .tag("result", "maybe-taken")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether the username is definitely not taken
+     *
+     * @param username The username to check
+     * @return true if no user has this username; false means "ask the database"
+     */
+    public boolean isDefinitelyFreeUsername(String username) {
+        return isDefinitelyFree(usernameKey(username));
+    }
+
+    /**
+     * Checks whether the email is definitely not taken
+     *
+     * @param email The email to check
+     * @return true if no user has this email; false means "ask the database"
+     */
+    public boolean isDefinitelyFreeEmail(String email) {
+        return isDefinitelyFree(emailKey(email));
+    }
+
+    /**
+     * Records a newly saved user
+     *
+     * @param username The username of the saved user
+     * @param email    The email of the saved user
+     */
+    public void add(String username, String email) {
+        put(current, username, email);
+        // A rebuild in progress may have streamed past this row already
+        put(rebuilding, username, email);
+    }
+
+    /**
+     * Whether the first load from the database has completed
+     *
+     * @return true once definite answers can be given
+     */
+    public boolean isLoaded() {
+        return current != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the filter from the users table and swaps it in
+     */
+    @Scheduled(fixedDelayString = "${goaltracker.user-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${goaltracker.user-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Long userCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            // Leave headroom for growth until the next rebuild
+            long expected = Math.max(minExpectedUsers, (userCount == null ? 0 : userCount) * 2);
+            BloomFilter fresh = new BloomFilter(expected, falsePositiveRate);
+            rebuilding = fresh;
+
+            AtomicLong loaded = new AtomicLong();
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    "SELECT username, email FROM users",
+                    rs -> {
+                        put(fresh, rs.getString(1), rs.getString(2));
+                        loaded.incrementAndGet();
+                    }));
+
+            current = fresh;
+            log.info("Loaded {} users into the availability filter ({} KiB) in {} ms", loaded.get(),
+                    fresh.bitSize() / 8 / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Keep serving from the previous filter (or the database) rather than failing
+            log.warn("Could not rebuild the user availability filter: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private boolean isDefinitelyFree(String key) {
+        BloomFilter filter = current;
+        if (filter == null || key == null) {
+            return false;
+        }
+        if (filter.mightContain(key)) {
+            maybeCounter.increment();
+            return false;
+        }
+        definiteCounter.increment();
+        return true;
+    }
+
+    private static void put(BloomFilter filter, String username, String email) {
+        if (filter == null) {
+            return;
+        }
+        if (username != null) {
+            filter.put(usernameKey(username));
+        }
+        if (email != null) {
+            filter.put(emailKey(email));
+        }
+    }
+
+    /*
+     * Keys are normalized (trimmed, lower-cased) so near-duplicates land on the
+     * same bits. That can only add false positives, which the database resolves.
+     */
+    private static String usernameKey(String username) {
+        return username == null ? null : "u:" + username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? null : "e:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,11 +1,14 @@
 package com.goaltracker.service;
 
 import com.goaltracker.dto.UserDto;
+import com.goaltracker.dto.UserStatsDto;
 import com.goaltracker.entity.User;
 import com.goaltracker.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -14,28 +17,40 @@ import java.util.Optional;
  * UserService - Business logic layer for user management
  * This service handles user registration, authentication, and data validation.
  * It includes password encryption and user data conversion between entities and DTOs.
+ * Public methods are timed as goaltracker.service (see MetricsConfiguration).
  */
 @Service
 @Transactional
+@Timed("goaltracker.service")
 public class UserService {
     
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserAvailabilityFilter availabilityFilter;
     
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+            UserAvailabilityFilter availabilityFilter) {
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHashingService = passwordHashingService;
+        this.availabilityFilter = availabilityFilter;
     }
     
     /**
      * Registers a new user in the system
      * Validates user data, checks for duplicates, and encrypts password
+     * Runs without a surrounding transaction so that no database connection
+     * is held while BCrypt is hashing; each repository call is transactional
+     * on its own and the unique constraints catch concurrent duplicates.
+     * Duplicate checks consult the availability filter first and only query
+     * the database when the name or email might be taken.
      * 
      * @param userDto The user data from registration form
      * @return The created user DTO without password
      * @throws RuntimeException if validation fails or user already exists
+     * @throws TooManyRequestsException if password hashing is saturated
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto registerUser(UserDto userDto) {
         // Validate password confirmation
         if (!userDto.isPasswordMatching()) {
@@ -43,12 +58,12 @@ public class UserService {
         }
         
         // Check if username already exists
-        if (userRepository.existsByUsername(userDto.getUsername())) {
+        if (!isUsernameAvailable(userDto.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
         
         // Check if email already exists
-        if (userRepository.existsByEmail(userDto.getEmail())) {
+        if (!isEmailAvailable(userDto.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
         
@@ -56,10 +71,23 @@ public class UserService {
         User user = new User();
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
-        user.setPassword(passwordEncoder.encode(userDto.getPassword()));
+        user.setPassword(passwordHashingService.encode(userDto.getPassword()));
         
-        // Save user to database
-        User savedUser = userRepository.save(user);
+        // Save user to database; the unique constraints reject concurrent duplicates
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.existsByUsername(userDto.getUsername())) {
+                throw new RuntimeException("Username already exists");
+            }
+            if (userRepository.existsByEmail(userDto.getEmail())) {
+                throw new RuntimeException("Email already exists");
+            }
+            // Not a duplicate (e.g. a value too long for its column); don't hide it
+            throw e;
+        }
+        availabilityFilter.add(savedUser.getUsername(), savedUser.getEmail());
         
         // Convert to DTO and return (without password)
         return convertToDto(savedUser);
@@ -68,17 +96,23 @@ public class UserService {
     /**
      * Authenticates a user with username and password
      * Used for login functionality
+     * Like registration, runs outside a transaction so the password check
+     * does not pin a pooled connection. Hashes created with a lower BCrypt
+     * cost than the current one are replaced on successful login.
      * 
      * @param username The username to authenticate
      * @param password The plain text password
      * @return Optional containing user DTO if authentication succeeds
+     * @throws TooManyRequestsException if password hashing is saturated
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<UserDto> authenticateUser(String username, String password) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (passwordHashingService.matches(password, user.getPassword())) {
+                rehashIfCostChanged(user, password);
                 return Optional.of(convertToDto(user));
             }
         }
@@ -86,6 +120,25 @@ public class UserService {
         return Optional.empty();
     }
     
+    /**
+     * Re-hashes a verified password when its stored cost is lower than the current one
+     * Skipped (and retried on a later login) if the hashing executor is saturated.
+     * 
+     * @param user     The authenticated user
+     * @param password The verified plain text password
+     */
+    private void rehashIfCostChanged(User user, String password) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHashingService.encode(password));
+            userRepository.save(user);
+        } catch (TooManyRequestsException e) {
+            // The login itself succeeded; upgrading the hash can wait
+        }
+    }
+    
     /**
      * Finds a user by their ID
      * Returns user data without sensitive information
@@ -93,11 +146,25 @@ public class UserService {
      * @param userId The ID of the user to find
      * @return Optional containing user DTO if found
      */
+    @Transactional(readOnly = true)
     public Optional<UserDto> getUserById(Long userId) {
         return userRepository.findById(userId)
                 .map(this::convertToDto);
     }
     
+    /**
+     * Computes goal statistics for the profile page
+     * Uses a single aggregate query, so the cost does not grow with the
+     * number of goals or tracked days.
+     * 
+     * @param userId The ID of the user
+     * @return Aggregated goal statistics
+     */
+    @Transactional(readOnly = true)
+    public UserStatsDto getUserStats(Long userId) {
+        return userRepository.getStatsByUserId(userId);
+    }
+    
     /**
      * Finds a user by their username
      * Returns user data without sensitive information
@@ -105,6 +172,7 @@ public class UserService {
      * @param username The username to search for
      * @return Optional containing user DTO if found
      */
+    @Transactional(readOnly = true)
     public Optional<UserDto> getUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .map(this::convertToDto);
@@ -117,6 +185,7 @@ public class UserService {
      * @param userId The ID of the user to find
      * @return Optional containing user entity if found
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserEntityById(Long userId) {
         return userRepository.findById(userId);
     }
@@ -128,28 +197,39 @@ public class UserService {
      * @param username The username to search for
      * @return Optional containing user entity if found
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserEntityByUsername(String username) {
         return userRepository.findByUsername(username);
     }
     
     /**
      * Checks if a username is available for registration
+     * Answered from the availability filter when the name is definitely
+     * free; only possible matches are looked up in the database. Runs
+     * outside a transaction so a filter hit never borrows a connection.
      * 
      * @param username The username to check
      * @return true if username is available, false if already taken
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean isUsernameAvailable(String username) {
-        return !userRepository.existsByUsername(username);
+        return availabilityFilter.isDefinitelyFreeUsername(username)
+                || !userRepository.existsByUsername(username);
     }
     
     /**
      * Checks if an email is available for registration
+     * Answered from the availability filter when the email is definitely
+     * free; only possible matches are looked up in the database. Runs
+     * outside a transaction so a filter hit never borrows a connection.
      * 
      * @param email The email to check
      * @return true if email is available, false if already taken
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean isEmailAvailable(String email) {
-        return !userRepository.existsByEmail(email);
+        return availabilityFilter.isDefinitelyFreeEmail(email)
+                || !userRepository.existsByEmail(email);
     }
     
     /**
@@ -179,7 +259,7 @@ public class UserService {
         User user = new User();
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
-        user.setPassword(passwordEncoder.encode(userDto.getPassword()));
+        user.setPassword(passwordHashingService.encode(userDto.getPassword()));
         return user;
     }
 }
@@ -0,0 +1,100 @@
+package com.goaltracker.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CachingSessionStore - Local read-through cache in front of a shared store
+ * Recently seen sessions are answered from memory for a short time-to-live,
+ * so most requests never reach the database. Writes go straight through.
+ *
+ * A logout on another node becomes visible here after at most one TTL, which
+ * is why the TTL should stay in the range of seconds.
+ */
+public class CachingSessionStore implements SessionStore {
+
+    private final SessionStore delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentMap<String, CachedRecord> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate   The shared store to read through to
+     * @param ttl        How long a cached record may be served without re-reading
+     * @param maxEntries Upper bound on the number of cached sessions
+     */
+    public CachingSessionStore(SessionStore delegate, Duration ttl, int maxEntries) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Optional<SessionRecord> find(String sessionId) {
+        long now = System.nanoTime();
+        CachedRecord cached = cache.get(sessionId);
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return Optional.of(cached.record);
+        }
+
+        // Miss or stale entry: read through and remember the result
+        Optional<SessionRecord> loaded = delegate.find(sessionId);
+        if (loaded.isPresent()) {
+            put(sessionId, loaded.get(), now);
+        } else {
+            cache.remove(sessionId);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void save(String sessionId, SessionRecord record) {
+        delegate.save(sessionId, record);
+        put(sessionId, record, System.nanoTime());
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        cache.remove(sessionId);
+        delegate.delete(sessionId);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        cache.values().removeIf(cached -> cached.record.isExpired(now));
+        return delegate.deleteExpired(now);
+    }
+
+    /**
+     * Number of sessions currently held in the local cache
+     *
+     * @return The cache size
+     */
+    public int cachedSessionCount() {
+        return cache.size();
+    }
+
+    private void put(String sessionId, SessionRecord record, long loadedAt) {
+        if (cache.size() >= maxEntries && !cache.containsKey(sessionId)) {
+            // Drop stale entries first; if that is not enough, start over with an empty cache
+            cache.values().removeIf(cached -> loadedAt - cached.loadedAt >= ttlNanos);
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(sessionId, new CachedRecord(record, loadedAt));
+    }
+
+    private static final class CachedRecord {
+        private final SessionRecord record;
+        private final long loadedAt;
+
+        private CachedRecord(SessionRecord record, long loadedAt) {
+            this.record = record;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
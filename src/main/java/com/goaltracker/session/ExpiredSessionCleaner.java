@@ -0,0 +1,30 @@
+package com.goaltracker.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+
+/**
+ * ExpiredSessionCleaner - Periodically removes expired sessions from the store
+ * Expired records are already ignored on lookup; this only keeps the table small.
+ */
+public class ExpiredSessionCleaner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredSessionCleaner.class);
+
+    private final SessionStore sessionStore;
+
+    public ExpiredSessionCleaner(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    @Scheduled(fixedDelayString = "${goaltracker.session.cleanup-interval:PT5M}")
+    public void purgeExpiredSessions() {
+        int removed = sessionStore.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.debug("Removed {} expired sessions", removed);
+        }
+    }
+}
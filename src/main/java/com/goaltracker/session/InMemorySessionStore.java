@@ -0,0 +1,39 @@
+package com.goaltracker.session;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * InMemorySessionStore - Single-node session store
+ * Keeps encoded session records in a concurrent map. Useful for development
+ * and tests; sessions are lost on restart and are not shared between nodes.
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    private final ConcurrentMap<String, byte[]> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<SessionRecord> find(String sessionId) {
+        byte[] payload = sessions.get(sessionId);
+        return payload == null ? Optional.empty() : Optional.of(SessionRecord.decode(payload));
+    }
+
+    @Override
+    public void save(String sessionId, SessionRecord record) {
+        sessions.put(sessionId, record.encode());
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        int before = sessions.size();
+        sessions.values().removeIf(payload -> SessionRecord.decode(payload).isExpired(now));
+        return before - sessions.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.goaltracker.session;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JdbcSessionStore - Session store backed by a shared database table
+ * Every node reads and writes the same user_session table, so requests can be
+ * routed round-robin. Each row holds the compact binary form of a
+ * {@link SessionRecord} plus the expiry time as a plain column for cleanup.
+ * The table is created by the V6 Flyway migration.
+ */
+public class JdbcSessionStore implements SessionStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSessionStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<SessionRecord> find(String sessionId) {
+        List<byte[]> rows = jdbcTemplate.query(
+                "SELECT payload FROM user_session WHERE session_id = ?",
+                (rs, rowNum) -> rs.getBytes(1),
+                sessionId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(SessionRecord.decode(rows.get(0)));
+    }
+
+    @Override
+    public void save(String sessionId, SessionRecord record) {
+        byte[] payload = record.encode();
+
+        // Update first; session ids are random so a concurrent insert of the same id cannot happen
+        int updated = jdbcTemplate.update(
+                "UPDATE user_session SET payload = ?, expires_at = ? WHERE session_id = ?",
+                payload, record.getExpiresAt(), sessionId);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO user_session (session_id, payload, expires_at) VALUES (?, ?, ?)",
+                    sessionId, payload, record.getExpiresAt());
+        }
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        jdbcTemplate.update("DELETE FROM user_session WHERE session_id = ?", sessionId);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM user_session WHERE expires_at <= ?", now.getEpochSecond());
+    }
+}
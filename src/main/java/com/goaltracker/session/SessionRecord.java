@@ -0,0 +1,107 @@
+package com.goaltracker.session;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * SessionRecord - The externally stored state of a logged-in browser session
+ * Only the user id and the session lifetime are kept; everything else about the
+ * user (username, email, ...) is rehydrated from the database on demand.
+ * Records are immutable and have a fixed 25 byte binary form.
+ */
+public final class SessionRecord {
+
+    // Format marker written as the first byte, bumped if the layout ever changes
+    private static final byte FORMAT_VERSION = 1;
+
+    // 1 version byte + userId + createdAt + expiresAt
+    static final int ENCODED_LENGTH = 1 + Long.BYTES * 3;
+
+    private final long userId;
+    private final long createdAt;
+    private final long expiresAt;
+
+    /**
+     * Creates a new session record
+     *
+     * @param userId    The ID of the authenticated user
+     * @param createdAt Creation time in epoch seconds
+     * @param expiresAt Expiry time in epoch seconds
+     */
+    public SessionRecord(long userId, long createdAt, long expiresAt) {
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Checks whether this record is no longer valid at the given time
+     *
+     * @param now The time to compare against
+     * @return true if the session has expired
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt <= now.getEpochSecond();
+    }
+
+    /**
+     * Returns a copy of this record with a new expiry time
+     * Used for sliding expiration of active sessions
+     *
+     * @param newExpiresAt New expiry time in epoch seconds
+     * @return The renewed record
+     */
+    public SessionRecord renew(long newExpiresAt) {
+        return new SessionRecord(userId, createdAt, newExpiresAt);
+    }
+
+    /**
+     * Serializes this record into its compact binary form
+     *
+     * @return The encoded bytes
+     */
+    public byte[] encode() {
+        return ByteBuffer.allocate(ENCODED_LENGTH)
+                .put(FORMAT_VERSION)
+                .putLong(userId)
+                .putLong(createdAt)
+                .putLong(expiresAt)
+                .array();
+    }
+
+    /**
+     * Deserializes a record previously produced by {@link #encode()}
+     *
+     * @param bytes The encoded bytes
+     * @return The decoded record
+     * @throws IllegalArgumentException if the bytes are not a valid record
+     */
+    public static SessionRecord decode(byte[] bytes) {
+        if (bytes == null || bytes.length != ENCODED_LENGTH || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported session record format");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, ENCODED_LENGTH - 1);
+        return new SessionRecord(buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    @Override
+    public String toString() {
+        return "SessionRecord{" +
+                "userId=" + userId +
+                ", createdAt=" + createdAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
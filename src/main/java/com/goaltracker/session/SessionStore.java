@@ -0,0 +1,43 @@
+package com.goaltracker.session;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * SessionStore - Pluggable storage for logged-in sessions
+ * Implementations keep session records outside the servlet container so that
+ * any application node can serve any request without sticky sessions.
+ */
+public interface SessionStore {
+
+    /**
+     * Looks up a session by its identifier
+     *
+     * @param sessionId The opaque session identifier from the session cookie
+     * @return Optional containing the record if one is stored
+     */
+    Optional<SessionRecord> find(String sessionId);
+
+    /**
+     * Creates or replaces a session
+     *
+     * @param sessionId The opaque session identifier
+     * @param record    The record to store
+     */
+    void save(String sessionId, SessionRecord record);
+
+    /**
+     * Removes a session, e.g. on logout
+     *
+     * @param sessionId The opaque session identifier
+     */
+    void delete(String sessionId);
+
+    /**
+     * Removes all sessions that expired before the given time
+     *
+     * @param now The current time
+     * @return Number of sessions removed
+     */
+    int deleteExpired(Instant now);
+}
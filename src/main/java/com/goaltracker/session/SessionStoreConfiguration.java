@@ -0,0 +1,60 @@
+package com.goaltracker.session;
+
+import com.goaltracker.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * SessionStoreConfiguration - Wires the externalized session store
+ * Active only when {@code goaltracker.session.store} is set:
+ * <ul>
+ * <li>{@code memory} - single-node in-memory store (development)</li>
+ * <li>{@code jdbc} - shared database table with a local read-through cache</li>
+ * </ul>
+ * Without the property the application keeps using ordinary servlet sessions.
+ */
+@Configuration
+@ConditionalOnProperty(name = "goaltracker.session.store")
+public class SessionStoreConfiguration {
+
+    @Bean
+    public SessionStore sessionStore(@Value("${goaltracker.session.store}") String type,
+            @Value("${goaltracker.session.cache.ttl:30s}") Duration cacheTtl,
+            @Value("${goaltracker.session.cache.max-entries:10000}") int cacheMaxEntries,
+            JdbcTemplate jdbcTemplate) {
+        switch (type) {
+            case "memory":
+                return new InMemorySessionStore();
+            case "jdbc":
+                return new CachingSessionStore(new JdbcSessionStore(jdbcTemplate), cacheTtl, cacheMaxEntries);
+            default:
+                throw new IllegalStateException("Unknown goaltracker.session.store: " + type);
+        }
+    }
+
+    @Bean
+    public ExpiredSessionCleaner expiredSessionCleaner(SessionStore sessionStore) {
+        return new ExpiredSessionCleaner(sessionStore);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StoreBackedSessionFilter> storeBackedSessionFilter(SessionStore sessionStore,
+            UserService userService,
+            @Value("${goaltracker.session.cookie-name:GTSESSION}") String cookieName,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+            @Value("${server.servlet.session.cookie.secure:false}") boolean secureCookie) {
+        FilterRegistrationBean<StoreBackedSessionFilter> registration = new FilterRegistrationBean<>(
+                new StoreBackedSessionFilter(sessionStore, userService, cookieName, timeout, secureCookie));
+        // Run before anything that may touch the session
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,146 @@
+package com.goaltracker.session;
+
+import com.goaltracker.dto.UserDto;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * StoreBackedHttpSession - HttpSession view over an externally stored session
+ * The identity attributes used by the controllers and JSPs ("userId" and
+ * "currentUser") are answered from the {@link SessionStore}; the current user
+ * is rehydrated from the database only when something actually reads it.
+ * Any other attribute (e.g. Spring MVC flash messages) is kept in the
+ * container session, which is created lazily and only lives for the short
+ * redirect-after-post round trip.
+ */
+class StoreBackedHttpSession implements HttpSession {
+
+    static final String USER_ID_ATTRIBUTE = "userId";
+    static final String CURRENT_USER_ATTRIBUTE = "currentUser";
+
+    private final StoreBackedSessionFilter.StoreBackedRequest request;
+
+    // Identity reported while nothing has been stored yet in this request
+    private final String transientId = UUID.randomUUID().toString();
+    private final long createdAt = System.currentTimeMillis();
+
+    StoreBackedHttpSession(StoreBackedSessionFilter.StoreBackedRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        if (USER_ID_ATTRIBUTE.equals(name)) {
+            return request.getUserId();
+        }
+        if (CURRENT_USER_ATTRIBUTE.equals(name)) {
+            return request.getCurrentUser();
+        }
+        HttpSession container = request.containerSession(false);
+        return container != null ? container.getAttribute(name) : null;
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new LinkedHashSet<>();
+        if (request.getUserId() != null) {
+            names.add(USER_ID_ATTRIBUTE);
+            names.add(CURRENT_USER_ATTRIBUTE);
+        }
+        HttpSession container = request.containerSession(false);
+        if (container != null) {
+            names.addAll(Collections.list(container.getAttributeNames()));
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            removeAttribute(name);
+        } else if (USER_ID_ATTRIBUTE.equals(name)) {
+            request.startStoredSession((Long) value);
+        } else if (CURRENT_USER_ATTRIBUTE.equals(name)) {
+            // Only the id is persisted; keep the DTO for the rest of this request
+            request.rememberCurrentUser((UserDto) value);
+        } else {
+            request.containerSession(true).setAttribute(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        if (USER_ID_ATTRIBUTE.equals(name) || CURRENT_USER_ATTRIBUTE.equals(name)) {
+            request.endStoredSession();
+            return;
+        }
+        HttpSession container = request.containerSession(false);
+        if (container != null) {
+            container.removeAttribute(name);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        request.endStoredSession();
+        HttpSession container = request.containerSession(false);
+        if (container != null) {
+            container.invalidate();
+        }
+    }
+
+    @Override
+    public String getId() {
+        String sessionId = request.getStoreSessionId();
+        if (sessionId != null) {
+            return sessionId;
+        }
+        // Never create a container session just to report an id; the response may be committed
+        HttpSession container = request.containerSession(false);
+        return container != null ? container.getId() : transientId;
+    }
+
+    @Override
+    public long getCreationTime() {
+        SessionRecord record = request.getSessionRecord();
+        if (record != null) {
+            return record.getCreatedAt() * 1000L;
+        }
+        HttpSession container = request.containerSession(false);
+        return container != null ? container.getCreationTime() : createdAt;
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return request.getServletContext();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(int interval) {
+        HttpSession container = request.containerSession(false);
+        if (container != null) {
+            container.setMaxInactiveInterval(interval);
+        }
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return (int) request.getTimeout().toSeconds();
+    }
+
+    @Override
+    public boolean isNew() {
+        return request.getSessionRecord() == null;
+    }
+}
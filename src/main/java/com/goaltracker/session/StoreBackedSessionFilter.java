@@ -0,0 +1,219 @@
+package com.goaltracker.session;
+
+import com.goaltracker.dto.UserDto;
+import com.goaltracker.service.UserService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * StoreBackedSessionFilter - Replaces the servlet session with a store-backed one
+ * Wraps every request so that {@code request.getSession()} returns a
+ * {@link StoreBackedHttpSession}. Controllers and JSPs keep using
+ * {@code session.getAttribute("userId")} / {@code sessionScope.currentUser}
+ * unchanged, while the login state itself lives in a {@link SessionStore}
+ * that all nodes share.
+ */
+public class StoreBackedSessionFilter extends OncePerRequestFilter {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SessionStore sessionStore;
+    private final UserService userService;
+    private final String cookieName;
+    private final Duration timeout;
+    private final boolean secureCookie;
+
+    /**
+     * @param sessionStore The store holding session records
+     * @param userService  Used to rehydrate the current user on demand
+     * @param cookieName   Name of the cookie carrying the session id
+     * @param timeout      Idle timeout after which a session expires
+     * @param secureCookie Whether the session cookie is restricted to HTTPS
+     */
+    public StoreBackedSessionFilter(SessionStore sessionStore, UserService userService,
+            String cookieName, Duration timeout, boolean secureCookie) {
+        this.sessionStore = sessionStore;
+        this.userService = userService;
+        this.cookieName = cookieName;
+        this.timeout = timeout;
+        this.secureCookie = secureCookie;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new StoreBackedRequest(request, response), response);
+    }
+
+    /**
+     * Request wrapper holding the per-request view of the stored session
+     */
+    class StoreBackedRequest extends HttpServletRequestWrapper {
+
+        private final HttpServletResponse response;
+        private StoreBackedHttpSession session;
+        private boolean resolved;
+        private String storeSessionId;
+        private SessionRecord sessionRecord;
+        private UserDto currentUser;
+
+        StoreBackedRequest(HttpServletRequest request, HttpServletResponse response) {
+            super(request);
+            this.response = response;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (session == null && (create || getSessionRecord() != null || containerSession(false) != null)) {
+                session = new StoreBackedHttpSession(this);
+            }
+            return session;
+        }
+
+        Long getUserId() {
+            SessionRecord record = getSessionRecord();
+            return record != null ? record.getUserId() : null;
+        }
+
+        UserDto getCurrentUser() {
+            Long userId = getUserId();
+            if (userId == null) {
+                return null;
+            }
+            // Rehydrate lazily and at most once per request
+            if (currentUser == null || !userId.equals(currentUser.getId())) {
+                currentUser = userService.getUserById(userId).orElse(null);
+            }
+            return currentUser;
+        }
+
+        void rememberCurrentUser(UserDto user) {
+            this.currentUser = user;
+        }
+
+        String getStoreSessionId() {
+            getSessionRecord();
+            return storeSessionId;
+        }
+
+        Duration getTimeout() {
+            return timeout;
+        }
+
+        /**
+         * Resolves the session cookie against the store, once per request
+         * Sessions past half of their lifetime are renewed (sliding expiration)
+         * so that active users are not logged out while idle ones still expire.
+         */
+        SessionRecord getSessionRecord() {
+            if (resolved) {
+                return sessionRecord;
+            }
+            resolved = true;
+
+            String sessionId = readSessionCookie();
+            if (sessionId == null) {
+                return null;
+            }
+            Instant now = Instant.now();
+            SessionRecord record = sessionStore.find(sessionId).orElse(null);
+            if (record == null || record.isExpired(now)) {
+                return null;
+            }
+            if (record.getExpiresAt() - now.getEpochSecond() < timeout.toSeconds() / 2) {
+                record = record.renew(now.plus(timeout).getEpochSecond());
+                sessionStore.save(sessionId, record);
+            }
+            storeSessionId = sessionId;
+            sessionRecord = record;
+            return record;
+        }
+
+        /**
+         * Starts a new stored session for the given user
+         * A fresh session id is issued on every login to prevent session fixation.
+         */
+        void startStoredSession(Long userId) {
+            if (userId.equals(getUserId())) {
+                return;
+            }
+            if (storeSessionId != null) {
+                sessionStore.delete(storeSessionId);
+            }
+            Instant now = Instant.now();
+            String sessionId = newSessionId();
+            SessionRecord record = new SessionRecord(userId, now.getEpochSecond(),
+                    now.plus(timeout).getEpochSecond());
+            sessionStore.save(sessionId, record);
+
+            storeSessionId = sessionId;
+            sessionRecord = record;
+            currentUser = null;
+            writeSessionCookie(sessionId, false);
+        }
+
+        void endStoredSession() {
+            if (getStoreSessionId() != null) {
+                sessionStore.delete(storeSessionId);
+                writeSessionCookie("", true);
+            }
+            storeSessionId = null;
+            sessionRecord = null;
+            currentUser = null;
+        }
+
+        HttpSession containerSession(boolean create) {
+            return super.getSession(create);
+        }
+
+        private String readSessionCookie() {
+            Cookie[] cookies = getCookies();
+            if (cookies == null) {
+                return null;
+            }
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                    return cookie.getValue();
+                }
+            }
+            return null;
+        }
+
+        private void writeSessionCookie(String value, boolean expire) {
+            ResponseCookie.ResponseCookieBuilder cookie = ResponseCookie.from(cookieName, value)
+                    .path("/")
+                    .httpOnly(true)
+                    .secure(secureCookie)
+                    .sameSite("Lax");
+            if (expire) {
+                cookie.maxAge(0);
+            }
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.build().toString());
+        }
+    }
+
+    private static String newSessionId() {
+        byte[] bytes = new byte[24];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,220 @@
+package com.goaltracker.snapshot;
+
+import com.goaltracker.dto.GoalDayDto;
+import com.goaltracker.dto.GoalDto;
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.GoalDay;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * GoalSnapshot - Frozen progress of a goal whose period has ended
+ * Holds one completion bit per day of the goal period plus the completion time
+ * of every completed day, so the goal's progress and calendar can be served
+ * without reading goal_day. Title and description are not part of the
+ * snapshot; they come from the (cached) Goal entity.
+ *
+ * Snapshots are immutable and belong to one version of the goal. The binary
+ * form is:
+ * <pre>
+ * version byte | goalId long | goalVersion long | startDate epoch day long | dayCount int
+ * | completion bitmap (ceil(dayCount / 64) longs)
+ * | completion time per completed day, in date order (epoch seconds UTC long, or NO_TIME)
+ * </pre>
+ */
+public final class GoalSnapshot {
+
+    // Format marker written as the first byte, bumped if the layout ever changes
+    private static final byte FORMAT_VERSION = 1;
+
+    // version byte + goalId + goalVersion + startDate + dayCount
+    private static final int HEADER_LENGTH = 1 + Long.BYTES * 3 + Integer.BYTES;
+
+    // Stored for completed days whose completion time is unknown
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final long goalId;
+    private final long goalVersion;
+    private final LocalDate startDate;
+    private final int dayCount;
+    private final long[] completedBits;
+    private final long[] completedAt;
+
+    private GoalSnapshot(long goalId, long goalVersion, LocalDate startDate, int dayCount, long[] completedBits,
+            long[] completedAt) {
+        this.goalId = goalId;
+        this.goalVersion = goalVersion;
+        this.startDate = startDate;
+        this.dayCount = dayCount;
+        this.completedBits = completedBits;
+        this.completedAt = completedAt;
+    }
+
+    /**
+     * Builds the snapshot of a goal from its day records
+     * Days outside the goal period are ignored.
+     *
+     * @param goal The saved goal
+     * @param days The goal's day records, in any order
+     * @return The snapshot for the goal's current version
+     */
+    public static GoalSnapshot of(Goal goal, List<GoalDay> days) {
+        int dayCount = (int) goal.getTotalDays();
+        long[] bits = new long[(dayCount + 63) / 64];
+        List<GoalDay> ordered = new ArrayList<>(days);
+        ordered.sort(Comparator.comparing(GoalDay::getDate));
+
+        List<Long> times = new ArrayList<>();
+        for (GoalDay day : ordered) {
+            long index = ChronoUnit.DAYS.between(goal.getStartDate(), day.getDate());
+            if (!day.isCompleted() || index < 0 || index >= dayCount || isSet(bits, (int) index)) {
+                continue;
+            }
+            bits[(int) index >>> 6] |= 1L << index;
+            times.add(day.getCompletedAt() == null ? NO_TIME : day.getCompletedAt().toEpochSecond(ZoneOffset.UTC));
+        }
+        return new GoalSnapshot(goal.getId(), goal.getVersion(), goal.getStartDate(), dayCount, bits,
+                times.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    public long getGoalId() {
+        return goalId;
+    }
+
+    public long getGoalVersion() {
+        return goalVersion;
+    }
+
+    public long getTotalDays() {
+        return dayCount;
+    }
+
+    public long getCompletedDays() {
+        return completedAt.length;
+    }
+
+    /**
+     * Builds the progress view of the goal from this snapshot
+     *
+     * @param goal The goal this snapshot belongs to (for title, description and dates)
+     * @return GoalDto with progress taken from the snapshot
+     */
+    public GoalDto toDto(Goal goal) {
+        long total = getTotalDays();
+        long completed = getCompletedDays();
+
+        GoalDto dto = new GoalDto();
+        dto.setId(goal.getId());
+        dto.setVersion(goal.getVersion());
+        dto.setTitle(goal.getTitle());
+        dto.setDescription(goal.getDescription());
+        dto.setStartDate(goal.getStartDate());
+        dto.setEndDate(goal.getEndDate());
+        dto.setTotalDays(total);
+        dto.setCompletedDays(completed);
+        dto.setRemainingDays(total - completed);
+        dto.setProgressPercentage(total == 0 ? 0.0 : (double) completed / total * 100.0);
+        dto.setCompleted(total > 0 && completed == total);
+        return dto;
+    }
+
+    /**
+     * Every day of the goal period with its completion status
+     *
+     * @return Days in date order
+     */
+    public List<GoalDayDto> getDays() {
+        List<GoalDayDto> days = new ArrayList<>(dayCount);
+        int completedIndex = 0;
+        for (int i = 0; i < dayCount; i++) {
+            LocalDate date = startDate.plusDays(i);
+            if (isSet(completedBits, i)) {
+                long time = completedAt[completedIndex++];
+                days.add(new GoalDayDto(date, true,
+                        time == NO_TIME ? null : LocalDateTime.ofEpochSecond(time, 0, ZoneOffset.UTC)));
+            } else {
+                days.add(new GoalDayDto(date, false, null));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Serializes this snapshot into its compact binary form
+     *
+     * @return The encoded bytes
+     */
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + Long.BYTES * (completedBits.length + completedAt.length))
+                .put(FORMAT_VERSION)
+                .putLong(goalId)
+                .putLong(goalVersion)
+                .putLong(startDate.toEpochDay())
+                .putInt(dayCount);
+        for (long word : completedBits) {
+            buffer.putLong(word);
+        }
+        for (long time : completedAt) {
+            buffer.putLong(time);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Deserializes a snapshot previously produced by {@link #encode()}
+     *
+     * @param bytes The encoded bytes
+     * @return The decoded snapshot
+     * @throws IllegalArgumentException if the bytes are not a valid snapshot
+     */
+    public static GoalSnapshot decode(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported goal snapshot format");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        long goalId = buffer.getLong();
+        long goalVersion = buffer.getLong();
+        LocalDate startDate = LocalDate.ofEpochDay(buffer.getLong());
+        int dayCount = buffer.getInt();
+        if (dayCount < 0 || buffer.remaining() < Long.BYTES * ((dayCount + 63) / 64)) {
+            throw new IllegalArgumentException("Unsupported goal snapshot format");
+        }
+
+        long[] bits = new long[(dayCount + 63) / 64];
+        int completed = 0;
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = buffer.getLong();
+            completed += Long.bitCount(bits[i]);
+        }
+        if (buffer.remaining() != Long.BYTES * completed) {
+            throw new IllegalArgumentException("Unsupported goal snapshot format");
+        }
+        long[] times = new long[completed];
+        for (int i = 0; i < completed; i++) {
+            times[i] = buffer.getLong();
+        }
+        return new GoalSnapshot(goalId, goalVersion, startDate, dayCount, bits, times);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "GoalSnapshot{" +
+                "goalId=" + goalId +
+                ", goalVersion=" + goalVersion +
+                ", startDate=" + startDate +
+                ", totalDays=" + dayCount +
+                ", completedDays=" + completedAt.length +
+                '}';
+    }
+}
@@ -0,0 +1,199 @@
+package com.goaltracker.snapshot;
+
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.GoalDay;
+import com.goaltracker.repository.GoalDayRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * GoalSnapshotCache - Serves finished goals from immutable snapshots
+ * Once a goal's period has ended its days can no longer be toggled, so its
+ * progress and calendar never change again. The first read builds a
+ * {@link GoalSnapshot} from goal_day and stores it in the goal_snapshot table;
+ * after that it is answered from memory, or from the side table after a
+ * restart, without touching goal_day.
+ *
+ * New snapshots are written to the side table by {@link #flush()} rather than
+ * by the request that built them. That request already holds a pooled
+ * connection for its own transaction, and saving from it needs a second one:
+ * with as many concurrent first reads as the pool has connections, every
+ * request would wait for a connection that none of them can release.
+ *
+ * A snapshot is only used while the goal's version matches the one it was
+ * built from, so editing a goal on one instance invalidates it on the others
+ * as soon as they load the new version. The version comes from the loaded
+ * Goal, so with the per-node second-level cache turned on for several nodes
+ * (off by default there, see SecondLevelCacheConfiguration) another node
+ * can keep serving the old snapshot for up to that cache's TTL.
+ * Entries do not expire; {@code goaltracker.goal-snapshot.max-entries} bounds
+ * the memory used.
+ */
+@Component
+public class GoalSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalSnapshotCache.class);
+
+    private final GoalSnapshotStore store;
+    private final GoalDayRepository goalDayRepository;
+    private final TransactionTemplate writeTransaction;
+    private final int maxEntries;
+    private final ConcurrentMap<Long, GoalSnapshot> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, GoalSnapshot> unsaved = new ConcurrentHashMap<>();
+    private final Counter memoryCounter;
+    private final Counter storedCounter;
+    private final Counter builtCounter;
+
+    @Autowired
+    public GoalSnapshotCache(GoalSnapshotStore store,
+            GoalDayRepository goalDayRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${goaltracker.goal-snapshot.max-entries:50000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.goalDayRepository = goalDayRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.maxEntries = maxEntries;
+        this.memoryCounter = snapshotCounter(meterRegistry, "memory");
+        this.storedCounter = snapshotCounter(meterRegistry, "stored");
+        this.builtCounter = snapshotCounter(meterRegistry, "built");
+    }
+
+    /**
+     * Returns the snapshot of a finished goal, building it on first use
+     *
+     * @param goal The goal
+     * @return The snapshot, or empty if the goal has not finished yet
+     */
+    public Optional<GoalSnapshot> find(Goal goal) {
+        return Optional.ofNullable(findAll(List.of(goal)).get(goal.getId()));
+    }
+
+    /**
+     * Returns the snapshots of the finished goals among the given ones
+     * Goals missing from memory cost one side-table query for all of them,
+     * and those not stored either one goal_day query for all of them, so a
+     * list of goals never costs queries per goal.
+     *
+     * @param goals The goals
+     * @return Snapshots by goal ID; goals that have not finished yet are missing
+     */
+    public Map<Long, GoalSnapshot> findAll(Collection<Goal> goals) {
+        LocalDate today = LocalDate.now();
+        Map<Long, GoalSnapshot> found = new HashMap<>();
+        Map<Long, Goal> missing = new LinkedHashMap<>();
+        for (Goal goal : goals) {
+            if (goal.getId() == null || goal.getVersion() == null || !isFinished(goal, today)) {
+                continue;
+            }
+            GoalSnapshot cached = cache.get(goal.getId());
+            if (cached != null && cached.getGoalVersion() == goal.getVersion()) {
+                memoryCounter.increment();
+                found.put(goal.getId(), cached);
+            } else {
+                missing.put(goal.getId(), goal);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, Long> versions = new HashMap<>();
+        missing.values().forEach(goal -> versions.put(goal.getId(), goal.getVersion()));
+        for (GoalSnapshot snapshot : store.findAll(versions).values()) {
+            missing.remove(snapshot.getGoalId());
+            storedCounter.increment();
+            put(snapshot);
+            found.put(snapshot.getGoalId(), snapshot);
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, List<GoalDay>> days = goalDayRepository.findByGoalIds(missing.keySet()).stream()
+                .collect(Collectors.groupingBy(day -> day.getGoal().getId()));
+        for (Goal goal : missing.values()) {
+            GoalSnapshot snapshot = GoalSnapshot.of(goal, days.getOrDefault(goal.getId(), List.of()));
+            unsaved.put(snapshot.getGoalId(), snapshot);
+            builtCounter.increment();
+            put(snapshot);
+            found.put(snapshot.getGoalId(), snapshot);
+        }
+        return found;
+    }
+
+    /**
+     * Drops the snapshot of a goal that is being edited or deleted
+     *
+     * @param goalId The goal ID
+     */
+    public void evict(Long goalId) {
+        cache.remove(goalId);
+        unsaved.remove(goalId);
+        store.delete(goalId);
+    }
+
+    /**
+     * Stores the snapshots built since the last run in the side table
+     * A snapshot lost on shutdown before it was stored is simply rebuilt on its next read.
+     */
+    @Scheduled(fixedDelayString = "${goaltracker.goal-snapshot.flush-interval:PT1S}")
+    public void flush() {
+        for (GoalSnapshot snapshot : unsaved.values()) {
+            if (unsaved.remove(snapshot.getGoalId(), snapshot)) {
+                save(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Whether the goal's period is over and its days are final
+     * A goal is only frozen from the second day after its end date, so a toggle
+     * of the last day that commits around midnight is never missed.
+     */
+    static boolean isFinished(Goal goal, LocalDate today) {
+        return goal.getEndDate() != null && goal.getEndDate().plusDays(1).isBefore(today);
+    }
+
+    private void save(GoalSnapshot snapshot) {
+        try {
+            writeTransaction.executeWithoutResult(status -> store.save(snapshot));
+        } catch (DataAccessException e) {
+            // Another instance may have stored it first; the in-memory copy is still valid
+            log.debug("Could not store snapshot of goal {}: {}", snapshot.getGoalId(), e.getMessage());
+        }
+    }
+
+    private void put(GoalSnapshot snapshot) {
+        if (cache.size() >= maxEntries && !cache.containsKey(snapshot.getGoalId())) {
+            cache.clear();
+        }
+        cache.put(snapshot.getGoalId(), snapshot);
+    }
+
+    private static Counter snapshotCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("goaltracker.goal.snapshot")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.goaltracker.snapshot;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GoalSnapshotStore - Persists goal snapshots in the goal_snapshot side table
+ * One row per goal, holding the encoded snapshot and the goal version it was
+ * built from. Rows for a goal are removed with the goal (ON DELETE CASCADE).
+ */
+@Component
+public class GoalSnapshotStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public GoalSnapshotStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Finds the stored snapshots of several goals with one query
+     *
+     * @param goalVersions Current version of each goal, by goal ID
+     * @return The snapshots stored for those versions, by goal ID; goals without one are missing
+     */
+    public Map<Long, GoalSnapshot> findAll(Map<Long, Long> goalVersions) {
+        Map<Long, GoalSnapshot> found = new HashMap<>();
+        if (goalVersions.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query("SELECT goal_id, goal_version, payload FROM goal_snapshot WHERE goal_id IN ("
+                + String.join(", ", Collections.nCopies(goalVersions.size(), "?")) + ")",
+                rs -> {
+                    long goalId = rs.getLong(1);
+                    if (rs.getLong(2) != goalVersions.get(goalId)) {
+                        return;
+                    }
+                    try {
+                        found.put(goalId, GoalSnapshot.decode(rs.getBytes(3)));
+                    } catch (IllegalArgumentException e) {
+                        // Written in an older format; it is rebuilt and overwritten
+                    }
+                },
+                goalVersions.keySet().toArray());
+        return found;
+    }
+
+    /**
+     * Stores a snapshot, replacing any snapshot of an older version of the goal
+     *
+     * @param snapshot The snapshot to store
+     */
+    public void save(GoalSnapshot snapshot) {
+        byte[] payload = snapshot.encode();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int updated = jdbcTemplate.update(
+                "UPDATE goal_snapshot SET goal_version = ?, payload = ?, created_at = ? WHERE goal_id = ?",
+                snapshot.getGoalVersion(), payload, now, snapshot.getGoalId());
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO goal_snapshot (goal_id, goal_version, payload, created_at) VALUES (?, ?, ?, ?)",
+                    snapshot.getGoalId(), snapshot.getGoalVersion(), payload, now);
+        }
+    }
+
+    /**
+     * Removes the stored snapshot of a goal, if any
+     *
+     * @param goalId The goal ID
+     */
+    public void delete(long goalId) {
+        jdbcTemplate.update("DELETE FROM goal_snapshot WHERE goal_id = ?", goalId);
+    }
+}
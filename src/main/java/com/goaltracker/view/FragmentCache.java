@@ -0,0 +1,98 @@
+package com.goaltracker.view;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * FragmentCache - Keeps rendered HTML fragments for reuse across requests
+ * Each fragment is stored under a key (for example one goal card) together
+ * with the version of the data it was rendered from. A lookup with a
+ * different version is a miss and the new rendering replaces the old one, so
+ * stale markup is never served and old versions do not pile up.
+ *
+ * Entries do not expire; {@code goaltracker.fragment-cache.max-entries}
+ * bounds the memory used.
+ */
+@Component
+public class FragmentCache {
+
+    private final int maxEntries;
+    private final ConcurrentMap<String, Fragment> cache = new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Autowired
+    public FragmentCache(@Value("${goaltracker.fragment-cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.hitCounter = fragmentCounter(meterRegistry, "hit");
+        this.missCounter = fragmentCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Returns the cached fragment for a key if it was rendered from the given version
+     *
+     * @param key     The fragment key
+     * @param version The current version of the data behind the fragment
+     * @return The rendered HTML, or null on a miss
+     */
+    public String get(String key, String version) {
+        Fragment fragment = cache.get(key);
+        if (fragment != null && Objects.equals(fragment.version, version)) {
+            hitCounter.increment();
+            return fragment.html;
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    /**
+     * Stores a rendered fragment, replacing any rendering of an older version
+     *
+     * @param key     The fragment key
+     * @param version The version of the data the fragment was rendered from
+     * @param html    The rendered HTML
+     */
+    public void put(String key, String version, String html) {
+        if (cache.size() >= maxEntries && !cache.containsKey(key)) {
+            cache.clear();
+        }
+        cache.put(key, new Fragment(version, html));
+    }
+
+    /**
+     * Drops the cached fragment for a key, if any
+     *
+     * @param key The fragment key
+     */
+    public void evict(String key) {
+        cache.remove(key);
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private static Counter fragmentCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("goaltracker.fragment.cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Fragment {
+        private final String version;
+        private final String html;
+
+        private Fragment(String version, String html) {
+            this.version = version;
+            this.html = html;
+        }
+    }
+}
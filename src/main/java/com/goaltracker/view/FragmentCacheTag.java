@@ -0,0 +1,63 @@
+package com.goaltracker.view;
+
+import jakarta.servlet.jsp.JspException;
+import jakarta.servlet.jsp.PageContext;
+import jakarta.servlet.jsp.tagext.JspFragment;
+import jakarta.servlet.jsp.tagext.SimpleTagSupport;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * FragmentCacheTag - JSP tag that renders its body once per key and version
+ * Usage: {@code <gt:cache key="goal-card:${goal.id}" version="${goal.version}">...</gt:cache>}
+ *
+ * The body is only evaluated on a miss; on a hit the HTML stored in the
+ * {@link FragmentCache} is written out as is. The body must therefore depend
+ * on nothing but the data identified by the key and version.
+ */
+public class FragmentCacheTag extends SimpleTagSupport {
+
+    private String key;
+    private String version;
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    @Override
+    public void doTag() throws JspException, IOException {
+        PageContext pageContext = (PageContext) getJspContext();
+        JspFragment body = getJspBody();
+        if (body == null) {
+            return;
+        }
+
+        FragmentCache cache = findCache(pageContext);
+        if (cache == null) {
+            body.invoke(null);
+            return;
+        }
+
+        String html = cache.get(key, version);
+        if (html == null) {
+            StringWriter rendered = new StringWriter();
+            body.invoke(rendered);
+            html = rendered.toString();
+            cache.put(key, version, html);
+        }
+        pageContext.getOut().write(html);
+    }
+
+    private static FragmentCache findCache(PageContext pageContext) {
+        WebApplicationContext context =
+                WebApplicationContextUtils.getWebApplicationContext(pageContext.getServletContext());
+        return context != null ? context.getBean(FragmentCache.class) : null;
+    }
+}
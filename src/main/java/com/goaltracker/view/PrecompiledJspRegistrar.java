@@ -0,0 +1,80 @@
+package com.goaltracker.view;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRegistration;
+import org.apache.jasper.compiler.JspUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Set;
+
+/**
+ * PrecompiledJspRegistrar - Serves JSPs from the servlets generated at build time
+ * The startup Maven profile runs Tomcat's JspC over src/main/webapp and
+ * compiles the generated servlets into the application. For every JSP whose
+ * servlet class is on the classpath this maps the servlet to the exact JSP
+ * path, which takes precedence over Jasper's *.jsp mapping, so the page is
+ * never compiled at runtime and the first request after a deploy is as fast
+ * as any other.
+ *
+ * Without precompiled classes (regular development builds) nothing is
+ * registered and Jasper compiles the JSPs on first use as before.
+ */
+@Component
+public class PrecompiledJspRegistrar implements ServletContextInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecompiledJspRegistrar.class);
+
+    private static final String JSP_ROOT = "/WEB-INF/";
+
+    @Override
+    public void onStartup(ServletContext servletContext) {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        int registered = register(servletContext, JSP_ROOT, classLoader);
+        if (registered > 0) {
+            log.info("Mapped {} precompiled JSPs", registered);
+        }
+    }
+
+    private int register(ServletContext servletContext, String directory, ClassLoader classLoader) {
+        Set<String> paths = servletContext.getResourcePaths(directory);
+        if (paths == null) {
+            return 0;
+        }
+
+        int registered = 0;
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                registered += register(servletContext, path, classLoader);
+            } else if (path.endsWith(".jsp")) {
+                String className = servletClassName(path);
+                if (ClassUtils.isPresent(className, classLoader)) {
+                    ServletRegistration.Dynamic servlet = servletContext.addServlet(className, className);
+                    servlet.addMapping(path);
+                    registered++;
+                }
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * The class JspC generates for a JSP, following Jasper's naming rules
+     * e.g. /WEB-INF/views/goals/_list_content.jsp becomes
+     * org.apache.jsp.WEB_002dINF.views.goals._005flist_005fcontent_jsp
+     */
+    static String servletClassName(String jspPath) {
+        int slash = jspPath.lastIndexOf('/');
+        String directory = jspPath.substring(1, slash);
+        String fileName = jspPath.substring(slash + 1);
+
+        StringBuilder className = new StringBuilder("org.apache.jsp");
+        if (!directory.isEmpty()) {
+            className.append('.').append(JspUtil.makeJavaPackage(directory));
+        }
+        return className.append('.').append(JspUtil.makeJavaIdentifier(fileName)).toString();
+    }
+}
@@ -0,0 +1,36 @@
+-- Baseline schema, matching what Hibernate generated before migrations were introduced.
+-- Existing databases are baselined at version 1 and skip this script.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE goal (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_goal PRIMARY KEY (id),
+    CONSTRAINT fk_goal_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE goal_day (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    goal_id BIGINT NOT NULL,
+    day_date DATE NOT NULL,
+    completed BOOLEAN NOT NULL,
+    completed_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_goal_day PRIMARY KEY (id),
+    CONSTRAINT fk_goal_day_goal FOREIGN KEY (goal_id) REFERENCES goal (id)
+);
@@ -0,0 +1,10 @@
+-- Indexes for the repository hot paths.
+
+-- GoalDayRepository.findByGoalIdAndDate / findByGoalIdOrderByDayDate / countTotalDaysByGoalId
+CREATE INDEX IF NOT EXISTS idx_goal_day_goal_id_day_date ON goal_day (goal_id, day_date);
+
+-- GoalRepository.findAllByUserIdOrderByCreatedAtDesc
+CREATE INDEX IF NOT EXISTS idx_goal_user_id_created_at ON goal (user_id, created_at);
+
+-- GoalDayRepository.countCompletedDaysByGoalId (H2 has no partial indexes; PostgreSQL uses WHERE completed)
+CREATE INDEX IF NOT EXISTS idx_goal_day_goal_id_completed ON goal_day (goal_id, completed);
@@ -0,0 +1,14 @@
+-- Responses of requests sent with an Idempotency-Key (goaltracker.idempotency.store=jdbc).
+-- idempotency_key is a hash of the caller and the client's key; status 0 means still in progress.
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(64) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    status INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    location VARCHAR(2048),
+    body BYTEA,
+    expires_at BIGINT NOT NULL,
+    CONSTRAINT pk_idempotency_key PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
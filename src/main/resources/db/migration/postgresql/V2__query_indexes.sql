@@ -0,0 +1,11 @@
+-- Indexes for the repository hot paths.
+-- Built CONCURRENTLY so existing tables stay writable; Flyway runs this script outside a transaction.
+
+-- GoalDayRepository.findByGoalIdAndDate / findByGoalIdOrderByDayDate / countTotalDaysByGoalId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_goal_day_goal_id_day_date ON goal_day (goal_id, day_date);
+
+-- GoalRepository.findAllByUserIdOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_goal_user_id_created_at ON goal (user_id, created_at DESC);
+
+-- GoalDayRepository.countCompletedDaysByGoalId: only completed rows are indexed
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_goal_day_goal_id_completed ON goal_day (goal_id) WHERE completed;
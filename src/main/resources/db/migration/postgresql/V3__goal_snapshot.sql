@@ -0,0 +1,12 @@
+-- Optimistic version of a goal; snapshots are only valid for the version they were built from
+ALTER TABLE goal ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Frozen progress of finished goals (see GoalSnapshot for the payload layout)
+CREATE TABLE goal_snapshot (
+    goal_id BIGINT NOT NULL,
+    goal_version BIGINT NOT NULL,
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_goal_snapshot PRIMARY KEY (goal_id),
+    CONSTRAINT fk_goal_snapshot_goal FOREIGN KEY (goal_id) REFERENCES goal (id) ON DELETE CASCADE
+);
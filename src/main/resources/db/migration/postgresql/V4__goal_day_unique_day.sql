@@ -0,0 +1,15 @@
+-- One goal_day row per goal and date, so the day toggle can be a single upsert (GoalDayRepositoryCustom).
+-- Not built CONCURRENTLY: the duplicates must be removed in the same transaction, and a
+-- partitioned goal_day (db/partitioning) does not support concurrent index builds.
+
+-- Earlier concurrent toggles could create duplicates; keep the completed row, else the oldest
+DELETE FROM goal_day d
+USING goal_day k
+WHERE k.goal_id = d.goal_id
+  AND k.day_date = d.day_date
+  AND ((k.completed AND NOT d.completed) OR (k.completed = d.completed AND k.id < d.id));
+
+-- Replaces the plain (goal_id, day_date) index from V2; includes the partition key, so it is
+-- also valid on the partitioned table
+DROP INDEX IF EXISTS idx_goal_day_goal_id_day_date;
+CREATE UNIQUE INDEX uk_goal_day_goal_id_day_date ON goal_day (goal_id, day_date);
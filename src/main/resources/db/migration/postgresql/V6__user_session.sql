@@ -0,0 +1,10 @@
+-- Login sessions of goaltracker.session.store=jdbc, one row per session id.
+-- IF NOT EXISTS: databases that already had the table from runtime DDL keep it and only gain the index.
+CREATE TABLE IF NOT EXISTS user_session (
+    session_id VARCHAR(64) NOT NULL,
+    payload BYTEA NOT NULL,
+    expires_at BIGINT NOT NULL,
+    CONSTRAINT pk_user_session PRIMARY KEY (session_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_session_expires_at ON user_session (expires_at);
@@ -0,0 +1,60 @@
+-- Converts goal_day into a table range-partitioned by quarter of day_date.
+-- Only on the Flyway path when goaltracker.partitioning.goal-day.enabled=true (PostgreSQL only).
+-- Rows are copied inside this migration's transaction, so goal_day is locked while it runs.
+
+ALTER TABLE goal_day RENAME TO goal_day_unpartitioned;
+-- Free the index names the new table uses (baselined databases may have Hibernate's names instead)
+ALTER INDEX IF EXISTS pk_goal_day RENAME TO pk_goal_day_unpartitioned;
+DROP INDEX IF EXISTS idx_goal_day_goal_id_day_date;
+DROP INDEX IF EXISTS idx_goal_day_goal_id_completed;
+
+-- The sequence of the old id column is dropped with the old table
+CREATE SEQUENCE goal_day_partitioned_id_seq;
+SELECT setval('goal_day_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM goal_day_unpartitioned), 0) + 1, false);
+
+-- A primary key on a partitioned table must include the partition key
+CREATE TABLE goal_day (
+    id BIGINT NOT NULL DEFAULT nextval('goal_day_partitioned_id_seq'),
+    goal_id BIGINT NOT NULL,
+    day_date DATE NOT NULL,
+    completed BOOLEAN NOT NULL,
+    completed_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_goal_day PRIMARY KEY (id, day_date),
+    CONSTRAINT fk_goal_day_goal FOREIGN KEY (goal_id) REFERENCES goal (id)
+) PARTITION BY RANGE (day_date);
+
+ALTER SEQUENCE goal_day_partitioned_id_seq OWNED BY goal_day.id;
+
+-- Catches days outside every quarterly partition (e.g. goals started long ago)
+CREATE TABLE goal_day_default PARTITION OF goal_day DEFAULT;
+
+-- One partition per quarter from the oldest existing day up to a year ahead, or up to
+-- the latest existing day if that is later, so no copied row lands in the default;
+-- GoalDayPartitionManager keeps creating upcoming quarters from then on
+DO $$
+DECLARE
+    quarter_start DATE := date_trunc('quarter',
+            COALESCE((SELECT MIN(day_date) FROM goal_day_unpartitioned), CURRENT_DATE))::date;
+    last_quarter DATE := GREATEST(date_trunc('quarter', CURRENT_DATE) + INTERVAL '1 year',
+            date_trunc('quarter', (SELECT MAX(day_date) FROM goal_day_unpartitioned)))::date;
+BEGIN
+    WHILE quarter_start <= last_quarter LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF goal_day FOR VALUES FROM (%L) TO (%L)',
+                'goal_day_' || to_char(quarter_start, 'YYYY') || 'q' || to_char(quarter_start, 'Q'),
+                quarter_start, (quarter_start + INTERVAL '3 months')::date);
+        quarter_start := (quarter_start + INTERVAL '3 months')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO goal_day (id, goal_id, day_date, completed, completed_at, created_at)
+SELECT id, goal_id, day_date, completed, completed_at, created_at FROM goal_day_unpartitioned;
+
+DROP TABLE goal_day_unpartitioned;
+
+-- Same indexes as V2, now created per partition after the copy
+CREATE INDEX idx_goal_day_goal_id_day_date ON goal_day (goal_id, day_date);
+CREATE INDEX idx_goal_day_goal_id_completed ON goal_day (goal_id) WHERE completed;
+
+-- Detached partitions are moved here by the archival job
+CREATE SCHEMA IF NOT EXISTS goal_day_archive;
@@ -0,0 +1,6 @@
+-- When partitioning is switched on after V4, V2_1 runs out of order and rebuilds goal_day
+-- with the plain V2 index; restore the unique index the day toggle's upsert relies on.
+-- Nothing to do when V2_1 ran before V4.
+
+DROP INDEX IF EXISTS idx_goal_day_goal_id_day_date;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_goal_day_goal_id_day_date ON goal_day (goal_id, day_date);
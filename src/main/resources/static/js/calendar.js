@@ -9,9 +9,75 @@
 
 // Calendar rendering and interactions for Goal Tracker
 
+/**
+ * Calls the JSON API, authenticating with the page's API token when present
+ * The token is rendered by the server as <meta name="api-token">. If it has
+ * expired the call is retried once without it, falling back to the session cookie.
+ *
+ * @param {string} url - The API URL to call
+ * @param {object} options - Options passed through to fetch
+ * @returns {Promise<Response>} The fetch response
+ */
+async function apiFetch(url, options = {}) {
+    const tokenMeta = document.querySelector('meta[name="api-token"]');
+    if (!tokenMeta) return fetch(url, options);
+
+    const headers = Object.assign({}, options.headers, { 'Authorization': `Bearer ${tokenMeta.content}` });
+    const res = await fetch(url, Object.assign({}, options, { headers }));
+    if (res.status !== 401) return res;
+
+    // Token expired: forget it and use the session from now on
+    tokenMeta.remove();
+    return fetch(url, options);
+}
+
+/**
+ * Sends a mutating API call that is safe to retry
+ * All attempts carry the same Idempotency-Key, so the server runs the request
+ * at most once and answers retries with the first response. Each attempt is
+ * aborted after a short timeout and retried on network errors, 409 (the first
+ * attempt is still running) and 5xx responses, with a growing delay.
+ *
+ * @param {string} url - The API URL to call
+ * @param {object} options - Options passed through to fetch
+ * @param {number} attempts - Maximum number of attempts
+ * @param {number} timeoutMs - Timeout of a single attempt
+ * @returns {Promise<Response>} The response of the last attempt
+ */
+async function apiFetchIdempotent(url, options = {}, attempts = 4, timeoutMs = 5000) {
+    const headers = Object.assign({}, options.headers, { 'Idempotency-Key': newIdempotencyKey() });
+    for (let attempt = 1; ; attempt++) {
+        const controller = new AbortController();
+        const timer = setTimeout(() => controller.abort(), timeoutMs);
+        try {
+            const res = await apiFetch(url, Object.assign({}, options, { headers, signal: controller.signal }));
+            if ((res.status !== 409 && res.status < 500) || attempt >= attempts) return res;
+        } catch (err) {
+            if (attempt >= attempts) throw err;
+        } finally {
+            clearTimeout(timer);
+        }
+        await new Promise(resolve => setTimeout(resolve, 250 * 2 ** (attempt - 1)));
+    }
+}
+
+/**
+ * Creates a random idempotency key
+ * crypto.randomUUID is only available on secure origins (HTTPS, localhost)
+ *
+ * @returns {string} A new key
+ */
+function newIdempotencyKey() {
+    if (window.crypto && crypto.randomUUID) return crypto.randomUUID();
+    return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}${Math.random().toString(36).slice(2)}`;
+}
+
 /**
  * Initializes and renders the goal progress calendar
- * This is the main function that creates the entire calendar interface
+ * This is the main function that creates the entire calendar interface.
+ * The calendar is split into one section per month; each section fetches and
+ * renders its days only when it is scrolled near the viewport, so the initial
+ * cost does not grow with the length of the goal.
  * 
  * @param {number} goalId - The unique identifier of the goal
  * @param {string} startDateStr - Start date in ISO format (YYYY-MM-DD)
@@ -26,28 +92,6 @@ async function initializeCalendar(goalId, startDateStr, endDateStr) {
     const startDate = new Date(startDateStr);
     const endDate = new Date(endDateStr);
 
-    // Fetch current progress and list of completed days from the server
-    // This ensures we show the correct completion status for each day
-    let completedDays = [];
-    try {
-        // Make API call to get all days for this goal with their completion status
-        const daysRes = await fetch(`/api/goals/${goalId}/days`);
-        if (daysRes.ok) {
-            const daysData = await daysRes.json();
-            completedDays = daysData.days || []; // Extract days array or use empty array as fallback
-        }
-    } catch (e) {
-        console.error('Error fetching goal days:', e);
-    }
-
-    // Build array of all dates between start and end date (inclusive)
-    const dates = [];
-    let current = new Date(startDate);
-    while (current <= endDate) {
-        dates.push(new Date(current));
-        current.setDate(current.getDate() + 1); // Move to next day
-    }
-
     // Clear the container and start fresh
     container.innerHTML = '';
 
@@ -63,7 +107,7 @@ async function initializeCalendar(goalId, startDateStr, endDateStr) {
         <p>Track your daily progress and stay motivated!</p>
     `;
 
-    // Create the calendar grid that will hold all the day buttons
+    // Create the calendar grid that will hold the month sections
     const calendarGrid = document.createElement('div');
     calendarGrid.className = 'calendar-grid slide-up';
 
@@ -71,10 +115,72 @@ async function initializeCalendar(goalId, startDateStr, endDateStr) {
     const today = new Date();
     today.setHours(0, 0, 0, 0);
 
-    // Group dates into weeks for proper calendar layout
-    const weeks = chunkByWeek(dates);
+    // Load a month once its placeholder comes within a few rows of the viewport
+    const observer = 'IntersectionObserver' in window
+        ? new IntersectionObserver((entries) => {
+            entries.filter(entry => entry.isIntersecting).forEach(entry => {
+                observer.unobserve(entry.target);
+                loadCalendarMonth(goalId, entry.target, today);
+            });
+        }, { rootMargin: '400px 0px' })
+        : null;
+
+    // Add an empty, correctly sized placeholder for every month of the goal
+    monthWindows(startDate, endDate).forEach(month => {
+        const section = document.createElement('section');
+        section.className = 'calendar-month';
+        section.dataset.from = toIsoDate(month.from);
+        section.dataset.to = toIsoDate(month.to);
+        section.style.minHeight = `${chunkByWeek(datesBetween(month.from, month.to)).length * 88}px`;
+
+        const label = document.createElement('div');
+        label.className = 'calendar-month-label';
+        label.textContent = month.from.toLocaleDateString('en-US', { month: 'long', year: 'numeric' });
+        section.appendChild(label);
+
+        calendarGrid.appendChild(section);
+        if (observer) {
+            observer.observe(section);
+        } else {
+            loadCalendarMonth(goalId, section, today);
+        }
+    });
+
+    // Assemble the complete calendar by adding header and grid to container
+    calendarContainer.appendChild(calendarHeader);
+    calendarContainer.appendChild(calendarGrid);
+    container.appendChild(calendarContainer);
+}
+
+/**
+ * Fetches the days of one month section and renders its weeks
+ * 
+ * @param {number} goalId - The unique identifier of the goal
+ * @param {HTMLElement} section - The month placeholder with data-from and data-to
+ * @param {Date} today - Today's date at midnight
+ */
+async function loadCalendarMonth(goalId, section, today) {
+    const from = section.dataset.from;
+    const to = section.dataset.to;
+
+    // Fetch the completion status of the days in this month only
+    const completedDates = new Set();
+    try {
+        const daysRes = await apiFetch(`/api/goals/${goalId}/days?from=${from}&to=${to}`);
+        if (daysRes.ok) {
+            const daysData = await daysRes.json();
+            (daysData.days || [])
+                .filter(day => day.completed === true)
+                .forEach(day => completedDates.add(day.dayDate));
+        }
+    } catch (e) {
+        console.error('Error fetching goal days:', e);
+    }
+
+    // Group the month's dates into weeks for proper calendar layout
+    const weeks = chunkByWeek(datesBetween(fromIsoDate(from), fromIsoDate(to)));
 
-    // Render each week as a row in the calendar
+    // Render each week as a row in the month section
     weeks.forEach((week, weekIndex) => {
         // Create a row container for this week
         const weekRow = document.createElement('div');
@@ -82,115 +188,156 @@ async function initializeCalendar(goalId, startDateStr, endDateStr) {
         weekRow.style.animationDelay = `${weekIndex * 0.1}s`; // Stagger animation
         weekRow.classList.add('slide-up');
 
-        // Render each day in this week
         week.forEach((date, dayIndex) => {
-            // Create a button element for each day
-            const dayBtn = document.createElement('button');
-            dayBtn.type = 'button';
-            dayBtn.dataset.date = toIsoDate(date); // Store date for API calls
-            dayBtn.className = 'calendar-day btn fade-in';
-            dayBtn.style.animationDelay = `${(weekIndex * 7 + dayIndex) * 0.05}s`; // Stagger animation
-
-            // Format the date for display
-            // Get day name (e.g., "Mon", "Tue")
-            const dayName = date.toLocaleDateString('en-US', { weekday: 'short' });
-            // Get full date format (e.g., "09/09/2024")
-            const formattedDate = date.toLocaleDateString('en-US', {
-                month: '2-digit',
-                day: '2-digit',
-                year: 'numeric'
-            });
-            // Get short date format for responsive display (e.g., "Sep 09")
-            const shortDate = date.toLocaleDateString('en-US', {
-                month: 'short',
-                day: '2-digit'
-            });
+            const isCompleted = completedDates.has(toIsoDate(date));
+            weekRow.appendChild(createDayButton(goalId, date, isCompleted, today, weekIndex * 7 + dayIndex));
+        });
 
-            // Set the initial HTML content with day name and short date
-            dayBtn.innerHTML = `<div class="day-name">${dayName}</div><div class="day-date" data-full-date="${formattedDate}">${shortDate}</div>`;
-
-            // Add tooltip for the entire day button
-            const tooltipText = getTooltipText(date, today);
-            dayBtn.setAttribute('data-bs-toggle', 'tooltip');
-            dayBtn.setAttribute('data-bs-placement', 'top');
-            dayBtn.setAttribute('data-bs-title', tooltipText);
-
-            // Add separate tooltip for the date element to show full date on hover
-            const dateElement = dayBtn.querySelector('.day-date');
-            if (dateElement) {
-                dateElement.setAttribute('data-bs-toggle', 'tooltip');
-                dateElement.setAttribute('data-bs-placement', 'top');
-                dateElement.setAttribute('data-bs-title', formattedDate);
-            }
+        section.appendChild(weekRow);
+    });
+    section.style.minHeight = '';
 
-            // Normalize date to midnight for accurate comparison
-            const dateMid = new Date(date);
-            dateMid.setHours(0, 0, 0, 0);
-
-            // Check if this specific day is marked as completed in the database
-            const dayDateStr = toIsoDate(date);
-            const isCompleted = completedDays.some(day => day.dayDate === dayDateStr && day.completed === true);
-
-            // Apply different styling and behavior based on date type
-            if (dateMid.getTime() < today.getTime()) {
-                // PAST DAY: Always disabled, show completion status
-                dayBtn.classList.add('past-day');
-                dayBtn.disabled = true; // Make it non-clickable
-
-                if (isCompleted) {
-                    // Show green checkmark for completed past days
-                    dayBtn.classList.add('completed');
-                    dayBtn.innerHTML = '<div style="font-size: 2.5rem; font-weight: bold; color: #198754; display: flex; align-items: center; justify-content: center; height: 100%; width: 100%;">✓</div>';
-                } else {
-                    // Show red cross for missed past days
-                    dayBtn.classList.add('missed');
-                    dayBtn.innerHTML = '<div style="font-size: 2.5rem; font-weight: bold; color: #dc3545; display: flex; align-items: center; justify-content: center; height: 100%; width: 100%;">✗</div>';
-                }
-            } else if (dateMid.getTime() === today.getTime()) {
-                // TODAY: Always clickable, can be toggled
-                dayBtn.classList.add('today');
-
-                if (isCompleted) {
-                    // Show green checkmark if today is completed
-                    dayBtn.classList.add('completed');
-                    dayBtn.innerHTML = '<div style="font-size: 2.5rem; font-weight: bold; color: #198754; display: flex; align-items: center; justify-content: center; height: 100%; width: 100%;">✓</div>';
-                } else {
-                    // Show normal day format if today is not completed
-                    dayBtn.innerHTML = `<div class="day-name">${dayName}</div><div class="day-date">${formattedDate}</div>`;
-                }
+    // Initialize Bootstrap tooltips for the day buttons of this month
+    section.querySelectorAll('[data-bs-toggle="tooltip"]').forEach(tooltipTriggerEl => {
+        new bootstrap.Tooltip(tooltipTriggerEl);
+    });
+}
 
-                // Add click event listener for toggling completion
-                dayBtn.addEventListener('click', (e) => {
-                    console.log('Day button clicked:', e.target.dataset.date);
-                    toggleDay(goalId, dayBtn);
-                });
-            } else {
-                // FUTURE DAY: Disabled but clickable to show "coming soon" message
-                dayBtn.classList.add('future-day');
-                dayBtn.disabled = false;
+/**
+ * Creates the button for a single calendar day
+ * 
+ * @param {number} goalId - The unique identifier of the goal
+ * @param {Date} date - The day to render
+ * @param {boolean} isCompleted - Whether the day is marked as completed in the database
+ * @param {Date} today - Today's date at midnight
+ * @param {number} index - Position of the day within its month, used to stagger the animation
+ * @return {HTMLElement} The day button
+ */
+function createDayButton(goalId, date, isCompleted, today, index) {
+    // Create a button element for the day
+    const dayBtn = document.createElement('button');
+    dayBtn.type = 'button';
+    dayBtn.dataset.date = toIsoDate(date); // Store date for API calls
+    dayBtn.className = 'calendar-day btn fade-in';
+    dayBtn.style.animationDelay = `${index * 0.05}s`; // Stagger animation
+
+    // Format the date for display
+    // Get day name (e.g., "Mon", "Tue")
+    const dayName = date.toLocaleDateString('en-US', { weekday: 'short' });
+    // Get full date format (e.g., "09/09/2024")
+    const formattedDate = date.toLocaleDateString('en-US', {
+        month: '2-digit',
+        day: '2-digit',
+        year: 'numeric'
+    });
+    // Get short date format for responsive display (e.g., "Sep 09")
+    const shortDate = date.toLocaleDateString('en-US', {
+        month: 'short',
+        day: '2-digit'
+    });
 
-                // Add click event listener to show future day message
-                dayBtn.addEventListener('click', () => showFutureDayMessage(date));
-            }
+    // Set the initial HTML content with day name and short date
+    dayBtn.innerHTML = `<div class="day-name">${dayName}</div><div class="day-date" data-full-date="${formattedDate}">${shortDate}</div>`;
+
+    // Add tooltip for the entire day button
+    const tooltipText = getTooltipText(date, today);
+    dayBtn.setAttribute('data-bs-toggle', 'tooltip');
+    dayBtn.setAttribute('data-bs-placement', 'top');
+    dayBtn.setAttribute('data-bs-title', tooltipText);
+
+    // Add separate tooltip for the date element to show full date on hover
+    const dateElement = dayBtn.querySelector('.day-date');
+    if (dateElement) {
+        dateElement.setAttribute('data-bs-toggle', 'tooltip');
+        dateElement.setAttribute('data-bs-placement', 'top');
+        dateElement.setAttribute('data-bs-title', formattedDate);
+    }
+
+    // Normalize date to midnight for accurate comparison
+    const dateMid = new Date(date);
+    dateMid.setHours(0, 0, 0, 0);
+
+    // Apply different styling and behavior based on date type
+    if (dateMid.getTime() < today.getTime()) {
+        // PAST DAY: Always disabled, show completion status
+        dayBtn.classList.add('past-day');
+        dayBtn.disabled = true; // Make it non-clickable
+
+        if (isCompleted) {
+            // Show green checkmark for completed past days
+            dayBtn.classList.add('completed');
+            dayBtn.innerHTML = '<div style="font-size: 2.5rem; font-weight: bold; color: #198754; display: flex; align-items: center; justify-content: center; height: 100%; width: 100%;">✓</div>';
+        } else {
+            // Show red cross for missed past days
+            dayBtn.classList.add('missed');
+            dayBtn.innerHTML = '<div style="font-size: 2.5rem; font-weight: bold; color: #dc3545; display: flex; align-items: center; justify-content: center; height: 100%; width: 100%;">✗</div>';
+        }
+    } else if (dateMid.getTime() === today.getTime()) {
+        // TODAY: Always clickable, can be toggled
+        dayBtn.classList.add('today');
+
+        if (isCompleted) {
+            // Show green checkmark if today is completed
+            dayBtn.classList.add('completed');
+            dayBtn.innerHTML = '<div style="font-size: 2.5rem; font-weight: bold; color: #198754; display: flex; align-items: center; justify-content: center; height: 100%; width: 100%;">✓</div>';
+        } else {
+            // Show normal day format if today is not completed
+            dayBtn.innerHTML = `<div class="day-name">${dayName}</div><div class="day-date">${formattedDate}</div>`;
+        }
 
-            // Add this day button to the week row
-            weekRow.appendChild(dayBtn);
+        // Add click event listener for toggling completion
+        dayBtn.addEventListener('click', (e) => {
+            console.log('Day button clicked:', e.target.dataset.date);
+            toggleDay(goalId, dayBtn);
         });
+    } else {
+        // FUTURE DAY: Disabled but clickable to show "coming soon" message
+        dayBtn.classList.add('future-day');
+        dayBtn.disabled = false;
 
-        // Add this week row to the calendar grid
-        calendarGrid.appendChild(weekRow);
-    });
+        // Add click event listener to show future day message
+        dayBtn.addEventListener('click', () => showFutureDayMessage(date));
+    }
 
-    // Assemble the complete calendar by adding header and grid to container
-    calendarContainer.appendChild(calendarHeader);
-    calendarContainer.appendChild(calendarGrid);
-    container.appendChild(calendarContainer);
+    return dayBtn;
+}
 
-    // Initialize Bootstrap tooltips for all elements with data-bs-toggle="tooltip"
-    const tooltipTriggerList = [].slice.call(document.querySelectorAll('[data-bs-toggle="tooltip"]'));
-    tooltipTriggerList.map(function (tooltipTriggerEl) {
-        return new bootstrap.Tooltip(tooltipTriggerEl);
-    });
+/**
+ * Splits the goal period into calendar-month windows
+ * The first and last window are cut to the goal's start and end date
+ * 
+ * @param {Date} startDate - First day of the goal
+ * @param {Date} endDate - Last day of the goal
+ * @return {Array} Array of { from, to } objects, one per month
+ */
+function monthWindows(startDate, endDate) {
+    const windows = [];
+    let from = new Date(startDate);
+    while (from <= endDate) {
+        const monthEnd = new Date(from.getFullYear(), from.getMonth() + 1, 0, from.getHours(), from.getMinutes());
+        const to = monthEnd < endDate ? monthEnd : new Date(endDate);
+        windows.push({ from: new Date(from), to });
+        from = new Date(to);
+        from.setDate(from.getDate() + 1);
+    }
+    return windows;
+}
+
+/**
+ * Builds the array of all dates between two dates (inclusive)
+ * 
+ * @param {Date} from - First date
+ * @param {Date} to - Last date
+ * @return {Array} Array of Date objects
+ */
+function datesBetween(from, to) {
+    const dates = [];
+    let current = new Date(from);
+    while (current <= to) {
+        dates.push(new Date(current));
+        current.setDate(current.getDate() + 1); // Move to next day
+    }
+    return dates;
 }
 
 /**
@@ -278,8 +425,8 @@ async function toggleDay(goalId, buttonEl) {
     buttonEl.disabled = true;
 
     try {
-        // Make API call to toggle the day's completion status
-        const res = await fetch(`/api/goals/${goalId}/days/${dateStr}/toggle`, {
+        // Make API call to toggle the day's completion status; retries never toggle twice
+        const res = await apiFetchIdempotent(`/api/goals/${goalId}/days/${dateStr}/toggle`, {
             method: 'POST',
             headers: { 'Content-Type': 'application/json' }
         });
@@ -390,7 +537,7 @@ async function refreshProgress(goalId) {
         console.log('Refreshing progress for goal:', goalId);
 
         // Fetch updated progress data from server
-        const res = await fetch(`/api/goals/${goalId}/progress`);
+        const res = await apiFetch(`/api/goals/${goalId}/progress`);
         const data = await res.json();
 
         console.log('Progress API response:', data);
@@ -610,6 +757,17 @@ function toIsoDate(d) {
     return `${year}-${month}-${day}`;
 }
 
+/**
+ * Parses a YYYY-MM-DD string as local midnight, the inverse of toIsoDate
+ * 
+ * @param {string} isoDate - Date in ISO format
+ * @return {Date} The date at local midnight
+ */
+function fromIsoDate(isoDate) {
+    const [year, month, day] = isoDate.split('-').map(Number);
+    return new Date(year, month - 1, day);
+}
+
 /**
  * Checks if two dates represent the same day
  * Compares year, month, and day (ignores time)
@@ -1,3 +1,7 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib prefix="c" uri="jakarta.tags.core" %>
+<%@ taglib prefix="fmt" uri="jakarta.tags.fmt" %>
+
 <!-- Page Header -->
 <div class="d-flex justify-content-between flex-wrap flex-md-nowrap align-items-center pt-3 pb-2 mb-3 border-bottom">
     <h1 class="h2">
@@ -96,6 +100,33 @@
                     <h6>Welcome back!</h6>
                     <p class="text-muted">Manage your goals and track your progress</p>
                 </div>
+                <c:if test="${not empty stats}">
+                    <ul class="list-group list-group-flush">
+                        <li class="list-group-item d-flex justify-content-between align-items-center">
+                            Total Goals
+                            <span class="badge bg-primary rounded-pill">${stats.goalCount}</span>
+                        </li>
+                        <li class="list-group-item d-flex justify-content-between align-items-center">
+                            Active Goals
+                            <span class="badge bg-warning text-dark rounded-pill">${stats.activeGoalCount}</span>
+                        </li>
+                        <li class="list-group-item d-flex justify-content-between align-items-center">
+                            Days Completed
+                            <span class="badge bg-success rounded-pill">${stats.completedDays} / ${stats.totalDays}</span>
+                        </li>
+                    </ul>
+                    <div class="mt-3">
+                        <div class="d-flex justify-content-between small text-muted mb-1">
+                            <span>Overall Completion</span>
+                            <span><fmt:formatNumber value="${stats.completionRate}" maxFractionDigits="1"/>%</span>
+                        </div>
+                        <div class="progress" style="height: 8px;">
+                            <div class="progress-bar bg-success" role="progressbar"
+                                 style="width: ${stats.completionRate}%"
+                                 aria-valuenow="${stats.completionRate}" aria-valuemin="0" aria-valuemax="100"></div>
+                        </div>
+                    </div>
+                </c:if>
             </div>
         </div>
     </div>
@@ -35,7 +35,7 @@
                                minlength="3"
                                maxlength="50"
                                placeholder="Choose a username (3-50 characters)">
-                        <div class="invalid-feedback">
+                        <div class="invalid-feedback" id="usernameFeedback">
                             Please choose a username between 3 and 50 characters.
                         </div>
                     </div>
@@ -51,7 +51,7 @@
                                value="${userDto.email}"
                                required 
                                placeholder="Enter your email address">
-                        <div class="invalid-feedback">
+                        <div class="invalid-feedback" id="emailFeedback">
                             Please enter a valid email address.
                         </div>
                     </div>
@@ -157,6 +157,39 @@
         
         password.addEventListener('input', validatePasswordMatch);
         confirmPassword.addEventListener('input', validatePasswordMatch);
+        
+        // Live "is this taken?" checks, debounced so typing sends one request
+        function watchAvailability(input, feedback, takenMessage) {
+            var defaultMessage = feedback.textContent;
+            var timer = null;
+            input.addEventListener('input', function() {
+                clearTimeout(timer);
+                input.setCustomValidity('');
+                feedback.textContent = defaultMessage;
+                input.classList.remove('is-invalid');
+                if (!input.value || !input.checkValidity()) {
+                    return;
+                }
+                timer = setTimeout(function() {
+                    var value = input.value;
+                    fetch('${pageContext.request.contextPath}/auth/availability?' + input.name + '=' + encodeURIComponent(value))
+                        .then(function(response) { return response.ok ? response.json() : null; })
+                        .then(function(data) {
+                            if (data && data.available === false && input.value === value) {
+                                input.setCustomValidity(takenMessage);
+                                feedback.textContent = takenMessage;
+                                input.classList.add('is-invalid');
+                            }
+                        })
+                        .catch(function() { /* the server re-checks on submit */ });
+                }, 300);
+            });
+        }
+        
+        watchAvailability(document.getElementById('username'),
+            document.getElementById('usernameFeedback'), 'This username is already taken.');
+        watchAvailability(document.getElementById('email'),
+            document.getElementById('emailFeedback'), 'An account with this email already exists.');
     });
 })();
 </script>
@@ -32,6 +32,7 @@
             
             <div class="card-body">
                 <form action="/goals/${goal.id}" method="post" modelAttribute="goal">
+                    <input type="hidden" name="idempotencyKey" value="${idempotencyKey}">
                     <div class="mb-3">
                         <label for="title" class="form-label">Goal Title *</label>
                         <input type="text" class="form-control" id="title" name="title" 
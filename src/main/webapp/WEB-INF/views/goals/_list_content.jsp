@@ -1,6 +1,7 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ taglib prefix="c" uri="jakarta.tags.core" %>
 <%@ taglib prefix="fmt" uri="jakarta.tags.fmt" %>
+<%@ taglib prefix="gt" uri="/WEB-INF/goaltracker.tld" %>
 
 <!-- Page Header -->
 <div class="row mb-5">
@@ -39,6 +40,8 @@
     <c:forEach var="goal" items="${goals}" varStatus="status">
         <div class="col-12 col-md-6 col-lg-4">
             <div class="card h-100 fade-in shadow" style="animation-delay: ${status.index * 0.1}s;">
+                <%-- Card markup is reused until the goal is edited or a day is toggled --%>
+                <gt:cache key="goal-card:${goal.id}" version="${goal.version}:${goal.completedDays}">
                 <div class="card-header">
                     <h5 class="card-title mb-0">
                         <i class="bi bi-bullseye"></i> ${goal.title}
@@ -141,6 +144,7 @@
                                 <c:if test="${goal.id != null}">
                                     <li>
                                         <form action="${pageContext.request.contextPath}/goals/${goal.id}/delete" method="post" style="display: inline;" onsubmit="return confirm('Are you sure you want to delete this goal?')">
+                                            <%-- No idempotency key: this card is cached, and deleting a goal twice has the same result --%>
                                             <button type="submit" class="dropdown-item text-danger" style="border: none; background: none; width: 100%; text-align: left;">
                                                 <i class="bi bi-trash"></i> Delete (ID: ${goal.id})
                                             </button>
@@ -151,6 +155,7 @@
                         </div>
                     </div>
                 </div>
+                </gt:cache>
             </div>
         </div>
     </c:forEach>
@@ -187,6 +192,7 @@
             </div>
             
             <form action="/goals" method="post" class="needs-validation" novalidate>
+                <input type="hidden" name="idempotencyKey" value="${idempotencyKey}">
                 <div class="modal-body">
                     <div class="row">
                         <div class="col-12 mb-3">
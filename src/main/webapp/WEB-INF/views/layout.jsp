@@ -7,6 +7,9 @@
 <head>
     <meta charset="UTF-8">
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <c:if test="${not empty apiToken}">
+    <meta name="api-token" content="${apiToken}">
+    </c:if>
     <title>Goal Tracker - ${param.pageTitle != null ? param.pageTitle : 'Professional Goal Management'}</title>
     
     <!-- Bootstrap 5 CSS -->
@@ -16,10 +19,10 @@
     <link href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.10.0/font/bootstrap-icons.css" rel="stylesheet">
     
     <!-- Custom CSS -->
-    <link href="/css/custom.css" rel="stylesheet">
+    <link href="<c:url value='/css/custom.css'/>" rel="stylesheet">
     
     <!-- Custom JavaScript -->
-    <script src="/js/calendar.js" defer></script>
+    <script src="<c:url value='/js/calendar.js'/>" defer></script>
     
     <!-- Google Fonts - Poppins -->
     <link rel="preconnect" href="https://fonts.googleapis.com">
@@ -120,7 +123,7 @@
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.0/dist/js/bootstrap.bundle.min.js"></script>
     
     <!-- Custom JavaScript -->
-    <script src="/js/calendar.js?v=3"></script>
+    <script src="<c:url value='/js/calendar.js'/>"></script>
     
     <!-- Enhanced UI Scripts -->
     <script>
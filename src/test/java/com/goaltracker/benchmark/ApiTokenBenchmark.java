@@ -0,0 +1,41 @@
+package com.goaltracker.benchmark;
+
+import com.goaltracker.security.ApiTokenService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiTokenBenchmark - Cost of issuing and verifying stateless API tokens
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ApiTokenBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiTokenBenchmark {
+
+    private ApiTokenService apiTokenService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        apiTokenService = new ApiTokenService(new byte[32], Duration.ofMinutes(15), Clock.systemUTC());
+        token = apiTokenService.issue(42L);
+    }
+
+    @Benchmark
+    public String issue() {
+        return apiTokenService.issue(42L);
+    }
+
+    @Benchmark
+    public Optional<Long> verify() {
+        return apiTokenService.verify(token);
+    }
+}
@@ -0,0 +1,114 @@
+package com.goaltracker.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.goaltracker.dto.GoalDto;
+import com.goaltracker.entity.Goal;
+import com.goaltracker.repository.GoalDayRepository;
+import com.goaltracker.repository.GoalRepository;
+import com.goaltracker.service.GoalService;
+import com.goaltracker.snapshot.GoalSnapshotCache;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * GoalListLoggingBenchmark - Goal list latency with the old System.out dumps and with level-gated SLF4J
+ * Lists 100 goals through GoalService with mocked repositories and logging
+ * at the prod level (INFO). "before" adds the println block the service used
+ * to run for every listed goal (a list dump plus one per converted DTO);
+ * the stream discards its output, so terminal I/O, which made the old code
+ * even slower, is not included.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="GoalListLoggingBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoalListLoggingBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int GOALS = 100;
+
+    private GoalService goalService;
+    private List<Goal> goals;
+
+    // Same locking and encoding as System.out (autoflush, synchronized), without the terminal
+    private final PrintStream stdout = new PrintStream(OutputStream.nullOutputStream(), true);
+
+    @Setup
+    public void setup() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.goaltracker")).setLevel(Level.INFO);
+
+        goals = new ArrayList<>();
+        LocalDate start = LocalDate.now().minusDays(30);
+        for (int i = 1; i <= GOALS; i++) {
+            Goal goal = new Goal("Goal " + i, "Benchmark goal " + i, start, start.plusDays(90));
+            goal.setId((long) i);
+            goals.add(goal);
+        }
+
+        // stubOnly: the mocks must not record the millions of benchmark invocations
+        GoalRepository goalRepository = mock(GoalRepository.class, withSettings().stubOnly());
+        when(goalRepository.findAllByUserIdOrderByCreatedAtDesc(USER_ID)).thenReturn(goals);
+        GoalSnapshotCache snapshots = mock(GoalSnapshotCache.class, withSettings().stubOnly());
+        when(snapshots.find(any(Goal.class))).thenReturn(Optional.empty());
+
+        goalService = new GoalService();
+        ReflectionTestUtils.setField(goalService, "goalRepository", goalRepository);
+        ReflectionTestUtils.setField(goalService, "goalDayRepository",
+                mock(GoalDayRepository.class, withSettings().stubOnly()));
+        ReflectionTestUtils.setField(goalService, "goalSnapshots", snapshots);
+    }
+
+    @Benchmark
+    public List<GoalDto> after() {
+        return goalService.getAllGoalsByUserId(USER_ID);
+    }
+
+    @Benchmark
+    public List<GoalDto> before() {
+        List<GoalDto> dtos = goalService.getAllGoalsByUserId(USER_ID);
+        legacyDump(dtos);
+        return dtos;
+    }
+
+    // The System.out calls removed from getAllGoalsByUserId and convertToDto
+    private void legacyDump(List<GoalDto> dtos) {
+        for (int i = 0; i < dtos.size(); i++) {
+            Goal goal = goals.get(i);
+            GoalDto dto = dtos.get(i);
+            stdout.println("=== CONVERT TO DTO DEBUG ===");
+            stdout.println("Converting Goal Entity to DTO:");
+            stdout.println("  - Goal Entity ID: " + goal.getId());
+            stdout.println("  - Goal Entity ID type: "
+                    + (goal.getId() != null ? goal.getId().getClass().getSimpleName() : "null"));
+            stdout.println("  - DTO ID after setting: " + dto.getId());
+            stdout.println("  - DTO ID type: " + (dto.getId() != null ? dto.getId().getClass().getSimpleName() : "null"));
+            stdout.println("  - DTO Title: " + dto.getTitle());
+            stdout.println("=== END CONVERT TO DTO DEBUG ===");
+        }
+        stdout.println("=== GOAL RETRIEVAL DEBUG ===");
+        stdout.println("Found " + goals.size() + " goals in database for user " + USER_ID);
+        for (int i = 0; i < goals.size(); i++) {
+            Goal goal = goals.get(i);
+            GoalDto dto = dtos.get(i);
+            stdout.println("Goal " + (i + 1) + ":");
+            stdout.println("  - Entity ID: " + goal.getId());
+            stdout.println("  - DTO ID: " + dto.getId());
+            stdout.println("  - Title: " + goal.getTitle());
+        }
+        stdout.println("=== END GOAL RETRIEVAL DEBUG ===");
+    }
+}
@@ -0,0 +1,79 @@
+package com.goaltracker.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private Timer acquireTimer;
+
+    @BeforeEach
+    void setUp() {
+        acquireTimer = Timer.builder("goaltracker.datasource.acquire").register(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getConnection_shouldTimeOutWhileAllPermitsAreInUse() throws Exception {
+        ConnectionLimitingDataSource dataSource = limitedTo(2, Duration.ofMillis(100));
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertEquals(0, dataSource.getAvailablePermits());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        assertEquals(3, acquireTimer.count());
+        assertTrue(acquireTimer.max(TimeUnit.MILLISECONDS) >= 100);
+    }
+
+    @Test
+    void close_shouldHandThePermitToAWaitingCaller() throws Exception {
+        ConnectionLimitingDataSource dataSource = limitedTo(2, Duration.ofSeconds(5));
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+        first.close();
+        try (Connection third = waiting.get(5, TimeUnit.SECONDS)) {
+            assertTrue(third.isValid(1));
+        }
+        second.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void close_shouldReleaseThePermitOnlyOnce() throws Exception {
+        ConnectionLimitingDataSource dataSource = limitedTo(2, Duration.ofSeconds(5));
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    private ConnectionLimitingDataSource limitedTo(int maxConnections, Duration acquireTimeout) {
+        return new ConnectionLimitingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:connection_limit;DB_CLOSE_DELAY=-1", "sa", ""),
+                maxConnections, acquireTimeout, acquireTimer);
+    }
+}
@@ -0,0 +1,35 @@
+package com.goaltracker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(SecondLevelCacheConfiguration.class);
+
+    @Test
+    void cache_shouldBeOnForASingleNode() {
+        contextRunner.run(context -> assertTrue(context.containsBean("hibernateCacheManager")));
+    }
+
+    @Test
+    void cache_shouldBeOffWhenAStoreIsShared() {
+        contextRunner.withPropertyValues("goaltracker.session.store=jdbc")
+                .run(context -> assertTrue(context.getBeansOfType(CacheManager.class).isEmpty()));
+        contextRunner.withPropertyValues("goaltracker.idempotency.store=jdbc")
+                .run(context -> assertTrue(context.getBeansOfType(CacheManager.class).isEmpty()));
+    }
+
+    @Test
+    void enabledProperty_shouldOverrideTheDefault() {
+        contextRunner.withPropertyValues("goaltracker.session.store=jdbc", "goaltracker.cache.enabled=true")
+                .run(context -> assertTrue(context.containsBean("hibernateCacheManager")));
+        contextRunner.withPropertyValues("goaltracker.cache.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(CacheManager.class).isEmpty()));
+    }
+}
@@ -0,0 +1,301 @@
+package com.goaltracker.controller;
+
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.User;
+import com.goaltracker.querybudget.QueryBudget;
+import com.goaltracker.querybudget.QueryBudgetConfiguration;
+import com.goaltracker.repository.GoalDayRepository;
+import com.goaltracker.repository.GoalRepository;
+import com.goaltracker.repository.UserRepository;
+import com.goaltracker.service.PasswordHashingService;
+import com.goaltracker.service.UserAvailabilityFilter;
+import com.goaltracker.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statement budgets for every controller endpoint, run through MockMvc against
+ * the Flyway-migrated H2 schema with the second-level cache cleared, i.e. the
+ * cost of a cold request.
+ *
+ * The user has {@value #RUNNING_GOALS} running and {@value #FINISHED_GOALS}
+ * finished goals, so a query issued once per goal pushes the goal lists over
+ * their budget. The finished goals are new in every test, so their snapshots
+ * are neither in memory nor stored yet and have to be built.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(QueryBudgetConfiguration.class)
+class EndpointQueryBudgetTest {
+
+    private static final int RUNNING_GOALS = 5;
+    private static final int FINISHED_GOALS = 3;
+    private static final String PASSWORD = "budget-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private GoalDayRepository goalDayRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserAvailabilityFilter availabilityFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate today = LocalDate.now();
+    private User user;
+    private Goal goal;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User("budget_" + suffix, suffix + "@example.com",
+                passwordHashingService.encode(PASSWORD)));
+        availabilityFilter.add(user.getUsername(), user.getEmail());
+
+        List<Goal> goals = new ArrayList<>();
+        for (int i = 0; i < RUNNING_GOALS; i++) {
+            goals.add(saveGoal("Running goal " + i, today.minusDays(10), today.plusDays(20)));
+        }
+        for (int i = 0; i < FINISHED_GOALS; i++) {
+            saveGoal("Finished goal " + i, today.minusDays(40 + i), today.minusDays(10 + i));
+        }
+        goal = goals.get(0);
+        goalDayRepository.toggleCompleted(goal.getId(), today);
+
+        session = new MockHttpSession();
+        session.setAttribute("userId", user.getId());
+        session.setAttribute("currentUser", userService.getUserById(user.getId()).orElseThrow());
+
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM goal_snapshot WHERE goal_id IN (SELECT id FROM goal WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM goal_day WHERE goal_id IN (SELECT id FROM goal WHERE user_id = ?)",
+                user.getId());
+        jdbcTemplate.update("DELETE FROM goal WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    @QueryBudget(max = 0)
+    void home() throws Exception {
+        mockMvc.perform(get("/").session(session))
+                .andExpect(redirectedUrl("/goals"));
+    }
+
+    // Goals, the stored snapshots and the days to build the missing ones (one query
+    // each for all finished goals), and one grouped day count for the running goals
+    @Test
+    @QueryBudget(max = 4)
+    void listGoals() throws Exception {
+        mockMvc.perform(get("/goals").session(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 4)
+    void listWorkingGoals() throws Exception {
+        mockMvc.perform(get("/goals/working").session(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 4)
+    void listCompletedGoals() throws Exception {
+        mockMvc.perform(get("/goals/completed").session(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 2)
+    void viewGoal() throws Exception {
+        mockMvc.perform(get("/goals/{id}", goal.getId()).session(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 2)
+    void editGoal() throws Exception {
+        mockMvc.perform(get("/goals/{id}/edit", goal.getId()).session(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 3)
+    void createGoal() throws Exception {
+        mockMvc.perform(post("/goals").session(session)
+                .param("title", "Budgeted goal")
+                .param("description", "Created by the query budget test")
+                .param("startDate", today.toString())
+                .param("endDate", today.plusDays(89).toString()))
+                .andExpect(redirectedUrl("/goals"))
+                .andExpect(flash().attributeExists("success"));
+    }
+
+    @Test
+    @QueryBudget(max = 6)
+    void updateGoal() throws Exception {
+        mockMvc.perform(post("/goals/{id}", goal.getId()).session(session)
+                .param("title", "Updated goal")
+                .param("description", "Updated by the query budget test")
+                .param("startDate", today.minusDays(10).toString())
+                .param("endDate", today.plusDays(79).toString()))
+                .andExpect(redirectedUrl("/goals/" + goal.getId()))
+                .andExpect(flash().attributeExists("success"));
+    }
+
+    @Test
+    @QueryBudget(max = 5)
+    void deleteGoal() throws Exception {
+        mockMvc.perform(post("/goals/{id}/delete", goal.getId()).session(session))
+                .andExpect(redirectedUrl("/goals"))
+                .andExpect(flash().attributeExists("success"));
+    }
+
+    @Test
+    @QueryBudget(max = 3)
+    void toggleGoalDay() throws Exception {
+        mockMvc.perform(post("/api/goals/{id}/days/{date}/toggle", goal.getId(), today).session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(false));
+    }
+
+    @Test
+    @QueryBudget(max = 2)
+    void goalProgress() throws Exception {
+        mockMvc.perform(get("/api/goals/{id}/progress", goal.getId()).session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completedDays").value(1));
+    }
+
+    @Test
+    @QueryBudget(max = 2)
+    void goalDays() throws Exception {
+        mockMvc.perform(get("/api/goals/{id}/days", goal.getId()).session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days.length()").value(11));
+    }
+
+    @Test
+    @QueryBudget(max = 2)
+    void goalDaysWindow() throws Exception {
+        mockMvc.perform(get("/api/goals/{id}/days", goal.getId()).session(session)
+                .param("from", today.withDayOfMonth(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+    }
+
+    @Test
+    @QueryBudget(max = 0)
+    void loginPage() throws Exception {
+        mockMvc.perform(get("/auth/login"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 1)
+    void login() throws Exception {
+        mockMvc.perform(post("/auth/login")
+                .param("username", user.getUsername())
+                .param("password", PASSWORD))
+                .andExpect(redirectedUrl("/goals"));
+    }
+
+    @Test
+    @QueryBudget(max = 0)
+    void registerPage() throws Exception {
+        mockMvc.perform(get("/auth/register"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 2)
+    void register() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        try {
+            mockMvc.perform(post("/auth/register")
+                    .param("username", "new_" + suffix)
+                    .param("email", "new_" + suffix + "@example.com")
+                    .param("password", PASSWORD)
+                    .param("confirmPassword", PASSWORD))
+                    .andExpect(redirectedUrl("/goals"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE username = ?", "new_" + suffix);
+        }
+    }
+
+    // One lookup for each value the availability filter cannot rule out
+    @Test
+    @QueryBudget(max = 2)
+    void availability() throws Exception {
+        mockMvc.perform(get("/auth/availability")
+                .param("username", user.getUsername())
+                .param("email", "free_" + UUID.randomUUID() + "@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable").value(false));
+    }
+
+    @Test
+    @QueryBudget(max = 1)
+    void profile() throws Exception {
+        mockMvc.perform(get("/auth/profile").session(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(max = 0)
+    void logout() throws Exception {
+        mockMvc.perform(get("/auth/logout").session(session))
+                .andExpect(redirectedUrl("/auth/login"));
+    }
+
+    private Goal saveGoal(String title, LocalDate start, LocalDate end) {
+        Goal saved = new Goal(title, null, start, end);
+        saved.setUser(user);
+        saved = goalRepository.save(saved);
+        goalDayRepository.insertMissingDays(saved.getId(), start, today.isBefore(end) ? today : end);
+        return saved;
+    }
+}
@@ -1,16 +1,21 @@
 package com.goaltracker.controller;
 
+import com.goaltracker.dto.GoalDayDto;
 import com.goaltracker.dto.GoalDto;
+import com.goaltracker.security.ApiTokenAuthenticationFilter;
 import com.goaltracker.service.GoalService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -26,11 +31,19 @@ class GoalApiControllerTest {
     @MockBean
     private GoalService goalService;
 
+    private final MockHttpSession session = new MockHttpSession();
+
+    @BeforeEach
+    void logIn() {
+        session.setAttribute("userId", 7L);
+        Mockito.when(goalService.isOwnedBy(1L, 7L)).thenReturn(true);
+    }
+
     @Test
     void toggleGoalDay_shouldReturnCompletedJson() throws Exception {
         Mockito.when(goalService.toggleGoalDay(1L, LocalDate.parse("2024-01-10"))).thenReturn(true);
 
-        mockMvc.perform(post("/api/goals/1/days/2024-01-10/toggle")
+        mockMvc.perform(post("/api/goals/1/days/2024-01-10/toggle").session(session)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success", is(true)))
@@ -46,11 +59,53 @@ class GoalApiControllerTest {
         dto.setTotalDays(20);
         Mockito.when(goalService.getGoalById(1L)).thenReturn(dto);
 
-        mockMvc.perform(get("/api/goals/1/progress"))
+        mockMvc.perform(get("/api/goals/1/progress").session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success", is(true)))
                 .andExpect(jsonPath("$.progressPercentage", is(75.0)))
                 .andExpect(jsonPath("$.completedDays", is(15)))
                 .andExpect(jsonPath("$.totalDays", is(20)));
     }
+
+    @Test
+    void getGoalDays_shouldDefaultWindowToMonthOfFrom() throws Exception {
+        LocalDate from = LocalDate.parse("2024-02-01");
+        LocalDate to = LocalDate.parse("2024-02-29");
+        Mockito.when(goalService.getGoalDays(1L, from, to))
+                .thenReturn(List.of(new GoalDayDto(from, true, null)));
+
+        mockMvc.perform(get("/api/goals/1/days").session(session).param("from", "2024-02-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days[0].dayDate", is("2024-02-01")))
+                .andExpect(jsonPath("$.days[0].completed", is(true)))
+                .andExpect(jsonPath("$.to", is("2024-02-29")))
+                .andExpect(jsonPath("$.nextFrom", is("2024-03-01")));
+    }
+
+    @Test
+    void getProgress_shouldRequireACaller() throws Exception {
+        mockMvc.perform(get("/api/goals/1/progress"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.success", is(false)));
+
+        Mockito.verify(goalService, Mockito.never()).getGoalById(1L);
+    }
+
+    @Test
+    void toggleGoalDay_shouldTreatAnotherUsersGoalAsMissing() throws Exception {
+        mockMvc.perform(post("/api/goals/2/days/2024-01-10/toggle").session(session))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Goal not found with id: 2")));
+
+        Mockito.verify(goalService, Mockito.never()).toggleGoalDay(Mockito.eq(2L), Mockito.any());
+    }
+
+    @Test
+    void getGoalDays_shouldAcceptTheUserOfAnApiToken() throws Exception {
+        Mockito.when(goalService.getGoalDays(1L)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/goals/1/days").requestAttr(ApiTokenAuthenticationFilter.USER_ID_ATTRIBUTE, 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)));
+    }
 }
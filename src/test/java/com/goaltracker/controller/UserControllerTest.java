@@ -0,0 +1,101 @@
+package com.goaltracker.controller;
+
+import com.goaltracker.ratelimit.LoginThrottle;
+import com.goaltracker.service.TooManyRequestsException;
+import com.goaltracker.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = { UserController.class })
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private LoginThrottle loginThrottle;
+
+    @Test
+    void processLogin_shouldShowTheFormAgainWhenThrottled() throws Exception {
+        Mockito.doThrow(new TooManyRequestsException("Too many attempts, please try again later",
+                Duration.ofSeconds(30))).when(loginThrottle).acquireLogin(Mockito.eq("alice"), Mockito.any());
+
+        mockMvc.perform(post("/auth/login").param("username", "alice").param("password", "secret"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"))
+                .andExpect(view().name("auth/login"))
+                .andExpect(model().attribute("error", is("Too many attempts, please try again later")));
+
+        Mockito.verify(userService, Mockito.never()).authenticateUser(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void processRegistration_shouldKeepTheEnteredDataWhenHashingIsSaturated() throws Exception {
+        Mockito.when(userService.registerUser(Mockito.any()))
+                .thenThrow(new TooManyRequestsException("Server is busy, please try again", Duration.ofSeconds(1)));
+
+        mockMvc.perform(post("/auth/register")
+                .param("username", "alice")
+                .param("email", "alice@example.com")
+                .param("password", "secret123")
+                .param("confirmPassword", "secret123"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(view().name("auth/register"))
+                .andExpect(model().attribute("error", is("Server is busy, please try again")))
+                .andExpect(model().attribute("userDto", hasProperty("username", is("alice"))));
+    }
+
+    @Test
+    void checkAvailability_shouldReportEachGivenField() throws Exception {
+        Mockito.when(userService.isUsernameAvailable("alice")).thenReturn(true);
+        Mockito.when(userService.isEmailAvailable("taken@example.com")).thenReturn(false);
+
+        mockMvc.perform(get("/auth/availability").param("username", "alice").param("email", "taken@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable", is(true)))
+                .andExpect(jsonPath("$.emailAvailable", is(false)))
+                .andExpect(jsonPath("$.available", is(false)));
+    }
+
+    @Test
+    void checkAvailability_shouldBeThrottledLikeRegistrations() throws Exception {
+        Mockito.doThrow(new TooManyRequestsException("Too many attempts, please try again later",
+                Duration.ofSeconds(2))).when(loginThrottle).acquireRegistration(Mockito.any());
+
+        mockMvc.perform(get("/auth/availability").param("username", "alice"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.available").doesNotExist());
+
+        Mockito.verify(userService, Mockito.never()).isUsernameAvailable(Mockito.any());
+    }
+
+    @Test
+    void checkAvailability_shouldSkipBlankFields() throws Exception {
+        Mockito.when(userService.isUsernameAvailable("alice")).thenReturn(true);
+
+        mockMvc.perform(get("/auth/availability").param("username", "alice").param("email", " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available", is(true)))
+                .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+
+        Mockito.verify(userService, Mockito.never()).isEmailAvailable(Mockito.any());
+    }
+}
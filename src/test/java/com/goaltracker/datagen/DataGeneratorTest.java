@@ -0,0 +1,101 @@
+package com.goaltracker.datagen;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The generator commits its own chunks, so each test runs outside a test
+ * transaction and clears the tables afterwards.
+ */
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataGeneratorTest {
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM goal_day");
+        jdbcTemplate.update("DELETE FROM goal");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void generate_shouldWriteEveryDayOfEveryGoal() throws Exception {
+        DataGenerator.Summary summary = generator(7).generate();
+
+        assertEquals(50, summary.getUsers());
+        assertEquals(summary.getUsers(), count("SELECT COUNT(*) FROM users"));
+        assertEquals(summary.getGoals(), count("SELECT COUNT(*) FROM goal"));
+        assertEquals(summary.getGoalDays(), count("SELECT COUNT(*) FROM goal_day"));
+        assertEquals(summary.getGoalDays(),
+                count("SELECT COALESCE(SUM(DATEDIFF(DAY, start_date, end_date) + 1), 0) FROM goal"));
+        assertEquals(0, count("SELECT COUNT(*) FROM goal_day WHERE completed AND day_date >= ?", REFERENCE_DATE));
+        assertTrue(count("SELECT COUNT(*) FROM goal_day WHERE completed") > 0);
+    }
+
+    @Test
+    void generate_shouldMoveIdentityPastGeneratedRows() throws Exception {
+        generator(7).generate();
+        long maxId = count("SELECT MAX(id) FROM users");
+
+        jdbcTemplate.update("INSERT INTO users (username, email, password, created_at)"
+                + " VALUES ('after_load', 'after_load@example.com', 'x', CURRENT_TIMESTAMP)");
+
+        assertEquals(maxId + 1, count("SELECT id FROM users WHERE username = 'after_load'"));
+    }
+
+    @Test
+    void generate_shouldBeReproducibleForTheSameSeed() throws Exception {
+        generator(7).generate();
+        List<String> first = goalShapes();
+        cleanUp();
+
+        generator(7).generate();
+        assertEquals(first, goalShapes());
+        cleanUp();
+
+        generator(8).generate();
+        assertNotEquals(first, goalShapes());
+    }
+
+    private DataGenerator generator(long seed) {
+        DataGenerator.Settings settings = new DataGenerator.Settings()
+                .users(50)
+                .goalsPerUser(3, 10)
+                .goalLength(30, 0.5, 90)
+                .historyDays(120)
+                .referenceDate(REFERENCE_DATE)
+                .seed(seed)
+                .batchSize(500);
+        return new DataGenerator(dataSource, settings, "hashed-password");
+    }
+
+    // Everything about each goal except its ids, in generation order
+    private List<String> goalShapes() {
+        return jdbcTemplate.queryForList("SELECT g.title || ' ' || g.start_date || ' ' || g.end_date || ' '"
+                + " || (SELECT COUNT(*) FROM goal_day d WHERE d.goal_id = g.id AND d.completed)"
+                + " FROM goal g ORDER BY g.id", String.class);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,178 @@
+package com.goaltracker.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100);
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofHours(1));
+    private final AtomicInteger toggles = new AtomicInteger();
+
+    // Stands in for the toggle endpoint: every call flips the day
+    private final FilterChain toggleChain = (request, response) -> {
+        response.setContentType("application/json");
+        response.getWriter().write("{\"completed\":" + (toggles.incrementAndGet() % 2 == 1) + "}");
+    };
+
+    @Test
+    void retryWithSameKey_shouldReplayFirstResponse() throws Exception {
+        MockHttpServletResponse first = send(toggleRequest("key-1"), toggleChain);
+        MockHttpServletResponse retry = send(toggleRequest("key-1"), toggleChain);
+
+        assertEquals(1, toggles.get());
+        assertEquals("{\"completed\":true}", retry.getContentAsString());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        send(toggleRequest("key-2"), toggleChain);
+        assertEquals(2, toggles.get());
+    }
+
+    @Test
+    void sameKeyForDifferentRequest_shouldBeRejected() throws Exception {
+        send(toggleRequest("key-1"), toggleChain);
+
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/api/goals/1/days/2024-01-11/toggle");
+        other.addHeader(IdempotencyFilter.HEADER, "key-1");
+        MockHttpServletResponse response = send(other, toggleChain);
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, toggles.get());
+    }
+
+    @Test
+    void serverError_shouldReleaseKeyForRetry() throws Exception {
+        FilterChain failing = (request, response) -> ((HttpServletResponse) response).setStatus(503);
+
+        assertEquals(503, send(toggleRequest("key-1"), failing).getStatus());
+        assertEquals(0, store.size());
+
+        send(toggleRequest("key-1"), toggleChain);
+        assertEquals(1, toggles.get());
+    }
+
+    @Test
+    void failedDelete_shouldReleaseKeyForRetry() throws Exception {
+        // Stands in for GoalController.deleteGoal: the first attempt fails and redirects with an error flash
+        AtomicInteger attempts = new AtomicInteger();
+        FilterChain delete = (request, response) -> {
+            FlashMap flash = new FlashMap();
+            flash.put(attempts.incrementAndGet() == 1 ? "error" : "success", "...");
+            request.setAttribute(DispatcherServlet.OUTPUT_FLASH_MAP_ATTRIBUTE, flash);
+            ((HttpServletResponse) response).sendRedirect("/goals");
+        };
+
+        assertEquals(302, send(deleteRequest("delete-key"), delete).getStatus());
+        assertEquals(0, store.size());
+
+        MockHttpServletResponse retry = send(deleteRequest("delete-key"), delete);
+        assertEquals(2, attempts.get());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        // The successful attempt is stored and replayed
+        send(deleteRequest("delete-key"), delete);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void clientErrorOrHandlerException_shouldNotBeStored() throws Exception {
+        FilterChain badRequest = (request, response) -> ((HttpServletResponse) response).setStatus(400);
+        FilterChain resolvedException = (request, response) -> {
+            request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE, new IllegalStateException("boom"));
+            ((HttpServletResponse) response).sendRedirect("/error");
+        };
+
+        send(toggleRequest("key-1"), badRequest);
+        send(toggleRequest("key-2"), resolvedException);
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void fullStore_shouldKeepReplayingRecentKeys() throws Exception {
+        InMemoryIdempotencyStore small = new InMemoryIdempotencyStore(10);
+        long now = Instant.now().getEpochSecond();
+        for (int i = 0; i < 10; i++) {
+            small.complete("old-" + i, IdempotencyRecord.completed("f", now + 60 + i, 200, null, null, null));
+        }
+        IdempotencyFilter smallFilter = new IdempotencyFilter(small, Duration.ofHours(1));
+
+        // Each new key finds the store full and has to make room
+        send(smallFilter, toggleRequest("recent"), toggleChain);
+        send(smallFilter, toggleRequest("next"), toggleChain);
+        MockHttpServletResponse retry = send(smallFilter, toggleRequest("recent"), toggleChain);
+
+        assertEquals(2, toggles.get());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        // Only the oldest finished key went each time
+        assertEquals(10, small.size());
+        assertTrue(small.find("old-1").isEmpty());
+        assertTrue(small.find("old-2").isPresent());
+    }
+
+    @Test
+    void requestsWithoutKey_shouldPassThrough() throws Exception {
+        send(new MockHttpServletRequest("POST", "/api/goals/1/days/2024-01-10/toggle"), toggleChain);
+        send(new MockHttpServletRequest("POST", "/api/goals/1/days/2024-01-10/toggle"), toggleChain);
+
+        assertEquals(2, toggles.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void formParameter_shouldWorkLikeHeader() throws Exception {
+        FilterChain redirect = (request, response) -> {
+            toggles.incrementAndGet();
+            ((HttpServletResponse) response).sendRedirect("/goals");
+        };
+
+        send(formRequest("form-key"), redirect);
+        MockHttpServletResponse retry = send(formRequest("form-key"), redirect);
+
+        assertEquals(1, toggles.get());
+        assertEquals(302, retry.getStatus());
+        assertEquals("/goals", retry.getHeader("Location"));
+    }
+
+    private static MockHttpServletRequest toggleRequest(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/goals/1/days/2024-01-10/toggle");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        return request;
+    }
+
+    private static MockHttpServletRequest deleteRequest(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/goals/1/delete");
+        request.addParameter(IdempotencyFilter.PARAMETER, key);
+        return request;
+    }
+
+    private static MockHttpServletRequest formRequest(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/goals");
+        request.addParameter("title", "Read more");
+        request.addParameter(IdempotencyFilter.PARAMETER, key);
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        return send(filter, request, chain);
+    }
+
+    private static MockHttpServletResponse send(IdempotencyFilter filter, MockHttpServletRequest request,
+            FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
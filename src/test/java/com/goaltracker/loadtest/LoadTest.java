@@ -0,0 +1,174 @@
+package com.goaltracker.loadtest;
+
+import com.goaltracker.GoalTrackerApplication;
+import com.goaltracker.datagen.DataGenerator;
+import com.goaltracker.service.PasswordHashingService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadTest - End-to-end load test of the goal endpoints over HTTP
+ * Boots the application on a random port with the loadtest profile (in-memory
+ * H2), seeds it with {@link DataGenerator}, and runs one {@link VirtualUser}
+ * per simulated user, each with its own login session. Once all users have
+ * logged in (see {@link LoadTestSchedule}), they run for the warm-up plus
+ * the measured duration. Prints requests per second and latency percentiles
+ * per endpoint and writes them to {@code loadtest.report-dir}. With
+ * {@code loadtest.baseline} set to an earlier summary.csv, the run fails if
+ * any endpoint's p99 or throughput is more than {@code loadtest.max-regression}
+ * worse.
+ *
+ * Users run on virtual threads when the JVM has them (Java 21), otherwise on
+ * platform threads. Run with:
+ * mvn -Ploadtest test-compile exec:exec [-Dloadtest.args="--loadtest.users=200 --loadtest.duration=PT60S"]
+ *
+ * Options are ordinary Spring properties, so other settings can be passed the
+ * same way, e.g. --spring.profiles.active=local-prod --loadtest.generate=false
+ * to run against data loaded into PostgreSQL by the datagen profile, or
+ * --spring.threads.virtual.enabled=true to compare the server's
+ * virtual-thread mode with the default platform-thread pool.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(GoalTrackerApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        boolean passed;
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            passed = run(context);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(ConfigurableApplicationContext context) throws Exception {
+        Environment env = context.getEnvironment();
+        int users = env.getProperty("loadtest.users", Integer.class, 50);
+        Duration warmup = env.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+        Duration duration = env.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+        Duration thinkTime = env.getProperty("loadtest.think-time", Duration.class, Duration.ofMillis(50));
+        Duration loginTimeout = env.getProperty("loadtest.login-timeout", Duration.class, Duration.ofMinutes(5));
+        long seed = env.getProperty("loadtest.seed", Long.class, 42L);
+        String password = env.getProperty("loadtest.password", "password123");
+        Path reportDir = Path.of(env.getProperty("loadtest.report-dir", "target/loadtest"));
+        String baseline = env.getProperty("loadtest.baseline");
+        double maxRegression = env.getProperty("loadtest.max-regression", Double.class, 0.2);
+
+        DataSource dataSource = context.getBean(DataSource.class);
+        if (env.getProperty("loadtest.generate", Boolean.class, true)) {
+            DataGenerator.Settings settings = new DataGenerator.Settings()
+                    .users(users)
+                    .goalsPerUser(env.getProperty("loadtest.goals-per-user", Double.class, 10.0), 100)
+                    .seed(seed);
+            String hash = context.getBean(PasswordHashingService.class).encode(password);
+            new DataGenerator(dataSource, settings, hash).generate();
+        }
+        List<VirtualUser.Account> accounts = loadAccounts(new JdbcTemplate(dataSource), users);
+        if (accounts.isEmpty()) {
+            throw new IllegalStateException("No load_user_* accounts found; run with --loadtest.generate=true");
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI baseUri = URI.create("http://localhost:" + port + "/");
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        LoadTestReport report = new LoadTestReport();
+        LoadTestSchedule schedule = new LoadTestSchedule(users, loginTimeout);
+        System.out.printf("Load test: %d users on %s for %s after %s warm-up, think time %s, server on %s%n",
+                users, threadKind(), duration, warmup, thinkTime,
+                Threading.VIRTUAL.isActive(env) ? "virtual threads" : "platform threads");
+
+        ExecutorService executor = newUserExecutor();
+        for (int i = 0; i < users; i++) {
+            executor.execute(new VirtualUser(client, baseUri, accounts.get(i % accounts.size()), password, report,
+                    schedule, thinkTime, seed + i));
+        }
+        long loginStart = System.nanoTime();
+        int failedLogins = schedule.start(warmup, duration);
+        System.out.printf("%d users logged in after %d s%s%n", users - failedLogins,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - loginStart),
+                failedLogins > 0 ? ", " + failedLogins + " could not" : "");
+        executor.shutdown();
+        if (!executor.awaitTermination(warmup.plus(duration).plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+
+        report.print(System.out, duration);
+        report.write(reportDir, duration);
+        System.out.println("Report written to " + reportDir.toAbsolutePath());
+
+        if (baseline == null || baseline.isBlank()) {
+            return true;
+        }
+        boolean passed = LoadTestReport.compare(LoadTestReport.read(Path.of(baseline)),
+                report.summarize(duration), maxRegression, System.out);
+        System.out.println(passed ? "No regression against " + baseline
+                : "Regression of more than " + Math.round(maxRegression * 100) + "% against " + baseline);
+        return passed;
+    }
+
+    // Goals running today are the ones whose day can be toggled
+    private static List<VirtualUser.Account> loadAccounts(JdbcTemplate jdbcTemplate, int limit) {
+        Date today = Date.valueOf(LocalDate.now());
+        Map<String, List<Long>> goals = new LinkedHashMap<>();
+        Map<String, List<Long>> running = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT u.username, g.id, g.start_date <= ? AND g.end_date >= ? AS running"
+                + " FROM (SELECT id, username FROM users WHERE username LIKE 'load\\_user\\_%' ORDER BY id LIMIT ?) u"
+                + " LEFT JOIN goal g ON g.user_id = u.id ORDER BY u.id, g.id", rs -> {
+                    String username = rs.getString(1);
+                    goals.computeIfAbsent(username, name -> new ArrayList<>());
+                    running.computeIfAbsent(username, name -> new ArrayList<>());
+                    long goalId = rs.getLong(2);
+                    if (!rs.wasNull()) {
+                        goals.get(username).add(goalId);
+                        if (rs.getBoolean(3)) {
+                            running.get(username).add(goalId);
+                        }
+                    }
+                }, today, today, limit);
+
+        List<VirtualUser.Account> accounts = new ArrayList<>();
+        goals.forEach((username, ids) -> accounts.add(new VirtualUser.Account(username, ids, running.get(username))));
+        return accounts;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() only exists from Java 21; the build targets 17
+    private static ExecutorService newUserExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static String threadKind() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return "virtual threads";
+        } catch (NoSuchMethodException e) {
+            return "platform threads";
+        }
+    }
+}
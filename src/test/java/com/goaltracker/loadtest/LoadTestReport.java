@@ -0,0 +1,167 @@
+package com.goaltracker.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadTestReport - Latency histograms and error counts per operation
+ * Latencies are recorded in microseconds into HDR histograms. The report is
+ * printed as a table and written to a directory as summary.csv plus one
+ * percentile distribution (.hgrm) per operation, which HdrHistogram's plotter
+ * reads. A summary.csv from an earlier run can serve as the baseline.
+ */
+class LoadTestReport {
+
+    private static final String HEADER = "operation,requests,errors,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    // Anything slower than a minute is recorded as a minute
+    private static final long MAX_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos, boolean success) {
+        Operation op = operations.computeIfAbsent(operation, name -> new Operation());
+        if (success) {
+            op.histogram.recordValue(Math.min(Math.max(nanos / 1000, 1), MAX_MICROS));
+        } else {
+            op.errors.increment();
+        }
+    }
+
+    /**
+     * Summarizes every operation over the measured period
+     *
+     * @param measured Length of the measured period, for the request rate
+     * @return One row per operation, sorted by name
+     */
+    Map<String, Row> summarize(Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        Map<String, Row> rows = new LinkedHashMap<>();
+        operations.keySet().stream().sorted().forEach(name -> {
+            Operation op = operations.get(name);
+            Histogram h = op.histogram;
+            rows.put(name, new Row(h.getTotalCount(), op.errors.sum(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue())));
+        });
+        return rows;
+    }
+
+    void print(PrintStream out, Duration measured) {
+        out.printf("%-42s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        summarize(measured).forEach((name, row) -> out.printf(Locale.ROOT,
+                "%-42s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, row.requests, row.errors, row.rps,
+                row.p50, row.p90, row.p99, row.p999, row.max));
+    }
+
+    void write(Path directory, Duration measured) throws IOException {
+        Files.createDirectories(directory);
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        summarize(measured).forEach((name, row) -> lines.add(String.format(Locale.ROOT,
+                "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f", name, row.requests, row.errors, row.rps,
+                row.p50, row.p90, row.p99, row.p999, row.max)));
+        Files.write(directory.resolve("summary.csv"), lines);
+
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                // Values are in microseconds; scale the output to milliseconds
+                entry.getValue().histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    /**
+     * Reads a summary.csv written by {@link #write}
+     */
+    static Map<String, Row> read(Path summary) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(summary)) {
+            if (line.isBlank() || line.equals(HEADER)) {
+                continue;
+            }
+            String[] f = line.split(",");
+            rows.put(f[0], new Row(Long.parseLong(f[1]), Long.parseLong(f[2]), Double.parseDouble(f[3]),
+                    Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+                    Double.parseDouble(f[7]), Double.parseDouble(f[8])));
+        }
+        return rows;
+    }
+
+    /**
+     * Prints p99 and throughput against a baseline
+     *
+     * @param maxRegression Allowed relative p99 increase or throughput drop, e.g. 0.2 for 20%
+     * @return true if no operation regressed by more than that
+     */
+    static boolean compare(Map<String, Row> baseline, Map<String, Row> current, double maxRegression,
+            PrintStream out) {
+        boolean passed = true;
+        out.printf("%-42s %12s %12s %8s %12s %12s %8s%n",
+                "operation", "base p99", "p99", "change", "base rps", "rps", "change");
+        for (Map.Entry<String, Row> entry : current.entrySet()) {
+            Row base = baseline.get(entry.getKey());
+            if (base == null) {
+                continue;
+            }
+            Row row = entry.getValue();
+            double p99Change = base.p99 > 0 ? row.p99 / base.p99 - 1 : 0;
+            double rpsChange = base.rps > 0 ? row.rps / base.rps - 1 : 0;
+            boolean regressed = p99Change > maxRegression || -rpsChange > maxRegression;
+            passed &= !regressed;
+            out.printf(Locale.ROOT, "%-42s %12.2f %12.2f %+7.1f%% %12.1f %12.1f %+7.1f%%%s%n", entry.getKey(),
+                    base.p99, row.p99, p99Change * 100, base.rps, row.rps, rpsChange * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return passed;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static class Operation {
+        private final Histogram histogram = new ConcurrentHistogram(MAX_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Row - Summary of one operation; latencies in milliseconds
+     */
+    static class Row {
+        final long requests;
+        final long errors;
+        final double rps;
+        final double p50;
+        final double p90;
+        final double p99;
+        final double p999;
+        final double max;
+
+        Row(long requests, long errors, double rps, double p50, double p90, double p99, double p999, double max) {
+            this.requests = requests;
+            this.errors = errors;
+            this.rps = rps;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+    }
+}
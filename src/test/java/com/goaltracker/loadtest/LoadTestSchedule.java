@@ -0,0 +1,64 @@
+package com.goaltracker.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadTestSchedule - Login phase, warm-up and measured window shared by all users
+ * Users log in first and report in with {@link #loggedIn(boolean)}; once all
+ * of them have (or the login timeout has passed), {@link #start(Duration, Duration)}
+ * opens the scenario phase. A login storm is BCrypt-bound and would
+ * otherwise dominate the latencies of the scenario requests.
+ */
+class LoadTestSchedule {
+
+    private final CountDownLatch loginsDone;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final long loginDeadline;
+    private volatile int failedLogins;
+    // Nothing is recorded before start()
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile long stopAt;
+
+    LoadTestSchedule(int users, Duration loginTimeout) {
+        this.loginsDone = new CountDownLatch(users);
+        this.loginDeadline = System.nanoTime() + loginTimeout.toNanos();
+    }
+
+    boolean loginTimedOut() {
+        return System.nanoTime() >= loginDeadline;
+    }
+
+    synchronized void loggedIn(boolean success) {
+        if (!success) {
+            failedLogins++;
+        }
+        loginsDone.countDown();
+    }
+
+    /**
+     * Waits for the logins, then starts the warm-up
+     *
+     * @return Number of users that could not log in
+     */
+    int start(Duration warmup, Duration duration) throws InterruptedException {
+        loginsDone.await(Math.max(0, loginDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        measureFrom = System.nanoTime() + warmup.toNanos();
+        stopAt = measureFrom + duration.toNanos();
+        started.countDown();
+        return failedLogins + (int) loginsDone.getCount();
+    }
+
+    void awaitStart() throws InterruptedException {
+        started.await();
+    }
+
+    long measureFrom() {
+        return measureFrom;
+    }
+
+    long stopAt() {
+        return stopAt;
+    }
+}
@@ -0,0 +1,179 @@
+package com.goaltracker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * VirtualUser - One simulated user session driving the goal endpoints
+ * Logs in through the login form and keeps its session cookie. Once every
+ * user has logged in, repeats the scenario list goals, view a goal, read its
+ * progress and toggle today on a running goal, pausing for the think time
+ * between requests, until the test ends. Only scenario requests started
+ * after the warm-up are recorded.
+ */
+class VirtualUser implements Runnable {
+
+    private static final Duration LOGIN_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Account account;
+    private final String password;
+    private final LoadTestReport report;
+    private final LoadTestSchedule schedule;
+    private final Duration thinkTime;
+    private final SplittableRandom random;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    VirtualUser(HttpClient client, URI baseUri, Account account, String password, LoadTestReport report,
+            LoadTestSchedule schedule, Duration thinkTime, long seed) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.account = account;
+        this.password = password;
+        this.report = report;
+        this.schedule = schedule;
+        this.thinkTime = thinkTime;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void run() {
+        try {
+            boolean loggedIn = login();
+            schedule.loggedIn(loggedIn);
+            if (!loggedIn) {
+                return;
+            }
+            schedule.awaitStart();
+            while (System.nanoTime() < schedule.stopAt()) {
+                send("GET /goals", get("/goals"), 200);
+                think();
+
+                if (!account.goalIds.isEmpty()) {
+                    long goalId = pick(account.goalIds);
+                    send("GET /goals/{id}", get("/goals/" + goalId), 200);
+                    think();
+                    send("GET /api/goals/{id}/progress", get("/api/goals/" + goalId + "/progress"), 200);
+                    think();
+                }
+
+                if (!account.runningGoalIds.isEmpty()) {
+                    long goalId = pick(account.runningGoalIds);
+                    send("POST /api/goals/{id}/days/{date}/toggle",
+                            post("/api/goals/" + goalId + "/days/" + LocalDate.now() + "/toggle", ""), 200);
+                    think();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Retried until it succeeds: a burst of logins can be turned away while BCrypt is saturated
+    private boolean login() throws InterruptedException {
+        String form = "username=" + URLEncoder.encode(account.username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        while (!schedule.loginTimedOut()) {
+            HttpResponse<Void> response = send("POST /auth/login", post("/auth/login", form), VirtualUser::isLoggedIn);
+            if (response != null && isLoggedIn(response)) {
+                return true;
+            }
+            Thread.sleep(LOGIN_RETRY_DELAY.toMillis() + random.nextInt(1000));
+        }
+        return false;
+    }
+
+    // A rejected login redirects back to the login page or answers 429
+    private static boolean isLoggedIn(HttpResponse<Void> response) {
+        return response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").endsWith("/goals");
+    }
+
+    private HttpResponse<Void> send(String operation, HttpRequest.Builder request, int expectedStatus)
+            throws InterruptedException {
+        return send(operation, request, response -> response.statusCode() == expectedStatus);
+    }
+
+    private HttpResponse<Void> send(String operation, HttpRequest.Builder request,
+            Predicate<HttpResponse<Void>> success) throws InterruptedException {
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", cookies.entrySet().stream()
+                    .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            record(operation, start, false);
+            return null;
+        }
+        record(operation, start, success.test(response));
+
+        for (String setCookie : response.headers().allValues("Set-Cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+        return response;
+    }
+
+    private void record(String operation, long start, boolean success) {
+        if (start >= schedule.measureFrom()) {
+            report.record(operation, System.nanoTime() - start, success);
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String form) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+    }
+
+    private long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private void think() throws InterruptedException {
+        if (!thinkTime.isZero()) {
+            Thread.sleep(thinkTime.toMillis());
+        }
+    }
+
+    /**
+     * Account - A seeded user and the goals the scenario works on
+     */
+    static class Account {
+        final String username;
+        final List<Long> goalIds;
+        final List<Long> runningGoalIds;
+
+        Account(String username, List<Long> goalIds, List<Long> runningGoalIds) {
+            this.username = username;
+            this.goalIds = goalIds;
+            this.runningGoalIds = runningGoalIds;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.goaltracker.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestQueryCountFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestQueryCountFilter filter = new RequestQueryCountFilter(registry);
+    private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+    @Test
+    void doFilter_shouldRecordStatementsPerRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goals/7/days");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/goals/{goalId}/days");
+            inspector.inspect("select * from goal where id=?");
+            inspector.inspect("select * from goal_day where goal_id=?");
+        });
+
+        DistributionSummary queries = registry.get("goaltracker.request.queries")
+                .tag("uri", "/api/goals/{goalId}/days")
+                .summary();
+        assertEquals(1, queries.count());
+        assertEquals(2.0, queries.totalAmount());
+    }
+
+    @Test
+    void inspect_shouldNotCountOutsideRequests() {
+        assertEquals("select 1", inspector.inspect("select 1"));
+        assertEquals(0, QueryCountingStatementInspector.stop());
+    }
+}
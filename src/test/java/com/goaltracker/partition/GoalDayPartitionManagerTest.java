@@ -0,0 +1,53 @@
+package com.goaltracker.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalDayPartitionManagerTest {
+
+    @Test
+    void quartersToCreate_shouldStartAtCurrentQuarter() {
+        List<LocalDate> quarters = GoalDayPartitionManager.quartersToCreate(LocalDate.of(2024, 11, 20), 2, null);
+
+        assertEquals(List.of(LocalDate.of(2024, 10, 1), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1)),
+                quarters);
+        assertEquals("goal_day_2024q4", GoalDayPartitionManager.partitionName(quarters.get(0)));
+        assertEquals("goal_day_2025q2", GoalDayPartitionManager.partitionName(quarters.get(2)));
+    }
+
+    @Test
+    void quartersToCreate_shouldReachTheLatestDayBeyondThePremadeQuarters() {
+        // A goal ending in August 2025 has days waiting in the default partition
+        List<LocalDate> quarters = GoalDayPartitionManager.quartersToCreate(LocalDate.of(2024, 11, 20), 1,
+                LocalDate.of(2025, 8, 15));
+
+        assertEquals(List.of(LocalDate.of(2024, 10, 1), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1),
+                LocalDate.of(2025, 7, 1)), quarters);
+        // Days within the premade quarters add nothing
+        assertEquals(2, GoalDayPartitionManager.quartersToCreate(LocalDate.of(2024, 11, 20), 1,
+                LocalDate.of(2024, 12, 31)).size());
+    }
+
+    @Test
+    void expiredPartitions_shouldOnlyReturnQuartersFullyBeforeRetention() {
+        List<String> attached = List.of("goal_day_2022q4", "goal_day_default", "goal_day_2022q2",
+                "goal_day_2023q1", "goal_day_2024q2");
+
+        // Cutoff is 2023-01-01: 2022q4 ends exactly there, 2023q1 still has days after it
+        List<String> expired = GoalDayPartitionManager.expiredPartitions(attached, LocalDate.of(2024, 1, 1),
+                Period.ofYears(1));
+
+        assertEquals(List.of("goal_day_2022q2", "goal_day_2022q4"), expired);
+    }
+
+    @Test
+    void constructor_shouldRejectUnknownArchiveMode() {
+        assertThrows(IllegalStateException.class,
+                () -> new GoalDayPartitionManager(null, 4, null, "compress"));
+    }
+}
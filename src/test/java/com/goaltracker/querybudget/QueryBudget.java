@@ -0,0 +1,26 @@
+package com.goaltracker.querybudget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * QueryBudget - Maximum number of SQL statements a test may execute
+ * Counts every statement the test thread sends through the application's
+ * DataSource while the test method runs (setup in @BeforeEach is not
+ * counted), so the DataSource must be wrapped by {@link QueryBudgetConfiguration}.
+ * A test that exceeds its budget fails and lists the statements it ran.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    /**
+     * @return The maximum number of statements, including inserts, updates and deletes
+     */
+    int max();
+}
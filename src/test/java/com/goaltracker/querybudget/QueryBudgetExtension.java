@@ -0,0 +1,40 @@
+package com.goaltracker.querybudget;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * QueryBudgetExtension - Fails tests that run more statements than their {@link QueryBudget}
+ * Recording starts right before the test method and stops right after it,
+ * so fixtures created in @BeforeEach are not charged to the test.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        StatementRecorder.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        List<String> statements = StatementRecorder.stop();
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        // A test that already failed reports its own error
+        if (budget == null || context.getExecutionException().isPresent() || statements.size() <= budget.max()) {
+            return;
+        }
+
+        String executed = IntStream.range(0, statements.size())
+                .mapToObj(i -> (i + 1) + ". " + statements.get(i).replaceAll("\\s+", " ").trim())
+                .collect(Collectors.joining("\n"));
+        throw new AssertionFailedError(context.getDisplayName() + " executed " + statements.size()
+                + " statements, budget is " + budget.max() + ":\n" + executed,
+                budget.max(), statements.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.goaltracker.querybudget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementRecorder - Collects the SQL executed by the current thread
+ * MockMvc requests run on the test thread, so statements from scheduled jobs
+ * and other background threads are never attributed to a test.
+ */
+public final class StatementRecorder {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    private StatementRecorder() {
+    }
+
+    /**
+     * Starts recording on the current thread, discarding anything recorded before
+     */
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    /**
+     * Stops recording on the current thread
+     *
+     * @return The statements executed since {@link #start()}, in order
+     */
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    static void record(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.goaltracker.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 8, THRESHOLD, 0.5);
+
+    @Test
+    void tryAcquire_shouldShedOverTheLimit() {
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(8, limiter.getInFlight());
+    }
+
+    @Test
+    void onPoolWaitSample_shouldCutOnSlowPoolAndRecoverGradually() {
+        limiter.onPoolWaitSample(THRESHOLD * 2);
+        assertEquals(4, limiter.getLimit());
+        limiter.onPoolWaitSample(THRESHOLD * 2);
+        limiter.onPoolWaitSample(THRESHOLD * 2);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.onPoolWaitSample(0);
+        assertEquals(3, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            limiter.onPoolWaitSample(0);
+        }
+        assertEquals(8, limiter.getLimit());
+    }
+}
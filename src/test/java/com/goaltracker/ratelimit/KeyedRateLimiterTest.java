@@ -0,0 +1,75 @@
+package com.goaltracker.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final KeyedRateLimiter limiter = new KeyedRateLimiter(3, Duration.ofSeconds(1), 100, now::get);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReject() {
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+
+        long wait = limiter.tryAcquire("alice");
+        assertTrue(wait > 0 && wait <= Duration.ofSeconds(1).toNanos());
+
+        // Other keys have their own bucket
+        assertEquals(0, limiter.tryAcquire("bob"));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice");
+        }
+        assertTrue(limiter.tryAcquire("alice") > 0);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void tokenBucket_shouldReportAvailablePermits() {
+        TokenBucket bucket = new TokenBucket(3, 100, 0);
+
+        assertEquals(3, bucket.availablePermits(0));
+        bucket.tryAcquire(0);
+        assertEquals(2, bucket.availablePermits(0));
+        assertTrue(bucket.isFull(100));
+    }
+
+    @Test
+    void tryAcquire_shouldReplaceTheLeastRecentlyUsedBucketOnceOverTheKeyLimit() {
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        assertTrue(limiter.trackedKeys() <= 100);
+
+        // The newest keys are still tracked, the oldest start over with a fresh bucket
+        limiter.tryAcquire("client-999");
+        limiter.tryAcquire("client-999");
+        assertTrue(limiter.tryAcquire("client-999") > 0);
+        assertEquals(0, limiter.tryAcquire("client-0"));
+    }
+
+    @Test
+    void tryAcquire_shouldBoundTheKeysEvenIfNoneHasRefilled() {
+        // Made-up usernames that never refill within the test, as in a flood of login attempts
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("user-" + i);
+            limiter.tryAcquire("user-" + i);
+        }
+
+        assertTrue(limiter.trackedKeys() <= 100, () -> limiter.trackedKeys() + " keys tracked");
+    }
+}
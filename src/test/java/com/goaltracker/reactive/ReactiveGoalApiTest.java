@@ -0,0 +1,252 @@
+package com.goaltracker.reactive;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.goaltracker.security.ApiTokenService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveGoalApiTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:reactive_api;DB_CLOSE_DELAY=-1";
+
+    private final ApiTokenService apiTokenService = new ApiTokenService(new byte[32], Duration.ofMinutes(5),
+            Clock.systemUTC());
+
+    private JdbcTemplate jdbcTemplate;
+    private ReactiveGoalReader reader;
+    private ReactiveApiServer server;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(JDBC_URL, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE goal (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                + "start_date DATE NOT NULL, end_date DATE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE goal_day (id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "goal_id BIGINT NOT NULL, day_date DATE NOT NULL, completed BOOLEAN NOT NULL, "
+                + "completed_at TIMESTAMP(6))");
+        jdbcTemplate.update("INSERT INTO goal VALUES (1, 1, DATE '2024-01-30', DATE '2024-02-02'), "
+                + "(2, 2, DATE '2024-01-30', DATE '2024-01-30')");
+        jdbcTemplate.update("INSERT INTO goal_day (goal_id, day_date, completed, completed_at) VALUES "
+                + "(1, DATE '2024-01-30', TRUE, TIMESTAMP '2024-01-30 20:15:00'), "
+                + "(1, DATE '2024-01-31', FALSE, NULL), "
+                + "(1, DATE '2024-02-01', TRUE, TIMESTAMP '2024-02-01 07:00:00'), "
+                + "(1, DATE '2024-02-02', FALSE, NULL), "
+                + "(2, DATE '2024-01-30', TRUE, TIMESTAMP '2024-01-30 09:00:00')");
+
+        reader = spy(new ReactiveGoalReader(new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(ConnectionFactoryOptions
+                        .parse(ReactiveApiConfiguration.toR2dbcUrl(JDBC_URL))
+                        .mutate()
+                        .option(ConnectionFactoryOptions.USER, "sa")
+                        .build()))
+                .initialSize(0)
+                .maxSize(2)
+                .build())));
+        start(Duration.ofMillis(50));
+    }
+
+    private void start(Duration progressInterval) {
+        ReactiveGoalApiHandler handler = new ReactiveGoalApiHandler(reader, apiTokenService, progressInterval);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(
+                        // Configured like Boot's ObjectMapper, which the application passes in
+                        Jackson2ObjectMapperBuilder.json()
+                                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                .build())))
+                .build();
+        server = new ReactiveApiServer(RouterFunctions.toHttpHandler(ReactiveApiConfiguration.routes(handler),
+                strategies), "localhost", 0, 1, Duration.ofSeconds(5));
+        server.start();
+        // Signed in as user 1, who owns goal 1
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort())
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiTokenService.issue(1L))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        reader.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void progress_shouldMatchTheServletApi() {
+        client.get().uri("/api/goals/1/progress")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.completedDays").isEqualTo(2)
+                .jsonPath("$.totalDays").isEqualTo(4)
+                .jsonPath("$.progressPercentage").isEqualTo(50.0)
+                .jsonPath("$.completed").isEqualTo(false);
+    }
+
+    @Test
+    void progress_shouldAnswerNotFoundForAnUnknownGoal() {
+        client.get().uri("/api/goals/99/progress")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.error").isEqualTo("Goal not found with id: 99");
+    }
+
+    @Test
+    void anotherUsersGoal_shouldBeAnsweredLikeAMissingOne() {
+        for (String uri : List.of("/api/goals/2/progress", "/api/goals/2/days", "/api/goals/2/progress/stream")) {
+            client.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Goal not found with id: 2");
+        }
+        client.get().uri("/api/goals/2/days")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // Days are only read once the goal is known to be the caller's
+        verify(reader, never()).getGoalDays(eq(2L), anyLong());
+    }
+
+    @Test
+    void days_shouldDefaultTheWindowToTheMonthOfFrom() {
+        client.get().uri("/api/goals/1/days?from=2024-02-01")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.days.length()").isEqualTo(2)
+                .jsonPath("$.days[0].dayDate").isEqualTo("2024-02-01")
+                .jsonPath("$.days[0].completedAt").isEqualTo("2024-02-01T07:00:00")
+                .jsonPath("$.to").isEqualTo("2024-02-29")
+                .jsonPath("$.nextFrom").isEqualTo("2024-03-01");
+    }
+
+    @Test
+    void days_shouldRejectAnInvertedWindowBeforeStreaming() {
+        client.get().uri("/api/goals/1/days?from=2024-02-02&to=2024-02-01")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void days_shouldStreamOneDayPerLineAsNdjson() {
+        List<Object> days = client.get().uri("/api/goals/1/days")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Map.class)
+                .getResponseBody()
+                .map(day -> day.get("dayDate"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("2024-01-30", "2024-01-31", "2024-02-01", "2024-02-02"), days);
+    }
+
+    @Test
+    void progressStream_shouldPushOnlyChanges() {
+        List<Object> completedDays = progressStream()
+                .doOnNext(days -> {
+                    // Complete the remaining days once the first event has arrived
+                    if (Integer.valueOf(2).equals(days)) {
+                        jdbcTemplate.update("UPDATE goal_day SET completed = TRUE WHERE goal_id = 1");
+                    }
+                })
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of(2, 4), completedDays);
+    }
+
+    @Test
+    void progressStream_shouldPollOnceForAllClientsOfAGoal() {
+        // Only the first tick falls within the test
+        server.stop();
+        start(Duration.ofHours(1));
+
+        List<Object> completedDays = Flux.merge(progressStream(), progressStream())
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of(2, 2), completedDays);
+        verify(reader, times(1)).getProgress(1L, 1L);
+    }
+
+    @Test
+    void authenticate_shouldRequireABearerToken() {
+        WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build()
+                .get().uri("/api/goals/1/progress")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Authentication required");
+
+        verifyNoInteractions(reader);
+    }
+
+    @Test
+    void authenticate_shouldRejectAnInvalidBearerToken() {
+        client.get().uri("/api/goals/1/progress")
+                .header("Authorization", "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        client.get().uri("/api/goals/1/progress")
+                .header("Authorization", "Bearer " + apiTokenService.issue(1L))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void toR2dbcUrl_shouldMapPostgresqlAndH2Urls() {
+        assertEquals("r2dbc:postgresql://db:5432/goaltracker",
+                ReactiveApiConfiguration.toR2dbcUrl("jdbc:postgresql://db:5432/goaltracker"));
+        assertEquals("r2dbc:h2:file:///./data/goaltracker",
+                ReactiveApiConfiguration.toR2dbcUrl("jdbc:h2:file:./data/goaltracker"));
+        assertEquals("r2dbc:h2:mem:///test;DB_CLOSE_DELAY=-1",
+                ReactiveApiConfiguration.toR2dbcUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1"));
+        assertThrows(IllegalStateException.class, () -> ReactiveApiConfiguration.toR2dbcUrl("jdbc:mysql://db/x"));
+    }
+
+    private Flux<Object> progressStream() {
+        return client.get().uri("/api/goals/1/progress/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ServerSentEvent.class)
+                .getResponseBody()
+                .map(event -> ((Map<?, ?>) event.data()).get("completedDays"));
+    }
+}
@@ -2,11 +2,14 @@ package com.goaltracker.repository;
 
 import com.goaltracker.entity.Goal;
 import com.goaltracker.entity.GoalDay;
+import com.goaltracker.entity.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +22,9 @@ class GoalDayRepositoryTest {
     @Autowired
     private GoalRepository goalRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Test
     void deleteByGoalId_shouldRemoveAllDays() {
         Goal g = new Goal("Valid Title", "B desc", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3));
@@ -34,4 +40,44 @@ class GoalDayRepositoryTest {
 
         assertEquals(0, goalDayRepository.countTotalDaysByGoalId(g.getId()));
     }
+
+    @Test
+    void findByGoalIdAndDateBetween_shouldReturnOnlyDaysInWindow() {
+        User user = userRepository.save(new User("window_user", "window@example.com", "hashed-password"));
+        Goal g = new Goal("Valid Title", "B desc", LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 2));
+        g.setUser(user);
+        g = goalRepository.save(g);
+
+        for (LocalDate d = g.getStartDate(); !d.isAfter(g.getEndDate()); d = d.plusDays(1)) {
+            goalDayRepository.save(new GoalDay(g, d));
+        }
+
+        List<GoalDay> february = goalDayRepository.findByGoalIdAndDateBetween(g.getId(),
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 2)),
+                february.stream().map(GoalDay::getDate).collect(Collectors.toList()));
+    }
+
+    @Test
+    void toggleCompleted_shouldKeepOneRowPerDay() {
+        User user = userRepository.save(new User("toggle_user", "toggle@example.com", "hashed-password"));
+        Goal g = new Goal("Valid Title", "B desc", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10));
+        g.setUser(user);
+        // The upserts run through JDBC, so the goal row has to be in the database first
+        g = goalRepository.saveAndFlush(g);
+        LocalDate day = LocalDate.of(2024, 3, 4);
+
+        goalDayRepository.insertMissingDays(g.getId(), g.getStartDate(), day.minusDays(1));
+        goalDayRepository.insertMissingDays(g.getId(), g.getStartDate(), day.minusDays(1));
+        assertEquals(3, goalDayRepository.countTotalDaysByGoalId(g.getId()));
+
+        assertTrue(goalDayRepository.toggleCompleted(g.getId(), day));
+        assertFalse(goalDayRepository.toggleCompleted(g.getId(), day));
+        assertTrue(goalDayRepository.toggleCompleted(g.getId(), day));
+
+        assertEquals(4, goalDayRepository.countTotalDaysByGoalId(g.getId()));
+        assertEquals(1, goalDayRepository.countCompletedDaysByGoalId(g.getId()));
+        assertNotNull(goalDayRepository.findByGoalIdAndDate(g.getId(), day).orElseThrow().getCompletedAt());
+    }
 }
@@ -0,0 +1,94 @@
+package com.goaltracker.repository;
+
+import com.goaltracker.querybudget.QueryBudgetConfiguration;
+import com.goaltracker.querybudget.StatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot repository queries, captures the SQL Hibernate actually sends
+ * and EXPLAINs it against the Flyway-migrated H2 schema, checking the planner
+ * picks the intended index instead of a table scan.
+ *
+ * H2 always adds its own single-column index for a foreign key and prefers it
+ * for "WHERE fk = ? ORDER BY ..." lookups, so those cases expect the foreign
+ * key's index; PostgreSQL walks the composite index instead.
+ */
+@DataJpaTest
+@Import(QueryBudgetConfiguration.class)
+class QueryIndexUsageTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    @Autowired
+    private GoalDayRepository goalDayRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByGoalIdAndDate_shouldUseGoalDayIndex() {
+        assertUsesIndex(explain(() -> goalDayRepository.findByGoalIdAndDate(1L, FROM), 1L, FROM),
+                "UK_GOAL_DAY_GOAL_ID_DAY_DATE");
+    }
+
+    @Test
+    void findByGoalIdOrderByDayDate_shouldUseGoalDayIndex() {
+        assertUsesIndex(explain(() -> goalDayRepository.findByGoalIdOrderByDayDate(1L), 1L),
+                "FK_GOAL_DAY_GOAL_INDEX");
+    }
+
+    @Test
+    void findByGoalIdAndDateBetween_shouldUseGoalDayIndex() {
+        assertUsesIndex(explain(() -> goalDayRepository.findByGoalIdAndDateBetween(1L, FROM, TO), 1L, FROM, TO),
+                "UK_GOAL_DAY_GOAL_ID_DAY_DATE");
+    }
+
+    @Test
+    void findAllByUserIdOrderByCreatedAtDesc_shouldUseGoalIndex() {
+        assertUsesIndex(explain(() -> goalRepository.findAllByUserIdOrderByCreatedAtDesc(1L), 1L),
+                "FK_GOAL_USER_INDEX");
+    }
+
+    @Test
+    void countCompletedDaysByGoalId_shouldUseCompletedIndex() {
+        assertUsesIndex(explain(() -> goalDayRepository.countCompletedDaysByGoalId(1L), 1L),
+                "IDX_GOAL_DAY_GOAL_ID_COMPLETED");
+    }
+
+    private static void assertUsesIndex(String plan, String indexName) {
+        // H2 names the index it reads in the plan comment, e.g. /* PUBLIC.IDX_NAME: GOAL_ID = ?1 */
+        assertTrue(plan.toUpperCase().matches("(?s).*/\\* PUBLIC\\." + indexName + "\\S*: .*"),
+                () -> "Expected " + indexName + ":\n" + plan);
+    }
+
+    /**
+     * Runs the query, then EXPLAINs the single statement it sent with the given parameters
+     */
+    private String explain(Runnable query, Object... parameters) {
+        StatementRecorder.start();
+        query.run();
+        List<String> statements = StatementRecorder.stop();
+
+        assertEquals(1, statements.size(), () -> "Expected one statement: " + statements);
+        String sql = statements.get(0);
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(),
+                () -> "Parameter count does not match: " + sql);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertFalse(plan.contains("tableScan"), () -> "Expected an index scan:\n" + plan);
+        return plan;
+    }
+}
@@ -0,0 +1,112 @@
+package com.goaltracker.repository;
+
+import com.goaltracker.config.SecondLevelCacheConfiguration;
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each read runs in its own EntityManager, so only the second-level cache
+ * can save the SELECT.
+ */
+@DataJpaTest
+@Import(SecondLevelCacheConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Goal goal;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = inTransaction(em -> {
+            User u = new User("cache_" + suffix, suffix + "@example.com", "hashed-password");
+            em.persist(u);
+            return u;
+        });
+        goal = inTransaction(em -> {
+            Goal g = new Goal("Cached goal", null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3));
+            g.setUser(em.getReference(User.class, user.getId()));
+            em.persist(g);
+            return g;
+        });
+        statistics.clear();
+    }
+
+    @Test
+    void findById_shouldBeServedFromCacheWithoutSelect() {
+        // First read misses and populates the cache
+        inTransaction(em -> em.find(Goal.class, goal.getId()));
+        inTransaction(em -> em.find(User.class, user.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        statistics.clear();
+
+        inTransaction(em -> em.find(Goal.class, goal.getId()));
+        inTransaction(em -> em.find(User.class, user.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void naturalIdLookup_shouldBeServedFromCacheWithoutSelect() {
+        inTransaction(em -> em.unwrap(Session.class).bySimpleNaturalId(User.class).load(user.getUsername()));
+        statistics.clear();
+
+        User loaded = inTransaction(em -> em.unwrap(Session.class)
+                .bySimpleNaturalId(User.class).load(user.getUsername()));
+
+        assertEquals(user.getId(), loaded.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void update_shouldRefreshCachedEntry() {
+        inTransaction(em -> {
+            em.find(Goal.class, goal.getId()).setTitle("Renamed goal");
+            return null;
+        });
+        statistics.clear();
+
+        Goal reloaded = inTransaction(em -> em.find(Goal.class, goal.getId()));
+
+        assertEquals("Renamed goal", reloaded.getTitle());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.goaltracker.repository;
+
+import com.goaltracker.dto.UserStatsDto;
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.GoalDay;
+import com.goaltracker.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private GoalDayRepository goalDayRepository;
+
+    @Test
+    void getStatsByUserId_shouldAggregateGoalsAndDays() {
+        User user = userRepository.save(new User("stats_user", "stats@example.com", "hashed-password"));
+
+        // Finished goal: 2 of 2 days done
+        Goal done = newGoal(user, "Finished goal");
+        completedDay(done, LocalDate.of(2024, 1, 1));
+        completedDay(done, LocalDate.of(2024, 1, 2));
+
+        // Active goal: 1 of 3 days done
+        Goal active = newGoal(user, "Active goal");
+        completedDay(active, LocalDate.of(2024, 1, 1));
+        goalDayRepository.save(new GoalDay(active, LocalDate.of(2024, 1, 2)));
+        goalDayRepository.save(new GoalDay(active, LocalDate.of(2024, 1, 3)));
+
+        UserStatsDto stats = userRepository.getStatsByUserId(user.getId());
+
+        assertEquals(2, stats.getGoalCount());
+        assertEquals(1, stats.getActiveGoalCount());
+        assertEquals(5, stats.getTotalDays());
+        assertEquals(3, stats.getCompletedDays());
+        assertEquals(60.0, stats.getCompletionRate(), 0.001);
+    }
+
+    @Test
+    void getStatsByUserId_shouldReturnZerosForUserWithoutGoals() {
+        User user = userRepository.save(new User("empty_user", "empty@example.com", "hashed-password"));
+
+        UserStatsDto stats = userRepository.getStatsByUserId(user.getId());
+
+        assertEquals(0, stats.getGoalCount());
+        assertEquals(0, stats.getTotalDays());
+        assertEquals(0.0, stats.getCompletionRate());
+    }
+
+    private Goal newGoal(User user, String title) {
+        Goal goal = new Goal(title, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3));
+        goal.setUser(user);
+        return goalRepository.save(goal);
+    }
+
+    private void completedDay(Goal goal, LocalDate date) {
+        GoalDay day = new GoalDay(goal, date);
+        day.setCompleted(true);
+        goalDayRepository.save(day);
+    }
+}
@@ -0,0 +1,44 @@
+package com.goaltracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiTokenServiceTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes();
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-01-10T10:00:00Z"), ZoneOffset.UTC);
+    private final ApiTokenService apiTokenService = new ApiTokenService(SECRET, Duration.ofMinutes(15), clock);
+
+    @Test
+    void verify_shouldReturnUserIdOfIssuedToken() {
+        String token = apiTokenService.issue(42L);
+
+        assertEquals(42L, apiTokenService.verify(token).orElseThrow());
+    }
+
+    @Test
+    void verify_shouldRejectTamperedToken() {
+        String token = apiTokenService.issue(42L);
+        String forged = apiTokenService.issue(43L);
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertTrue(apiTokenService.verify(tampered).isEmpty());
+        assertTrue(apiTokenService.verify("not-a-token").isEmpty());
+    }
+
+    @Test
+    void verify_shouldRejectExpiredToken() {
+        String token = apiTokenService.issue(42L);
+        ApiTokenService later = new ApiTokenService(SECRET, Duration.ofMinutes(15),
+                Clock.offset(clock, Duration.ofMinutes(16)));
+
+        assertTrue(later.verify(token).isEmpty());
+    }
+}
@@ -5,6 +5,7 @@ import com.goaltracker.entity.Goal;
 import com.goaltracker.entity.GoalDay;
 import com.goaltracker.repository.GoalDayRepository;
 import com.goaltracker.repository.GoalRepository;
+import com.goaltracker.snapshot.GoalSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -25,6 +26,9 @@ class GoalServiceTest {
     @Mock
     private GoalDayRepository goalDayRepository;
 
+    @Mock
+    private GoalSnapshotCache goalSnapshots;
+
     @InjectMocks
     private GoalService goalService;
 
@@ -39,25 +43,37 @@ class GoalServiceTest {
         Goal saved = new Goal("Test", "Desc", input.getStartDate(), input.getEndDate());
         saved.setId(10L);
         when(goalRepository.save(any(Goal.class))).thenReturn(saved);
-        when(goalDayRepository.save(any(GoalDay.class))).thenAnswer(inv -> inv.getArgument(0));
 
         GoalDto result = goalService.createGoal(input);
 
         assertNotNull(result.getId());
-        verify(goalDayRepository, atLeast(3)).save(any(GoalDay.class));
+        verify(goalDayRepository).insertMissingDays(10L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3));
+        verify(goalDayRepository, never()).save(any(GoalDay.class));
     }
 
     @Test
-    void toggleGoalDay_shouldCreateIfMissingAndToggle() {
-        Goal g = new Goal("T", "D", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+    void toggleGoalDay_shouldBackfillPastDaysAndToggleToday() {
+        LocalDate today = LocalDate.now();
+        Goal g = new Goal("T", "D", today.minusDays(9), today.plusDays(21));
         g.setId(5L);
         when(goalRepository.findById(5L)).thenReturn(Optional.of(g));
-        when(goalDayRepository.findByGoalIdAndDate(eq(5L), any(LocalDate.class))).thenReturn(Optional.empty());
-        when(goalDayRepository.save(any(GoalDay.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(goalDayRepository.toggleCompleted(5L, today)).thenReturn(true);
 
-        boolean afterToggle = goalService.toggleGoalDay(5L, LocalDate.of(2024, 1, 10));
+        boolean afterToggle = goalService.toggleGoalDay(5L, today);
         assertTrue(afterToggle);
-        verify(goalDayRepository, times(2)).save(any(GoalDay.class));
+        verify(goalDayRepository).insertMissingDays(5L, today.minusDays(9), today.minusDays(1));
+        verify(goalDayRepository, never()).save(any(GoalDay.class));
+    }
+
+    @Test
+    void toggleGoalDay_shouldRejectOtherDates() {
+        LocalDate today = LocalDate.now();
+        Goal g = new Goal("T", "D", today.minusDays(9), today.plusDays(21));
+        g.setId(5L);
+        when(goalRepository.findById(5L)).thenReturn(Optional.of(g));
+
+        assertThrows(RuntimeException.class, () -> goalService.toggleGoalDay(5L, today.minusDays(1)));
+        verify(goalDayRepository, never()).toggleCompleted(anyLong(), any(LocalDate.class));
     }
 
     @Test
@@ -66,13 +82,12 @@ class GoalServiceTest {
         existing.setId(2L);
         when(goalRepository.findById(2L)).thenReturn(Optional.of(existing));
         when(goalRepository.save(any(Goal.class))).thenReturn(existing);
-        when(goalDayRepository.save(any(GoalDay.class))).thenAnswer(inv -> inv.getArgument(0));
 
         GoalDto update = new GoalDto("A2", "B2", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 3));
         GoalDto out = goalService.updateGoal(2L, update);
 
         assertEquals("A2", out.getTitle());
         verify(goalDayRepository, times(1)).deleteByGoalId(2L);
-        verify(goalDayRepository, atLeast(3)).save(any(GoalDay.class));
+        verify(goalDayRepository).insertMissingDays(2L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 3));
     }
 }
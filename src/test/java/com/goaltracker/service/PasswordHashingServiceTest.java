@@ -0,0 +1,122 @@
+package com.goaltracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingService service = new PasswordHashingService(1, 1, Duration.ofSeconds(30), 4,
+            meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void encode_shouldProduceMatchingHashAndRecordLatency() {
+        String hash = service.encode("secret1");
+
+        assertTrue(service.matches("secret1", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("goaltracker.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void encode_shouldRejectWhenExecutorIsSaturated() throws Exception {
+        // One worker and one queue slot: park the worker, fill the queue, then the next hash is shed
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> running = clients.submit(() -> service.encode(new BlockingPassword(started, release)));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<String> queued = clients.submit(() -> service.encode("secret1"));
+            while (service.getQueueDepth() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(TooManyRequestsException.class, () -> service.encode("secret1"));
+            assertEquals(1.0, meterRegistry.get("goaltracker.password.hash.rejected").counter().count());
+
+            // The accepted hashes still complete once the worker is free again
+            release.countDown();
+            assertNotNull(running.get(10, TimeUnit.SECONDS));
+            assertNotNull(queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void needsRehash_shouldOnlyUpgradeWeakerHashes() {
+        PasswordHashingService stronger = new PasswordHashingService(1, 1, Duration.ofSeconds(30), 5,
+                new SimpleMeterRegistry());
+        try {
+            assertFalse(stronger.needsRehash(stronger.encode("secret1")));
+            assertTrue(stronger.needsRehash(new BCryptPasswordEncoder(4).encode("secret1")));
+            // A hash stronger than the current cost is never downgraded
+            assertFalse(stronger.needsRehash(new BCryptPasswordEncoder(6).encode("secret1")));
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    @Test
+    void calibrate_shouldNeverGoBelowFloor() {
+        assertEquals(4, BCryptCostCalibrator.calibrate(Duration.ofNanos(1), 4, 12));
+        assertTrue(BCryptCostCalibrator.calibrate(Duration.ofSeconds(1), 4, 6) >= 4);
+    }
+
+    /**
+     * Password that blocks the hashing thread reading it until released
+     */
+    private static final class BlockingPassword implements CharSequence {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingPassword(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "secret1";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
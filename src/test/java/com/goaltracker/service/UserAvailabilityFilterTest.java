@@ -0,0 +1,77 @@
+package com.goaltracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAvailabilityFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+    private UserAvailabilityFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:user_availability;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (username VARCHAR(50) NOT NULL, email VARCHAR(100) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO users VALUES ('alice', 'alice@example.com')");
+        filter = new UserAvailabilityFilter(dataSource, new DataSourceTransactionManager(dataSource), 1_000, 0.01,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void beforeTheFirstLoad_nothingIsDefinitelyFree() {
+        assertFalse(filter.isLoaded());
+        assertFalse(filter.isDefinitelyFreeUsername("bob"));
+        assertFalse(filter.isDefinitelyFreeEmail("bob@example.com"));
+    }
+
+    @Test
+    void rebuild_shouldLoadTakenValuesIgnoringCaseAndWhitespace() {
+        filter.rebuild();
+
+        assertTrue(filter.isLoaded());
+        assertFalse(filter.isDefinitelyFreeUsername(" Alice "));
+        assertFalse(filter.isDefinitelyFreeEmail("ALICE@example.com"));
+        assertTrue(filter.isDefinitelyFreeUsername("bob"));
+        assertTrue(filter.isDefinitelyFreeEmail("bob@example.com"));
+        assertEquals(2.0, meterRegistry.get("goaltracker.user.availability.filter")
+                .tag("result", "definitely-free").counter().count());
+    }
+
+    @Test
+    void add_shouldMarkANewRegistrationAsTaken() {
+        filter.rebuild();
+
+        filter.add("bob", "bob@example.com");
+
+        assertFalse(filter.isDefinitelyFreeUsername("bob"));
+        assertFalse(filter.isDefinitelyFreeEmail("bob@example.com"));
+    }
+
+    @Test
+    void rebuild_shouldKeepThePreviousFilterWhenLoadingFails() {
+        filter.rebuild();
+        jdbcTemplate.execute("DROP TABLE users");
+
+        filter.rebuild();
+
+        assertTrue(filter.isLoaded());
+        assertFalse(filter.isDefinitelyFreeUsername("alice"));
+        assertTrue(filter.isDefinitelyFreeUsername("bob"));
+    }
+}
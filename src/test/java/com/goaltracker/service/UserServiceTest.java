@@ -0,0 +1,84 @@
+package com.goaltracker.service;
+
+import com.goaltracker.dto.UserDto;
+import com.goaltracker.entity.User;
+import com.goaltracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private UserAvailabilityFilter availabilityFilter;
+
+    @InjectMocks
+    private UserService userService;
+
+    private final UserDto registration = new UserDto();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        registration.setUsername("alice");
+        registration.setEmail("alice@example.com");
+        registration.setPassword("secret123");
+        registration.setConfirmPassword("secret123");
+        when(availabilityFilter.isDefinitelyFreeUsername("alice")).thenReturn(true);
+        when(availabilityFilter.isDefinitelyFreeEmail("alice@example.com")).thenReturn(true);
+        when(passwordHashingService.encode("secret123")).thenReturn("hash");
+    }
+
+    @Test
+    void registerUser_shouldReportAConcurrentDuplicateEmail() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+        when(userRepository.existsByEmail("alice@example.com")).thenReturn(true);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userService.registerUser(registration));
+
+        assertEquals("Email already exists", e.getMessage());
+        verify(availabilityFilter, never()).add(any(), any());
+    }
+
+    @Test
+    void registerUser_shouldReportAConcurrentDuplicateUsername() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_username"));
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userService.registerUser(registration));
+
+        assertEquals("Username already exists", e.getMessage());
+    }
+
+    @Test
+    void registerUser_shouldRethrowOtherIntegrityViolations() {
+        DataIntegrityViolationException tooLong = new DataIntegrityViolationException("value too long");
+        when(userRepository.save(any(User.class))).thenThrow(tooLong);
+
+        assertSame(tooLong, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.registerUser(registration)));
+    }
+
+    @Test
+    void isUsernameAvailable_shouldOnlyQueryWhenTheFilterIsUnsure() {
+        when(availabilityFilter.isDefinitelyFreeUsername("bob")).thenReturn(false);
+        when(userRepository.existsByUsername("bob")).thenReturn(true);
+
+        assertTrue(userService.isUsernameAvailable("alice"));
+        assertFalse(userService.isUsernameAvailable("bob"));
+
+        verify(userRepository, never()).existsByUsername("alice");
+    }
+}
@@ -0,0 +1,51 @@
+package com.goaltracker.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingSessionStoreTest {
+
+    @Test
+    void sessionRecord_shouldRoundTripThroughCompactForm() {
+        SessionRecord record = new SessionRecord(42L, 1_700_000_000L, 1_700_001_800L);
+
+        byte[] encoded = record.encode();
+        SessionRecord decoded = SessionRecord.decode(encoded);
+
+        assertEquals(25, encoded.length);
+        assertEquals(42L, decoded.getUserId());
+        assertEquals(1_700_000_000L, decoded.getCreatedAt());
+        assertEquals(1_700_001_800L, decoded.getExpiresAt());
+    }
+
+    @Test
+    void find_shouldReadThroughOnlyOnceWithinTtl() {
+        SessionStore delegate = mock(SessionStore.class);
+        SessionRecord record = new SessionRecord(7L, 0L, Instant.now().getEpochSecond() + 600);
+        when(delegate.find("abc")).thenReturn(Optional.of(record));
+        CachingSessionStore store = new CachingSessionStore(delegate, Duration.ofMinutes(1), 100);
+
+        assertEquals(7L, store.find("abc").orElseThrow().getUserId());
+        assertEquals(7L, store.find("abc").orElseThrow().getUserId());
+
+        verify(delegate, times(1)).find("abc");
+    }
+
+    @Test
+    void delete_shouldEvictLocalCopy() {
+        SessionStore delegate = new InMemorySessionStore();
+        CachingSessionStore store = new CachingSessionStore(delegate, Duration.ofMinutes(1), 100);
+        store.save("abc", new SessionRecord(7L, 0L, Instant.now().getEpochSecond() + 600));
+
+        store.delete("abc");
+
+        assertTrue(store.find("abc").isEmpty());
+        assertEquals(0, store.cachedSessionCount());
+    }
+}
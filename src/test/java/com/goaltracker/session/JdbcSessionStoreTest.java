@@ -0,0 +1,55 @@
+package com.goaltracker.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the schema created by the Flyway migrations, without any runtime DDL
+ */
+@JdbcTest
+class JdbcSessionStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcSessionStore(jdbcTemplate);
+    }
+
+    @Test
+    void migration_shouldCreateTheTableWithItsExpiryIndex() {
+        Integer indexes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES "
+                + "WHERE TABLE_NAME = 'USER_SESSION' AND INDEX_NAME = 'IDX_USER_SESSION_EXPIRES_AT'", Integer.class);
+
+        assertEquals(1, indexes);
+    }
+
+    @Test
+    void save_shouldInsertThenUpdate() {
+        store.save("abc", new SessionRecord(7L, 100L, 200L));
+        store.save("abc", new SessionRecord(7L, 100L, 300L));
+
+        assertEquals(300L, store.find("abc").orElseThrow().getExpiresAt());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_session", Integer.class));
+    }
+
+    @Test
+    void deleteExpired_shouldKeepLiveSessions() {
+        store.save("expired", new SessionRecord(7L, 100L, 200L));
+        store.save("live", new SessionRecord(8L, 100L, 400L));
+
+        assertEquals(1, store.deleteExpired(Instant.ofEpochSecond(300)));
+        assertTrue(store.find("expired").isEmpty());
+        assertTrue(store.find("live").isPresent());
+    }
+}
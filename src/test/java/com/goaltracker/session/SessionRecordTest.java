@@ -0,0 +1,49 @@
+package com.goaltracker.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRecordTest {
+
+    @Test
+    void decode_shouldRestoreAnEncodedRecord() {
+        SessionRecord record = new SessionRecord(Long.MAX_VALUE, 1_700_000_000L, 1_700_001_800L);
+
+        SessionRecord decoded = SessionRecord.decode(record.encode());
+
+        assertEquals(Long.MAX_VALUE, decoded.getUserId());
+        assertEquals(1_700_000_000L, decoded.getCreatedAt());
+        assertEquals(1_700_001_800L, decoded.getExpiresAt());
+    }
+
+    @Test
+    void decode_shouldRejectOtherFormats() {
+        byte[] encoded = new SessionRecord(1L, 2L, 3L).encode();
+        byte[] otherVersion = encoded.clone();
+        otherVersion[0] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> SessionRecord.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> SessionRecord.decode(new byte[SessionRecord.ENCODED_LENGTH - 1]));
+        assertThrows(IllegalArgumentException.class, () -> SessionRecord.decode(otherVersion));
+    }
+
+    @Test
+    void renew_shouldKeepTheUserAndCreationTime() {
+        SessionRecord renewed = new SessionRecord(7L, 100L, 200L).renew(500L);
+
+        assertEquals(7L, renewed.getUserId());
+        assertEquals(100L, renewed.getCreatedAt());
+        assertEquals(500L, renewed.getExpiresAt());
+    }
+
+    @Test
+    void isExpired_shouldIncludeTheExpirySecond() {
+        SessionRecord record = new SessionRecord(7L, 100L, 200L);
+
+        assertFalse(record.isExpired(Instant.ofEpochSecond(199)));
+        assertTrue(record.isExpired(Instant.ofEpochSecond(200)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.goaltracker.session;
+
+import com.goaltracker.dto.UserDto;
+import com.goaltracker.service.UserService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StoreBackedHttpSessionTest {
+
+    private InMemorySessionStore sessionStore;
+    private UserService userService;
+    private StoreBackedSessionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = new InMemorySessionStore();
+        userService = mock(UserService.class);
+        filter = new StoreBackedSessionFilter(sessionStore, userService, "GTSESSION", Duration.ofMinutes(30), false);
+        long now = Instant.now().getEpochSecond();
+        sessionStore.save("abc", new SessionRecord(7L, now, now + 1800));
+    }
+
+    @Test
+    void currentUser_shouldBeRehydratedOnlyOncePerRequest() throws Exception {
+        UserDto user = new UserDto(7L, "alice", "alice@example.com", LocalDateTime.now());
+        when(userService.getUserById(7L)).thenReturn(Optional.of(user));
+
+        inRequest(session -> {
+            assertSame(user, session.getAttribute("currentUser"));
+            assertSame(user, session.getAttribute("currentUser"));
+        });
+
+        verify(userService, times(1)).getUserById(7L);
+    }
+
+    @Test
+    void otherAttributes_shouldLiveInTheContainerSession() throws Exception {
+        inRequest(session -> {
+            session.setAttribute("flash", "saved");
+
+            assertEquals("saved", session.getAttribute("flash"));
+            assertEquals(List.of("userId", "currentUser", "flash"),
+                    Collections.list(session.getAttributeNames()));
+        });
+
+        // Only the user id is ever written to the store
+        assertEquals(7L, sessionStore.find("abc").orElseThrow().getUserId());
+    }
+
+    @Test
+    void getId_shouldBeTheStoreIdWithoutCreatingAContainerSession() throws Exception {
+        MockHttpServletRequest request = withCookie();
+        inRequest(request, session -> {
+            assertEquals("abc", session.getId());
+            assertFalse(session.isNew());
+            assertEquals(1800, session.getMaxInactiveInterval());
+        });
+
+        assertNull(request.getSession(false));
+    }
+
+    @Test
+    void removeCurrentUser_shouldEndTheStoredSession() throws Exception {
+        inRequest(session -> {
+            session.removeAttribute("currentUser");
+
+            assertNull(session.getAttribute("userId"));
+        });
+
+        assertTrue(sessionStore.find("abc").isEmpty());
+    }
+
+    private void inRequest(Consumer<HttpSession> body) throws Exception {
+        inRequest(withCookie(), body);
+    }
+
+    private void inRequest(MockHttpServletRequest request, Consumer<HttpSession> body) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> body.accept(((HttpServletRequest) req).getSession(false)));
+    }
+
+    private static MockHttpServletRequest withCookie() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("GTSESSION", "abc"));
+        return request;
+    }
+}
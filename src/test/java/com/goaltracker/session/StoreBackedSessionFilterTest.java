@@ -0,0 +1,128 @@
+package com.goaltracker.session;
+
+import com.goaltracker.service.UserService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StoreBackedSessionFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+    private InMemorySessionStore sessionStore;
+    private StoreBackedSessionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = new InMemorySessionStore();
+        filter = new StoreBackedSessionFilter(sessionStore, mock(UserService.class), "GTSESSION", TIMEOUT, true);
+    }
+
+    @Test
+    void login_shouldStoreTheUserIdAndSetTheCookie() throws Exception {
+        MockHttpServletResponse response = run(new MockHttpServletRequest(),
+                request -> request.getSession().setAttribute("userId", 7L));
+
+        String sessionId = sessionCookie(response);
+        assertEquals(7L, sessionStore.find(sessionId).orElseThrow().getUserId());
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertTrue(setCookie.contains("HttpOnly"));
+        assertTrue(setCookie.contains("Secure"));
+        assertTrue(setCookie.contains("SameSite=Lax"));
+    }
+
+    @Test
+    void request_shouldResolveTheUserFromTheCookie() throws Exception {
+        sessionStore.save("abc", new SessionRecord(7L, now(), now() + TIMEOUT.toSeconds()));
+        AtomicReference<Object> userId = new AtomicReference<>();
+
+        MockHttpServletResponse response = run(withCookie("abc"),
+                request -> userId.set(request.getSession(false).getAttribute("userId")));
+
+        assertEquals(7L, userId.get());
+        // A fresh session is not renewed, so no cookie needs to be written
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void request_shouldIgnoreUnknownAndExpiredSessions() throws Exception {
+        sessionStore.save("expired", new SessionRecord(7L, now() - 3600, now() - 1));
+        AtomicReference<HttpSession> session = new AtomicReference<>();
+
+        run(withCookie("unknown"), request -> session.set(request.getSession(false)));
+        assertNull(session.get());
+
+        run(withCookie("expired"), request -> session.set(request.getSession(false)));
+        assertNull(session.get());
+    }
+
+    @Test
+    void request_shouldRenewASessionPastHalfOfItsLifetime() throws Exception {
+        long expiresAt = now() + TIMEOUT.toSeconds() / 2 - 60;
+        sessionStore.save("abc", new SessionRecord(7L, now() - 900, expiresAt));
+
+        run(withCookie("abc"), request -> request.getSession(false));
+
+        assertTrue(sessionStore.find("abc").orElseThrow().getExpiresAt() > expiresAt);
+    }
+
+    @Test
+    void login_shouldIssueANewSessionIdAndDeleteTheOldOne() throws Exception {
+        sessionStore.save("abc", new SessionRecord(7L, now(), now() + TIMEOUT.toSeconds()));
+
+        MockHttpServletResponse response = run(withCookie("abc"),
+                request -> request.getSession().setAttribute("userId", 8L));
+
+        String sessionId = sessionCookie(response);
+        assertNotEquals("abc", sessionId);
+        assertTrue(sessionStore.find("abc").isEmpty());
+        assertEquals(8L, sessionStore.find(sessionId).orElseThrow().getUserId());
+    }
+
+    @Test
+    void invalidate_shouldDeleteTheRecordAndExpireTheCookie() throws Exception {
+        sessionStore.save("abc", new SessionRecord(7L, now(), now() + TIMEOUT.toSeconds()));
+
+        MockHttpServletResponse response = run(withCookie("abc"),
+                request -> request.getSession().invalidate());
+
+        assertTrue(sessionStore.find("abc").isEmpty());
+        assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, Consumer<HttpServletRequest> handler)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> handler.accept((HttpServletRequest) req));
+        return response;
+    }
+
+    private static MockHttpServletRequest withCookie(String sessionId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("GTSESSION", sessionId));
+        return request;
+    }
+
+    private static String sessionCookie(MockHttpServletResponse response) {
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(setCookie);
+        return setCookie.substring("GTSESSION=".length(), setCookie.indexOf(';'));
+    }
+
+    private static long now() {
+        return Instant.now().getEpochSecond();
+    }
+}
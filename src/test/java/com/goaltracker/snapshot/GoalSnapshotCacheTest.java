@@ -0,0 +1,177 @@
+package com.goaltracker.snapshot;
+
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.GoalDay;
+import com.goaltracker.repository.GoalDayRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against the goal_snapshot table created by the Flyway migrations
+ */
+@JdbcTest
+class GoalSnapshotCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GoalDayRepository goalDayRepository = mock(GoalDayRepository.class);
+
+    private GoalSnapshotStore store;
+    private GoalSnapshotCache cache;
+    private Goal goal;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at) "
+                + "VALUES (1, 'alice', 'alice@example.com', 'x', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO goal (id, user_id, title, start_date, end_date, created_at, version) "
+                + "VALUES (42, 1, 'Read', DATE '2024-01-01', DATE '2024-01-03', CURRENT_TIMESTAMP, 3)");
+        goal = new Goal("Read", "Every day", START, START.plusDays(2));
+        goal.setId(42L);
+        goal.setVersion(3L);
+
+        GoalDay first = new GoalDay(goal, START);
+        first.setCompleted(true);
+        when(goalDayRepository.findByGoalIds(Set.of(42L)))
+                .thenReturn(List.of(first, new GoalDay(goal, START.plusDays(1)), new GoalDay(goal, START.plusDays(2))));
+
+        store = new GoalSnapshotStore(jdbcTemplate);
+        cache = newCache();
+    }
+
+    @Test
+    void find_shouldBuildOnceThenAnswerFromMemory() {
+        GoalSnapshot built = cache.find(goal).orElseThrow();
+        GoalSnapshot cached = cache.find(goal).orElseThrow();
+
+        assertSame(built, cached);
+        assertEquals(1, built.getCompletedDays());
+        verify(goalDayRepository, times(1)).findByGoalIds(Set.of(42L));
+        assertEquals(1.0, snapshotCount("built"));
+        assertEquals(1.0, snapshotCount("memory"));
+    }
+
+    @Test
+    void flush_shouldStoreSnapshotsThatSurviveARestart() {
+        GoalSnapshot built = cache.find(goal).orElseThrow();
+        // Building never writes from the reading request
+        assertEquals(0, storedRows());
+
+        cache.flush();
+        GoalSnapshot restored = newCache().find(goal).orElseThrow();
+
+        assertEquals(1, storedRows());
+        assertEquals(built.getGoalVersion(), restored.getGoalVersion());
+        assertEquals(built.getCompletedDays(), restored.getCompletedDays());
+        assertEquals(built.getDays().size(), restored.getDays().size());
+        verify(goalDayRepository, times(1)).findByGoalIds(Set.of(42L));
+        assertEquals(1.0, snapshotCount("stored"));
+    }
+
+    @Test
+    void find_shouldRebuildWhenTheGoalVersionChanged() {
+        cache.find(goal);
+        cache.flush();
+
+        goal.setVersion(4L);
+        GoalSnapshot rebuilt = cache.find(goal).orElseThrow();
+        // Neither the cached nor the stored snapshot of version 3 may be used
+        assertEquals(4L, rebuilt.getGoalVersion());
+        assertTrue(newCache().find(goal).isPresent());
+        verify(goalDayRepository, times(3)).findByGoalIds(Set.of(42L));
+
+        cache.flush();
+        assertEquals(4L, store.findAll(Map.of(42L, 4L)).get(42L).getGoalVersion());
+        assertTrue(store.findAll(Map.of(42L, 3L)).isEmpty());
+    }
+
+    @Test
+    void evict_shouldDropTheCachedStoredAndUnsavedSnapshot() {
+        cache.find(goal);
+        cache.flush();
+
+        cache.evict(42L);
+
+        assertEquals(0, storedRows());
+        cache.find(goal);
+        verify(goalDayRepository, times(2)).findByGoalIds(Set.of(42L));
+
+        // An unsaved snapshot is dropped as well, so an evicted goal is never written back
+        cache.evict(42L);
+        cache.flush();
+        assertEquals(0, storedRows());
+    }
+
+    @Test
+    void findAll_shouldLookUpAllMissingGoalsTogether() {
+        Goal stored = finishedGoal(44L);
+        Goal unknown = finishedGoal(45L);
+        when(goalDayRepository.findByGoalIds(Set.of(45L))).thenReturn(List.of());
+        // 44 was stored by another instance, 42 is already in memory here
+        GoalSnapshotCache otherInstance = newCache();
+        otherInstance.find(stored);
+        otherInstance.flush();
+        cache.find(goal);
+        Goal running = new Goal("Run", "Every day", LocalDate.now().minusDays(5), LocalDate.now());
+        running.setId(46L);
+        running.setVersion(0L);
+
+        Map<Long, GoalSnapshot> snapshots = cache.findAll(List.of(goal, stored, unknown, running));
+
+        assertEquals(Set.of(42L, 44L, 45L), snapshots.keySet());
+        // One lookup for 44 and 45 together; only 45 had to be built from its days
+        verify(goalDayRepository, times(1)).findByGoalIds(Set.of(45L));
+        assertEquals(1.0, snapshotCount("stored"));
+    }
+
+    @Test
+    void find_shouldIgnoreGoalsThatHaveNotFinished() {
+        Goal running = new Goal("Run", "Every day", LocalDate.now().minusDays(5), LocalDate.now());
+        running.setId(43L);
+        running.setVersion(0L);
+
+        assertTrue(cache.find(running).isEmpty());
+        verifyNoInteractions(goalDayRepository);
+    }
+
+    private Goal finishedGoal(long id) {
+        jdbcTemplate.update("INSERT INTO goal (id, user_id, title, start_date, end_date, created_at, version) "
+                + "VALUES (?, 1, 'Read', DATE '2024-01-01', DATE '2024-01-03', CURRENT_TIMESTAMP, 0)", id);
+        Goal finished = new Goal("Read", "Every day", START, START.plusDays(2));
+        finished.setId(id);
+        finished.setVersion(0L);
+        return finished;
+    }
+
+    private GoalSnapshotCache newCache() {
+        return new GoalSnapshotCache(store, goalDayRepository, transactionManager, 100, meterRegistry);
+    }
+
+    private int storedRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM goal_snapshot WHERE goal_id = 42", Integer.class);
+    }
+
+    private double snapshotCount(String source) {
+        return meterRegistry.get("goaltracker.goal.snapshot").tag("source", source).counter().count();
+    }
+}
@@ -0,0 +1,88 @@
+package com.goaltracker.snapshot;
+
+import com.goaltracker.dto.GoalDayDto;
+import com.goaltracker.dto.GoalDto;
+import com.goaltracker.entity.Goal;
+import com.goaltracker.entity.GoalDay;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalSnapshotTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void of_shouldSummarizeCompletedDays() {
+        Goal goal = goal(START, START.plusDays(99));
+        List<GoalDay> days = days(goal, 100, 3);
+
+        GoalSnapshot snapshot = GoalSnapshot.of(goal, days);
+        GoalDto dto = snapshot.toDto(goal);
+
+        assertEquals(100, dto.getTotalDays());
+        assertEquals(34, dto.getCompletedDays());
+        assertEquals(66, dto.getRemainingDays());
+        assertEquals(34.0, dto.getProgressPercentage(), 0.001);
+        assertFalse(dto.isCompleted());
+        assertEquals("Read", dto.getTitle());
+    }
+
+    @Test
+    void encode_shouldRoundTripDaysAndCompletionTimes() {
+        Goal goal = goal(START, START.plusDays(69));
+        GoalSnapshot snapshot = GoalSnapshot.of(goal, days(goal, 70, 2));
+
+        GoalSnapshot decoded = GoalSnapshot.decode(snapshot.encode());
+        List<GoalDayDto> days = decoded.getDays();
+
+        assertEquals(snapshot.getGoalId(), decoded.getGoalId());
+        assertEquals(70, days.size());
+        assertEquals(35, decoded.getCompletedDays());
+        assertTrue(days.get(64).isCompleted());
+        assertEquals(START.plusDays(64), days.get(64).getDate());
+        assertEquals(START.plusDays(64).atTime(20, 15), days.get(64).getCompletedAt());
+        assertFalse(days.get(65).isCompleted());
+        assertNull(days.get(65).getCompletedAt());
+    }
+
+    @Test
+    void decode_shouldRejectForeignBytes() {
+        assertThrows(IllegalArgumentException.class, () -> GoalSnapshot.decode(new byte[] { 7, 1, 2 }));
+    }
+
+    @Test
+    void isFinished_shouldWaitUntilTheDayAfterTheEndDateHasPassed() {
+        Goal goal = goal(START, LocalDate.of(2024, 1, 31));
+
+        assertFalse(GoalSnapshotCache.isFinished(goal, LocalDate.of(2024, 2, 1)));
+        assertTrue(GoalSnapshotCache.isFinished(goal, LocalDate.of(2024, 2, 2)));
+    }
+
+    private static Goal goal(LocalDate start, LocalDate end) {
+        Goal goal = new Goal("Read", "Every day", start, end);
+        goal.setId(42L);
+        goal.setVersion(3L);
+        return goal;
+    }
+
+    // Every n-th day is completed in the evening
+    private static List<GoalDay> days(Goal goal, int count, int every) {
+        List<GoalDay> days = new ArrayList<>();
+        for (int i = count - 1; i >= 0; i--) {
+            GoalDay day = new GoalDay(goal, START.plusDays(i));
+            if (i % every == 0) {
+                day.setCompleted(true);
+                day.setCompletedAt(LocalDateTime.of(START.plusDays(i), LocalTime.of(20, 15)));
+            }
+            days.add(day);
+        }
+        return days;
+    }
+}
@@ -0,0 +1,53 @@
+package com.goaltracker.view;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_shouldOnlyHitForTheRenderedVersion() {
+        FragmentCache cache = new FragmentCache(10, meterRegistry);
+        cache.put("goal-card:1", "3:5", "<div>v3</div>");
+
+        assertEquals("<div>v3</div>", cache.get("goal-card:1", "3:5"));
+        assertNull(cache.get("goal-card:1", "3:6"));
+        assertNull(cache.get("goal-card:2", "3:5"));
+        assertEquals(1.0, meterRegistry.counter("goaltracker.fragment.cache", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("goaltracker.fragment.cache", "result", "miss").count());
+    }
+
+    @Test
+    void put_shouldReplaceOlderVersions() {
+        FragmentCache cache = new FragmentCache(10, meterRegistry);
+        cache.put("goal-card:1", "3:5", "<div>old</div>");
+        cache.put("goal-card:1", "4:5", "<div>new</div>");
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get("goal-card:1", "3:5"));
+        assertEquals("<div>new</div>", cache.get("goal-card:1", "4:5"));
+    }
+
+    @Test
+    void put_shouldStayWithinMaxEntries() {
+        FragmentCache cache = new FragmentCache(2, meterRegistry);
+        cache.put("goal-card:1", "1:0", "a");
+        cache.put("goal-card:2", "1:0", "b");
+        cache.put("goal-card:3", "1:0", "c");
+
+        assertEquals(1, cache.size());
+        assertEquals("c", cache.get("goal-card:3", "1:0"));
+    }
+
+    @Test
+    void servletClassName_shouldFollowJasperNaming() {
+        assertEquals("org.apache.jsp.WEB_002dINF.views.goals._005flist_005fcontent_jsp",
+                PrecompiledJspRegistrar.servletClassName("/WEB-INF/views/goals/_list_content.jsp"));
+        assertEquals("org.apache.jsp.WEB_002dINF.views.error_jsp",
+                PrecompiledJspRegistrar.servletClassName("/WEB-INF/views/error.jsp"));
+    }
+}
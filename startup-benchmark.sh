@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request: from launching the JVM until the first
+# successful HTTP response. Each run starts the given command, polls the URL
+# and stops the process again; min/median/max are printed at the end.
+#
+# Usage: ./startup-benchmark.sh [runs] -- <command that starts the app>
+#
+#   ./startup-benchmark.sh 5 -- java -jar target/goal-tracker-1.0.0.jar
+#   BENCHMARK_URL=http://localhost:8080/actuator/health ./startup-benchmark.sh 5 -- \
+#       java -XX:SharedArchiveFile=dist/goal-tracker.jsa -Dspring.aot.enabled=true \
+#       -cp "dist/goal-tracker.jar:dist/lib/*" com.goaltracker.GoalTrackerApplication
+set -euo pipefail
+
+RUNS=5
+if [[ $# -gt 0 && "$1" != "--" ]]; then
+    RUNS=$1
+    shift
+fi
+if [[ $# -gt 0 && "$1" == "--" ]]; then
+    shift
+fi
+if [[ $# -eq 0 ]]; then
+    echo "Usage: $0 [runs] -- <command that starts the app>" >&2
+    exit 1
+fi
+
+URL=${BENCHMARK_URL:-http://localhost:8080/auth/login}
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT:-120}
+LOG=${BENCHMARK_LOG:-/tmp/startup-benchmark.log}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    "$@" > "$LOG" 2>&1 &
+    pid=$!
+
+    until curl -s -o /dev/null --fail "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited before answering; see $LOG" >&2
+            exit 1
+        fi
+        if (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+            kill "$pid"
+            echo "No response from $URL within ${TIMEOUT_SECONDS}s; see $LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    results+=("$elapsed")
+    echo "run $run: ${elapsed} ms"
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "time-to-first-request over $RUNS runs: min ${sorted[0]} ms," \
+    "median ${sorted[$(( RUNS / 2 ))]} ms, max ${sorted[$(( RUNS - 1 ))]} ms"